@@ -0,0 +1,56 @@
+package com.donte.financas.api.resource;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.benchmark.Dados;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+
+/**
+ * As duas conversoes do {@link LancamentoResource}. Fica no pacote do resource porque
+ * os metodos sao visiveis apenas no pacote; a busca do usuario fica de fora da medicao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversaoBenchmark {
+
+	LancamentoResource resource;
+	LancamentoDTO dto;
+	Lancamento lancamento;
+	Usuario usuario;
+
+	@Setup
+	public void setUp() {
+		resource = new LancamentoResource(null, null, null, null);
+		dto = Dados.lancamentoDTO();
+		lancamento = Dados.lancamento();
+		usuario = Dados.usuario();
+	}
+
+	@Benchmark
+	public Lancamento dtoParaEntidade() {
+		return resource.converter(dto, usuario);
+	}
+
+	@Benchmark
+	public LancamentoDTO entidadeParaDto() {
+		return resource.converter(lancamento);
+	}
+
+}
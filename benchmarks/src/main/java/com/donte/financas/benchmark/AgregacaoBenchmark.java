@@ -0,0 +1,77 @@
+package com.donte.financas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.SituacaoLancamento;
+
+/**
+ * Soma de valores monetarios como feita no saldo e nos totais: reduce em stream,
+ * laco simples e a soma das contribuicoes de {@link SituacaoLancamento}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgregacaoBenchmark {
+
+	@Param({ "100", "10000" })
+	int quantidade;
+
+	List<BigDecimal> valores;
+	List<SituacaoLancamento> situacoes;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		valores = new ArrayList<>(quantidade);
+		situacoes = new ArrayList<>(quantidade);
+		StatusLancamento[] status = StatusLancamento.values();
+		for(int i = 0; i < quantidade; i++) {
+			// valores com duas casas, como numeric(16,2)
+			BigDecimal valor = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+			valores.add(valor);
+			TipoLancamento tipo = random.nextBoolean() ? TipoLancamento.RECEITA : TipoLancamento.DESPESA;
+			situacoes.add(new SituacaoLancamento(1L, tipo, status[random.nextInt(status.length)], valor));
+		}
+	}
+
+	@Benchmark
+	public BigDecimal somarComStream() {
+		return valores.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	@Benchmark
+	public BigDecimal somarComLaco() {
+		BigDecimal total = BigDecimal.ZERO;
+		for(BigDecimal valor : valores) {
+			total = total.add(valor);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public BigDecimal somarContribuicoes() {
+		return situacoes.stream().map(SituacaoLancamento::contribuicao).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+}
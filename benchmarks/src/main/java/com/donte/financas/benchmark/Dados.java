@@ -0,0 +1,43 @@
+package com.donte.financas.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+/**
+ * Massa de dados comum aos benchmarks, com os mesmos valores tipicos dos testes da API.
+ */
+public final class Dados {
+
+	private Dados() {
+	}
+
+	public static Usuario usuario() {
+		return Usuario.builder().id(1L).nome("usuario").email("usuario@email.com").build();
+	}
+
+	public static Lancamento lancamento() {
+		return Lancamento.builder()
+				.id(1L)
+				.descricao("Aluguel do apartamento")
+				.ano(2021)
+				.mes(3)
+				.valor(new BigDecimal("1250.75"))
+				.tipo(TipoLancamento.DESPESA)
+				.status(StatusLancamento.PENDENTE)
+				.usuario(usuario())
+				.dataCadastro(LocalDate.of(2021, 3, 1))
+				.versao(0L)
+				.build();
+	}
+
+	public static LancamentoDTO lancamentoDTO() {
+		return LancamentoDTO.de(lancamento());
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.donte.financas.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.donte.financas.FinancasApplication;
+
+/**
+ * Executa os benchmarks aceitando as opcoes de linha de comando do JMH. Sem {@code -rf}/{@code -rff},
+ * grava o resultado em JSON com a versao da API no nome do arquivo, para comparar entre versoes.
+ */
+public class ExecutarBenchmarks {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+		OptionsBuilder opcoes = new OptionsBuilder();
+		opcoes.parent(linhaDeComando);
+		if(!linhaDeComando.getResultFormat().hasValue()) {
+			opcoes.resultFormat(ResultFormatType.JSON);
+		}
+		if(!linhaDeComando.getResult().hasValue()) {
+			opcoes.result("jmh-financas-" + versao() + ".json");
+		}
+		new Runner(opcoes.build()).run();
+	}
+
+	private static String versao() {
+		// Implementation-Version do manifesto do jar da API
+		String versao = FinancasApplication.class.getPackage().getImplementationVersion();
+		return versao == null ? "dev" : versao;
+	}
+
+}
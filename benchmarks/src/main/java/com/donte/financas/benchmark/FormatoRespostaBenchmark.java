@@ -0,0 +1,91 @@
+package com.donte.financas.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.config.WebConfig;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Codificacao e decodificacao de uma pagina de lancamentos em cada formato negociado pela busca,
+ * com os mappers configurados como na API. Os tamanhos ficam no FormatoRespostaTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoRespostaBenchmark {
+
+	static final TypeReference<PaginaDTO<LancamentoDTO>> PAGINA = new TypeReference<PaginaDTO<LancamentoDTO>>() {};
+
+	@Param({ "json", "smile", "cbor" })
+	String formato;
+
+	@Param({ "10000" })
+	int quantidade;
+
+	ObjectMapper mapper;
+	PaginaDTO<LancamentoDTO> pagina;
+	byte[] codificada;
+
+	@Setup
+	public void setUp() throws IOException {
+		switch(formato) {
+		case "smile":
+			mapper = WebConfig.criarMapperSmile();
+			break;
+		case "cbor":
+			mapper = Jackson2ObjectMapperBuilder.cbor().build();
+			break;
+		default:
+			mapper = Jackson2ObjectMapperBuilder.json().build();
+		}
+		List<LancamentoDTO> itens = new ArrayList<>(quantidade);
+		for(int i = 0; i < quantidade; i++) {
+			LancamentoDTO dto = Dados.lancamentoDTO();
+			dto.setId((long) i + 1);
+			dto.setDescricao("Lancamento " + (i % 50));
+			dto.setMes(i % 12 + 1);
+			dto.setValor(BigDecimal.valueOf(i % 100_000, 2));
+			dto.setTipo(TipoLancamento.values()[i % 2].name());
+			dto.setStatus(StatusLancamento.values()[i % 3].name());
+			itens.add(dto);
+		}
+		pagina = PaginaDTO.<LancamentoDTO>builder().itens(itens).build();
+		codificada = mapper.writeValueAsBytes(pagina);
+	}
+
+	@Benchmark
+	public byte[] codificar() throws IOException {
+		return mapper.writeValueAsBytes(pagina);
+	}
+
+	@Benchmark
+	public PaginaDTO<LancamentoDTO> decodificar() throws IOException {
+		return mapper.readValue(codificada, PAGINA);
+	}
+
+}
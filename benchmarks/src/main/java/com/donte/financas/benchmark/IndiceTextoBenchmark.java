@@ -0,0 +1,89 @@
+package com.donte.financas.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.donte.financas.service.busca.IndiceTextoUsuario;
+
+/**
+ * Busca por descricao entre os lancamentos de um usuario: o {@link IndiceTextoUsuario} contra a
+ * varredura com {@code contains} em minusculas, que e o trabalho de um {@code like '%termo%'} sem indice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndiceTextoBenchmark {
+
+	private static final String[] PALAVRAS = { "mercado", "supermercado", "aluguel", "conta", "luz", "agua", "internet",
+			"farmacia", "padaria", "restaurante", "combustivel", "posto", "academia", "salario", "pagamento", "cartao",
+			"boleto", "transferencia", "pix", "ipva", "iptu", "escola", "curso", "livraria", "cinema", "viagem", "hotel",
+			"passagem", "uber", "taxi", "presente", "roupa", "calcado", "medico", "dentista", "seguro", "condominio" };
+
+	@Param({ "100000" })
+	int quantidade;
+
+	@Param({ "mercado", "conta luz", "pag", "ipva 12" })
+	String consulta;
+
+	IndiceTextoUsuario indice;
+	List<String> descricoes;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		indice = new IndiceTextoUsuario();
+		descricoes = new ArrayList<>(quantidade);
+		for(int i = 0; i < quantidade; i++) {
+			// duas a quatro palavras e um numero, como "Conta de luz 0317"
+			StringBuilder descricao = new StringBuilder();
+			int palavras = 2 + random.nextInt(3);
+			for(int p = 0; p < palavras; p++) {
+				descricao.append(PALAVRAS[random.nextInt(PALAVRAS.length)]).append(' ');
+			}
+			descricao.append(random.nextInt(10_000));
+			descricoes.add(descricao.toString());
+			indice.indexar((long) i, 0L, descricao.toString());
+		}
+	}
+
+	@Benchmark
+	public List<Long> buscarNoIndice() {
+		return indice.buscar(consulta, 50);
+	}
+
+	@Benchmark
+	public List<Long> varrerComContains() {
+		String[] termos = consulta.toLowerCase(Locale.ROOT).split(" ");
+		List<Long> ids = new ArrayList<>();
+		for(int i = 0; i < descricoes.size(); i++) {
+			String descricao = descricoes.get(i).toLowerCase(Locale.ROOT);
+			boolean casou = true;
+			for(String termo : termos) {
+				casou &= descricao.contains(termo);
+			}
+			if(casou) {
+				ids.add((long) i);
+			}
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.donte.financas.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.donte.financas.api.filter.LimitadorTaxa;
+import com.donte.financas.api.filter.LimiteRequisicoesFilter;
+
+/**
+ * Custo por requisicao do {@link LimiteRequisicoesFilter}: uma consulta ao balde do IP e uma ao do
+ * usuario. A taxa e alta o bastante para nenhuma requisicao ser recusada, entao todo o tempo medido
+ * e o da contabilizacao. Com varias threads no mesmo balde aparece a disputa pelo compareAndSet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LimiteRequisicoesBenchmark {
+
+	static final int CLIENTES = 10_000;
+
+	LimitadorTaxa<String> porIp;
+	LimitadorTaxa<Long> porUsuario;
+	String[] ips;
+
+	@Setup
+	public void setUp() {
+		porIp = new LimitadorTaxa<>(1e9, 1_000_000);
+		porUsuario = new LimitadorTaxa<>(1e9, 1_000_000);
+		ips = new String[CLIENTES];
+		for(int i = 0; i < CLIENTES; i++) {
+			ips[i] = "10.0." + (i / 256) + "." + (i % 256);
+		}
+	}
+
+	@Benchmark
+	public long mesmoCliente() {
+		return porIp.tentar(ips[0]) + porUsuario.tentar(1L);
+	}
+
+	@Benchmark
+	public long clientesDistintos() {
+		int cliente = ThreadLocalRandom.current().nextInt(CLIENTES);
+		return porIp.tentar(ips[cliente]) + porUsuario.tentar((long) cliente);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long mesmoClienteEm4Threads() {
+		return porIp.tentar(ips[0]) + porUsuario.tentar(1L);
+	}
+
+}
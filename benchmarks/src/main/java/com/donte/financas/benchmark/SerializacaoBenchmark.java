@@ -0,0 +1,55 @@
+package com.donte.financas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializacao JSON da entidade (com o usuario aninhado) e do DTO, com o mesmo
+ * ObjectMapper que o Spring MVC monta para a API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+	ObjectMapper mapper;
+	Lancamento lancamento;
+	LancamentoDTO dto;
+
+	@Setup
+	public void setUp() {
+		mapper = Jackson2ObjectMapperBuilder.json().build();
+		lancamento = Dados.lancamento();
+		dto = Dados.lancamentoDTO();
+	}
+
+	@Benchmark
+	public byte[] serializarEntidade() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(lancamento);
+	}
+
+	@Benchmark
+	public byte[] serializarDto() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(dto);
+	}
+
+}
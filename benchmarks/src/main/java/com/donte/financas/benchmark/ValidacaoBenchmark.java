@@ -0,0 +1,61 @@
+package com.donte.financas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.service.impl.LancamentoServiceImpl;
+
+/**
+ * {@link LancamentoServiceImpl#validar} roda em toda inclusao e em cada item dos lotes.
+ * O caso invalido mede o custo de montar a {@link RegraNegocioException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+	LancamentoServiceImpl service;
+	Lancamento valido;
+	Lancamento anoInvalido;
+
+	@Setup
+	public void setUp() {
+		// validar nao usa repositorios nem transacoes
+		service = new LancamentoServiceImpl(null, null, null, null, null, null);
+		valido = Dados.lancamento();
+		anoInvalido = Dados.lancamento();
+		anoInvalido.setAno(202);
+	}
+
+	@Benchmark
+	public Lancamento validarLancamentoValido() {
+		service.validar(valido);
+		return valido;
+	}
+
+	@Benchmark
+	public void validarAnoInvalido(Blackhole blackhole) {
+		try {
+			service.validar(anoInvalido);
+		}catch (RegraNegocioException e) {
+			blackhole.consume(e);
+		}
+	}
+
+}
@@ -2,9 +2,11 @@ package com.donte.financas;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-@SpringBootApplication
+// o ConnectionFactory do R2DBC e criado em ReativoConfig: como bean, ele desligaria o DataSource JDBC
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class FinancasApplication implements WebMvcConfigurer{
 
 	public static void main(String[] args) {
@@ -0,0 +1,27 @@
+package com.donte.financas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Novo status para os lancamentos listados em {@code ids} ou, sem ids, para todos
+ * os lancamentos do usuario que atendem ao filtro (mes, ano, tipo, statusAtual).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizarStatusLoteDTO {
+
+	private String status;
+	private List<Long> ids;
+	private Integer mes;
+	private Integer ano;
+	private String tipo;
+	private String statusAtual;
+
+}
@@ -0,0 +1,20 @@
+package com.donte.financas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstatisticasCacheDTO {
+
+	private long tamanho;
+	private long acertos;
+	private long faltas;
+	private double taxaAcerto;
+	private long remocoes;
+
+}
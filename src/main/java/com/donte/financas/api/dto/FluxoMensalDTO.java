@@ -0,0 +1,25 @@
+package com.donte.financas.api.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.donte.financas.model.repository.TotalLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FluxoMensalDTO {
+
+	private List<TotalLancamento> totais;
+	// false quando ha alteracoes no periodo que os totais ainda nao refletem
+	private boolean atualizado;
+	private long alteracoesPendentes;
+	private LocalDateTime pendenteDesde;
+
+}
@@ -0,0 +1,27 @@
+package com.donte.financas.api.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoDTO {
+
+	private String id;
+	private Long usuario;
+	private String formato;
+	private String situacao;
+	private long lidas;
+	private long importadas;
+	private long rejeitadas;
+	private String mensagem;
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+
+}
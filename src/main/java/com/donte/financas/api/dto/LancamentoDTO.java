@@ -2,6 +2,9 @@ package com.donte.financas.api.dto;
 
 import java.math.BigDecimal;
 
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -21,5 +24,32 @@ public class LancamentoDTO {
 	private Long usuario;
 	private String tipo;
 	private String status;
+	private Long versao;
+
+	public static LancamentoDTO de(Lancamento lanc) {
+		return LancamentoDTO.builder()
+		.id(lanc.getId())
+		.descricao(lanc.getDescricao())
+		.valor(lanc.getValor())
+		.mes(lanc.getMes())
+		.ano(lanc.getAno())
+		.status(lanc.getStatus().name())
+		.tipo(lanc.getTipo().name())
+		.usuario(lanc.getUsuario().getId())
+		.versao(lanc.getVersao()).build();
+	}
+
+	public static LancamentoDTO de(ResumoLancamento resumo) {
+		return LancamentoDTO.builder()
+		.id(resumo.getId())
+		.descricao(resumo.getDescricao())
+		.valor(resumo.getValor())
+		.mes(resumo.getMes())
+		.ano(resumo.getAno())
+		.status(resumo.getStatus().name())
+		.tipo(resumo.getTipo().name())
+		.usuario(resumo.getUsuarioId())
+		.versao(resumo.getVersao()).build();
+	}
 	
 }
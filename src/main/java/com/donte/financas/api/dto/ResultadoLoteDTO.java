@@ -0,0 +1,23 @@
+package com.donte.financas.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+	private int recebidos;
+	private List<ItemLoteDTO> salvos = new ArrayList<>();
+	private List<ItemLoteDTO> erros = new ArrayList<>();
+
+	public ResultadoLoteDTO(int recebidos) {
+		this.recebidos = recebidos;
+	}
+
+}
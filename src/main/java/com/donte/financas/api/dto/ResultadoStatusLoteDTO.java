@@ -0,0 +1,20 @@
+package com.donte.financas.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoStatusLoteDTO {
+
+	private int atualizados;
+	// encontrados, mas que ja estavam no status informado
+	private int inalterados;
+	private List<ItemLoteDTO> falhas = new ArrayList<>();
+
+}
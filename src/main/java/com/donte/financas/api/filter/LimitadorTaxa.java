@@ -0,0 +1,76 @@
+package com.donte.financas.api.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas por chave, sem bloqueios. Cada balde e um unico {@link AtomicLong} com o instante
+ * teorico da proxima chegada (GCRA): liberar uma requisicao e um compareAndSet, e chaves diferentes
+ * nunca disputam o mesmo contador. Um balde cheio equivale a um balde novo, entao os ociosos podem
+ * ser descartados por {@link #limparOciosos()}, chamado periodicamente fora das requisicoes
+ * ({@code LimiteRequisicoesJob}).
+ */
+public class LimitadorTaxa<K> {
+
+	private final long intervalo;
+	private final long tolerancia;
+	private final LongSupplier relogio;
+	private final ConcurrentMap<K, AtomicLong> chegadas = new ConcurrentHashMap<>();
+
+	public LimitadorTaxa(double porSegundo, int rajada) {
+		this(porSegundo, rajada, System::nanoTime);
+	}
+
+	public LimitadorTaxa(double porSegundo, int rajada, LongSupplier relogioNanos) {
+		if(porSegundo <= 0 || rajada < 1) {
+			throw new IllegalArgumentException("Informe uma taxa positiva e uma rajada de pelo menos 1");
+		}
+		this.intervalo = (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo);
+		this.tolerancia = intervalo * (rajada - 1);
+		this.relogio = relogioNanos;
+	}
+
+	/**
+	 * Consome uma ficha do balde da chave. Retorna 0 quando a requisicao foi liberada ou, quando
+	 * recusada, os nanossegundos ate a proxima ficha.
+	 */
+	public long tentar(K chave) {
+		long agora = relogio.getAsLong();
+		// get antes do computeIfAbsent: no Java 8 o computeIfAbsent bloqueia a posicao mesmo com a chave presente
+		AtomicLong chegada = chegadas.get(chave);
+		if(chegada == null) {
+			chegada = chegadas.computeIfAbsent(chave, c -> new AtomicLong(agora));
+		}
+		while(true) {
+			long prevista = chegada.get();
+			long base = prevista - agora > 0 ? prevista : agora;
+			long espera = base - agora - tolerancia;
+			if(espera > 0) {
+				return espera;
+			}
+			if(chegada.compareAndSet(prevista, base + intervalo)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Remove os baldes cheios, que voltariam ao mesmo estado se fossem criados de novo. Uma requisicao
+	 * concorrente com a remocao pode consumir de um balde ja descartado: no pior caso a chave ganha
+	 * uma ficha extra por limpeza. Retorna quantos baldes foram removidos.
+	 */
+	public int limparOciosos() {
+		long agora = relogio.getAsLong();
+		int antes = chegadas.size();
+		chegadas.values().removeIf(chegada -> chegada.get() - agora <= 0);
+		return antes - chegadas.size();
+	}
+
+	public int getBaldes() {
+		return chegadas.size();
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.donte.financas.api.filter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limita as requisicoes da API por IP e por usuario autenticado, para um cliente em laco nao ocupar
+ * o pool de conexoes dos demais. Deve rodar depois do {@link TokenFilter}, que identifica o usuario.
+ * Acima do limite a resposta e 429 com Retry-After, sem chegar aos resources. O IP e o de
+ * {@code getRemoteAddr()}: atras de um proxy ele so identifica o cliente com
+ * {@code server.forward-headers-strategy=native}, que o Tomcat preenche a partir do X-Forwarded-For
+ * enviado por um proxy confiavel.
+ */
+public class LimiteRequisicoesFilter extends OncePerRequestFilter {
+
+	private final LimitadorTaxa<String> porIp;
+	private final LimitadorTaxa<Long> porUsuario;
+	private final LongAdder recusadasPorIp = new LongAdder();
+	private final LongAdder recusadasPorUsuario = new LongAdder();
+
+	public LimiteRequisicoesFilter(LimitadorTaxa<String> porIp, LimitadorTaxa<Long> porUsuario) {
+		this.porIp = porIp;
+		this.porUsuario = porUsuario;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		long espera = porIp.tentar(request.getRemoteAddr());
+		if(espera > 0) {
+			recusadasPorIp.increment();
+			recusar(response, espera);
+			return;
+		}
+		Object usuarioId = request.getAttribute(TokenFilter.ATRIBUTO_USUARIO);
+		if(usuarioId != null) {
+			espera = porUsuario.tentar((Long) usuarioId);
+			if(espera > 0) {
+				recusadasPorUsuario.increment();
+				recusar(response, espera);
+				return;
+			}
+		}
+		chain.doFilter(request, response);
+	}
+
+	private void recusar(HttpServletResponse response, long esperaNanos) throws IOException {
+		long segundos = Math.max(1, (esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write("Muitas requisições. Tente novamente em " + segundos + " segundo(s)");
+	}
+
+	public long getRecusadasPorIp() {
+		return recusadasPorIp.sum();
+	}
+
+	public long getRecusadasPorUsuario() {
+		return recusadasPorUsuario.sum();
+	}
+
+	public LimitadorTaxa<String> getPorIp() {
+		return porIp;
+	}
+
+	public LimitadorTaxa<Long> getPorUsuario() {
+		return porUsuario;
+	}
+
+}
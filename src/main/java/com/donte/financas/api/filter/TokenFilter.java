@@ -0,0 +1,89 @@
+package com.donte.financas.api.filter;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.donte.financas.exception.ErroAutenticacaoException;
+import com.donte.financas.service.TokenService;
+
+/**
+ * Exige um token valido no cabecalho Authorization ("Bearer ...") em todas as rotas da API,
+ * exceto autenticacao e cadastro de usuario. Quando a requisicao informa o parametro usuario,
+ * ele precisa ser o dono do token. O usuario no caminho, no corpo ou dono do lancamento carregado
+ * so e conhecido pelos resources, que o conferem com {@link #permiteAcesso(HttpServletRequest, Long)}.
+ */
+public class TokenFilter extends OncePerRequestFilter {
+
+	public static final String ATRIBUTO_USUARIO = "financas.usuarioAutenticado";
+	public static final String ACESSO_NEGADO = "Acesso negado aos dados de outro usuário";
+	private static final String PREFIXO = "Bearer ";
+
+	private final TokenService tokenService;
+
+	public TokenFilter(TokenService tokenService) {
+		this.tokenService = tokenService;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String caminho = request.getServletPath();
+		String metodo = request.getMethod();
+		return HttpMethod.OPTIONS.matches(metodo)
+				|| caminho.equals("/api/usuarios/autenticar")
+				|| (caminho.equals("/api/usuarios") && HttpMethod.POST.matches(metodo));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+		Long usuarioId;
+		try {
+			String token = cabecalho != null && cabecalho.startsWith(PREFIXO) ? cabecalho.substring(PREFIXO.length()) : null;
+			usuarioId = tokenService.validar(token);
+		}catch (ErroAutenticacaoException e) {
+			recusar(response, HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+			return;
+		}
+
+		String usuarioInformado = request.getParameter("usuario");
+		if(usuarioInformado != null && !usuarioInformado.equals(usuarioId.toString())) {
+			recusar(response, HttpServletResponse.SC_FORBIDDEN, ACESSO_NEGADO);
+			return;
+		}
+
+		request.setAttribute(ATRIBUTO_USUARIO, usuarioId);
+		chain.doFilter(request, response);
+	}
+
+	/**
+	 * Usuario do token da requisicao, ou {@code null} quando o filtro esta desligado (financas.token.habilitado=false).
+	 */
+	public static Long usuarioAutenticado(HttpServletRequest request) {
+		return (Long) request.getAttribute(ATRIBUTO_USUARIO);
+	}
+
+	/**
+	 * Se a requisicao pode ler ou alterar os dados do usuario: sempre quando o filtro esta desligado
+	 * ou o usuario nao foi informado (a validacao do resource responde nesse caso).
+	 */
+	public static boolean permiteAcesso(HttpServletRequest request, Long usuarioId) {
+		Long autenticado = usuarioAutenticado(request);
+		return autenticado == null || usuarioId == null || autenticado.equals(usuarioId);
+	}
+
+	private void recusar(HttpServletResponse response, int status, String mensagem) throws IOException {
+		response.setStatus(status);
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write(mensagem);
+	}
+
+}
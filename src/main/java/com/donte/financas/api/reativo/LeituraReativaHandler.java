@@ -0,0 +1,98 @@
+package com.donte.financas.api.reativo;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.AbstractServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.service.LeituraReativaService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Versao reativa das leituras de {@link com.donte.financas.api.resource.LancamentoResource} e do saldo
+ * de {@link com.donte.financas.api.resource.UsuarioResource}, com as mesmas respostas de erro.
+ * A busca nao e paginada: os lancamentos sao enviados conforme o cliente le a resposta, como array JSON
+ * ou, com Accept application/x-ndjson, um por linha.
+ */
+@Component
+public class LeituraReativaHandler {
+
+	private static final MediaType TEXTO = MediaType.parseMediaType("text/plain;charset=UTF-8");
+
+	private final LeituraReativaService service;
+
+	public LeituraReativaHandler(LeituraReativaService service) {
+		this.service = service;
+	}
+
+	public Mono<ServerResponse> buscar(ServerRequest request) {
+		Lancamento filtro;
+		try {
+			filtro = new Lancamento();
+			filtro.setUsuario(Usuario.builder().id(request.queryParam("usuario").map(Long::valueOf)
+					.orElseThrow(() -> new RegraNegocioException("Informe um usuário"))).build());
+			filtro.setDescricao(request.queryParam("descricao").orElse(null));
+			filtro.setMes(request.queryParam("mes").map(Integer::valueOf).orElse(null));
+			filtro.setAno(request.queryParam("ano").map(Integer::valueOf).orElse(null));
+		}catch (RegraNegocioException | NumberFormatException e) {
+			return erro(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+
+		MediaType tipo = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+				? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+		// a resposta so e enviada com o primeiro item: o erro de usuario inexistente ainda vira 400 (ReativoConfig)
+		return ServerResponse.ok().contentType(tipo).body(service.buscar(filtro).map(LancamentoDTO::de), LancamentoDTO.class);
+	}
+
+	public Mono<ServerResponse> buscarPorId(ServerRequest request) {
+		Long id;
+		try {
+			id = Long.valueOf(request.pathVariable("id"));
+		}catch (NumberFormatException e) {
+			return erro(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		return service.obterResumoPorId(id)
+				.flatMap(resumo -> permiteAcesso(request, resumo.getUsuarioId())
+						? ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(LancamentoDTO.de(resumo))
+						: erro(HttpStatus.FORBIDDEN, TokenFilter.ACESSO_NEGADO))
+				.switchIfEmpty(erro(HttpStatus.NOT_FOUND, "Lancamento nao encontrado na base de dados"));
+	}
+
+	public Mono<ServerResponse> saldo(ServerRequest request) {
+		Long usuarioId;
+		try {
+			usuarioId = Long.valueOf(request.pathVariable("id"));
+		}catch (NumberFormatException e) {
+			return erro(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+		if(!permiteAcesso(request, usuarioId)) {
+			return erro(HttpStatus.FORBIDDEN, TokenFilter.ACESSO_NEGADO);
+		}
+		return service.obterSaldoPorUsuario(usuarioId)
+				.flatMap(saldo -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(saldo))
+				.switchIfEmpty(ServerResponse.notFound().build());
+	}
+
+	// as rotas rodam no Tomcat (ReativoConfig): o usuario do TokenFilter esta nos atributos da requisicao do servlet
+	private static boolean permiteAcesso(ServerRequest request, Long usuarioId) {
+		ServerHttpRequest requisicao = request.exchange().getRequest();
+		Object nativa = requisicao instanceof AbstractServerHttpRequest ? ((AbstractServerHttpRequest) requisicao).getNativeRequest() : null;
+		return !(nativa instanceof HttpServletRequest) || TokenFilter.permiteAcesso((HttpServletRequest) nativa, usuarioId);
+	}
+
+	private static Mono<ServerResponse> erro(HttpStatus status, String mensagem) {
+		return ServerResponse.status(status).contentType(TEXTO).bodyValue(mensagem);
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.donte.financas.api.resource;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Conflitos de concorrencia (versao desatualizada, deadlock, espera por bloqueio) viram 409:
+ * o cliente deve consultar o registro de novo e repetir a operacao.
+ */
+@RestControllerAdvice
+public class ConcorrenciaExceptionHandler {
+
+	@ExceptionHandler(ConcurrencyFailureException.class)
+	public ResponseEntity<String> conflito(ConcurrencyFailureException e) {
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+				.body("O registro foi alterado por outra requisição. Consulte-o novamente e repita a operação.");
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.donte.financas.api.resource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Optional;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.donte.financas.api.dto.ImportacaoDTO;
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.exception.ServicoSobrecarregadoException;
+import com.donte.financas.service.ImportacaoService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/lancamentos/importacoes")
+@RequiredArgsConstructor
+public class ImportacaoResource {
+
+	private final ImportacaoService service;
+
+	@PostMapping
+	public ResponseEntity<?> importar(
+			@RequestParam("arquivo") MultipartFile arquivo,
+			@RequestParam("usuario") Long idUsuario,
+			@RequestParam(value = "formato", required = false) String formato,
+			@RequestParam(value = "charset", required = false) String charset){
+		String formatoArquivo = formato != null ? formato : StringUtils.substringAfterLast(arquivo.getOriginalFilename(), ".");
+		try {
+			ImportacaoDTO importacao = service.iniciar(idUsuario, formatoArquivo, charset, arquivo.getInputStream());
+			return ResponseEntity.accepted().location(URI.create("/api/lancamentos/importacoes/" + importacao.getId())).body(importacao);
+		}catch (ServicoSobrecarregadoException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").body(e.getMessage());
+		}catch (RegraNegocioException | IOException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	@GetMapping("{id}")
+	public ResponseEntity<?> andamento(@PathVariable("id") String id, HttpServletRequest request){
+		return service.obter(id)
+				.<ResponseEntity<?>>map(importacao -> TokenFilter.permiteAcesso(request, importacao.getUsuario())
+						? ResponseEntity.ok(importacao)
+						: ResponseEntity.status(HttpStatus.FORBIDDEN).body(TokenFilter.ACESSO_NEGADO))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Importacao nao encontrada"));
+	}
+
+	@GetMapping("{id}/rejeitadas")
+	public ResponseEntity<?> rejeitadas(@PathVariable("id") String id, HttpServletRequest request){
+		Optional<ImportacaoDTO> importacao = service.obter(id);
+		if(importacao.isPresent() && !TokenFilter.permiteAcesso(request, importacao.get().getUsuario()))
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TokenFilter.ACESSO_NEGADO);
+		return service.obterRejeitadas(id)
+				.<ResponseEntity<?>>map(arquivo -> ResponseEntity.ok()
+						.contentType(new MediaType("text", "csv"))
+						.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rejeitadas-" + id + ".csv\"")
+						.body(new FileSystemResource(arquivo)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Importacao nao encontrada ou ainda em andamento"));
+	}
+
+}
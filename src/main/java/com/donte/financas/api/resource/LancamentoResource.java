@@ -1,11 +1,23 @@
 package com.donte.financas.api.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.BeanUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,16 +28,28 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.donte.financas.api.dto.AtualizarStatusDTO;
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.ItemLoteDTO;
 import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.dto.ResultadoLoteDTO;
+import com.donte.financas.api.dto.ResultadoStatusLoteDTO;
+import com.donte.financas.api.filter.TokenFilter;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Lancamento;
 import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.model.enums.StatusLancamento;
 import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.ExportacaoService;
+import com.donte.financas.service.FormatoExportacao;
 import com.donte.financas.service.LancamentoService;
 import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDados;
+import com.donte.financas.service.VersaoDadosService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,46 +58,129 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor // Gera um construtor com atributos finais, o que faz com que o proprio spring ja faca a injecao de dependencia, mesmo que colocar o autowired
 public class LancamentoResource {
 
+	static final int TAMANHO_MAXIMO_LOTE = 5000;
+
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;
+	private final ExportacaoService exportacaoService;
+	private final VersaoDadosService versaoDadosService;
 	
 	@GetMapping
 	public ResponseEntity<?> buscar(
 			@RequestParam(value = "descricao", required = false) String descricao,
 			@RequestParam(value= "mes", required = false) Integer mes,
 			@RequestParam(value= "ano", required = false) Integer ano,
-			@RequestParam(value= "usuario") Long idUsuario){
+			@RequestParam(value= "usuario") Long idUsuario,
+			@RequestParam(value= "cursor", required = false) String cursor,
+			@RequestParam(value= "tamanho", required = false) Integer tamanho,
+			HttpServletRequest request){
 
 		Optional<Usuario> usuarioOpt = usuarioService.obterPorId(idUsuario);
 		if(!usuarioOpt.isPresent())
 			return ResponseEntity.badRequest().body("Não foi possivel realizar a consulta. Usuário nao encontrado");
 
+		VersaoDados versao = versaoDadosService.obterVersao(idUsuario);
+		if(RespostaCondicional.naoModificado(request, versao))
+			return RespostaCondicional.naoModificada(versao);
+
 		Lancamento lancamentoFiltro = new Lancamento();
 		lancamentoFiltro.setDescricao(descricao);
 		lancamentoFiltro.setMes(mes);
 		lancamentoFiltro.setAno(ano);
 		lancamentoFiltro.setUsuario(usuarioOpt.get());
 
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
+		try {
+			PaginaDTO<ResumoLancamento> pagina = service.buscar(lancamentoFiltro, cursor, tamanho);
+			List<LancamentoDTO> itens = pagina.getItens().stream().map(LancamentoDTO::de).collect(Collectors.toList());
+			return RespostaCondicional.ok(versao).body(PaginaDTO.<LancamentoDTO>builder().itens(itens).proximoCursor(pagina.getProximoCursor()).build());
+		}catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
+	@GetMapping("/busca-texto")
+	public ResponseEntity<?> buscarPorTexto(
+			@RequestParam(value= "usuario") Long idUsuario,
+			@RequestParam(value= "texto") String texto,
+			@RequestParam(value= "limite", required = false) Integer limite,
+			HttpServletRequest request){
+		if(!usuarioService.obterPorId(idUsuario).isPresent())
+			return ResponseEntity.badRequest().body("Não foi possivel realizar a consulta. Usuário nao encontrado");
+
+		VersaoDados versao = versaoDadosService.obterVersao(idUsuario);
+		if(RespostaCondicional.naoModificado(request, versao))
+			return RespostaCondicional.naoModificada(versao);
+
+		try {
+			List<LancamentoDTO> itens = service.buscarPorTexto(idUsuario, texto, limite).stream().map(LancamentoDTO::de).collect(Collectors.toList());
+			return RespostaCondicional.ok(versao).body(itens);
+		}catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	@GetMapping("/exportacao")
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@RequestParam(value= "usuario") Long idUsuario,
+			@RequestParam(value= "formato", defaultValue = "csv") String formato){
+		if(!usuarioService.obterPorId(idUsuario).isPresent())
+			return erroExportacao("Não foi possivel realizar a exportação. Usuário nao encontrado");
+
+		FormatoExportacao formatoExportacao;
+		try {
+			formatoExportacao = FormatoExportacao.valueOf(formato.toUpperCase());
+		}catch (IllegalArgumentException e) {
+			return erroExportacao("Formato inválido. Use csv ou ndjson");
+		}
+
+		StreamingResponseBody corpo = saida -> exportacaoService.exportar(idUsuario, formatoExportacao, saida);
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(formatoExportacao.getContentType() + ";charset=UTF-8"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos." + formatoExportacao.name().toLowerCase() + "\"")
+				.body(corpo);
+	}
+
+	// o tipo de retorno precisa ser StreamingResponseBody para o Spring tratar a resposta de forma assincrona
+	private ResponseEntity<StreamingResponseBody> erroExportacao(String mensagem) {
+		return ResponseEntity.badRequest()
+				.contentType(MediaType.parseMediaType("text/plain;charset=UTF-8"))
+				.body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+	}
+
 	@GetMapping("{id}")
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public ResponseEntity<?> buscarPorId(@PathVariable("id") Long id){
-		return service.obterPorId(id)
-				.map( entity -> new ResponseEntity( converter(entity), HttpStatus.OK ) ) 
+	public ResponseEntity<?> buscarPorId(@PathVariable("id") Long id, HttpServletRequest request){
+		// sem consultar o lancamento so se conhece o usuario do token: a versao dele so e
+		// informada quando o lancamento e desse usuario
+		Long usuarioId = TokenFilter.usuarioAutenticado(request);
+		VersaoDados versao = usuarioId == null ? null : versaoDadosService.obterVersao(usuarioId);
+		if(versao != null && RespostaCondicional.naoModificado(request, versao))
+			return RespostaCondicional.naoModificada(versao);
+
+		return service.obterResumoPorId(id)
+				.<ResponseEntity<?>>map(resumo -> {
+					if(!TokenFilter.permiteAcesso(request, resumo.getUsuarioId()))
+						return acessoNegado();
+					return versao != null
+							? RespostaCondicional.ok(versao).body(LancamentoDTO.de(resumo))
+							: ResponseEntity.ok(LancamentoDTO.de(resumo));
+				})
 				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Lancamento nao encontrado na base de dados"));
 	}
 	
 	@GetMapping("/{id}/temp")
-	public ResponseEntity<?> buscarPeloCodigo(@PathVariable Long id) {
+	public ResponseEntity<?> buscarPeloCodigo(@PathVariable Long id, HttpServletRequest request) {
 		Optional<Lancamento> lancamento = service.obterPorId(id);
-		return lancamento.isPresent() ? ResponseEntity.ok(converter(lancamento.get())) : ResponseEntity.notFound().build();
+		if(!lancamento.isPresent())
+			return ResponseEntity.notFound().build();
+		if(!TokenFilter.permiteAcesso(request, dono(lancamento.get())))
+			return acessoNegado();
+		return ResponseEntity.ok(converter(lancamento.get()));
 	}
 
 	@PostMapping
-	public ResponseEntity<?> salvar(@RequestBody LancamentoDTO dto){
+	public ResponseEntity<?> salvar(@RequestBody LancamentoDTO dto, HttpServletRequest request){
+		if(!TokenFilter.permiteAcesso(request, dto.getUsuario()))
+			return acessoNegado();
 		try {
 			Lancamento entidade = service.salvar(converter(dto));			
 			return ResponseEntity.status(HttpStatus.CREATED).body(entidade);//return ResponseEntity.ok(entidade);//return new ResponseEntity(entidade, HttpStatus.CREATED);
@@ -82,22 +189,61 @@ public class LancamentoResource {
 		}
 	}
 
+	@PostMapping("/lote")
+	public ResponseEntity<?> salvarLote(@RequestBody List<LancamentoDTO> dtos, HttpServletRequest request){
+		if(dtos.size() > TAMANHO_MAXIMO_LOTE)
+			return ResponseEntity.badRequest().body("O lote deve ter no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos");
+		if(dtos.stream().anyMatch(dto -> !TokenFilter.permiteAcesso(request, dto.getUsuario())))
+			return acessoNegado();
+
+		// todos os usuarios do lote em uma unica consulta
+		Set<Long> idsUsuarios = dtos.stream().map(LancamentoDTO::getUsuario).filter(Objects::nonNull).collect(Collectors.toSet());
+		Map<Long, Usuario> usuarios = usuarioService.obterPorIds(idsUsuarios).stream()
+				.collect(Collectors.toMap(Usuario::getId, Function.identity()));
+
+		ResultadoLoteDTO resultado = new ResultadoLoteDTO(dtos.size());
+		List<Lancamento> validos = new ArrayList<>();
+		List<Integer> indices = new ArrayList<>();
+		for(int i = 0; i < dtos.size(); i++) {
+			try {
+				Lancamento lancamento = converter(dtos.get(i), usuarios.get(dtos.get(i).getUsuario()));
+				service.validar(lancamento);
+				validos.add(lancamento);
+				indices.add(i);
+			}catch (RegraNegocioException | IllegalArgumentException e) {
+				resultado.getErros().add(ItemLoteDTO.builder().indice(i).mensagem(e.getMessage()).build());
+			}
+		}
+
+		List<Lancamento> salvos = service.salvarLote(validos);
+		for(int i = 0; i < salvos.size(); i++) {
+			resultado.getSalvos().add(ItemLoteDTO.builder().indice(indices.get(i)).id(salvos.get(i).getId()).build());
+		}
+		HttpStatus status = salvos.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+		return ResponseEntity.status(status).body(resultado);
+	}
+
 	@DeleteMapping("{id}")
-	public ResponseEntity<?> deletar(@PathVariable("id") Long id) {
-		return service.obterPorId(id).map(entity -> {
+	public ResponseEntity<?> deletar(@PathVariable("id") Long id, HttpServletRequest request) {
+		return service.obterPorId(id).<ResponseEntity<?>>map(entity -> {
+			if(!TokenFilter.permiteAcesso(request, dono(entity)))
+				return acessoNegado();
 			service.deletar(entity);
 			return new ResponseEntity<>(HttpStatus.NO_CONTENT); //ResponseEntity.noContent().build();
 		}).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Lancamento nao encontrado na base de dados"));
 	}
 
 	@PutMapping("{id}")
-	public ResponseEntity<?> atualizar(@PathVariable("id") Long codigo, @RequestBody LancamentoDTO dto){
+	public ResponseEntity<?> atualizar(@PathVariable("id") Long codigo, @RequestBody LancamentoDTO dto, HttpServletRequest request){
 		return service.obterPorId(codigo).map(entidade -> {
+			if(!TokenFilter.permiteAcesso(request, dono(entidade)) || !TokenFilter.permiteAcesso(request, dto.getUsuario()))
+				return acessoNegado();
 			try {
 				Lancamento lancamento = converter(dto);
 				lancamento.setId(codigo);
-				service.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
+				// sem a versao no corpo vale a que acabou de ser lida (ultima escrita vence)
+				lancamento.setVersao(dto.getVersao() != null ? dto.getVersao() : entidade.getVersao());
+				return ResponseEntity.ok(service.atualizar(lancamento));
 			}catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
 			}
@@ -106,16 +252,16 @@ public class LancamentoResource {
 	}
 	
 	@PutMapping("{id}/status1")
-	public ResponseEntity<?> atualizarStatus1(@PathVariable("id") Long codigo, @RequestBody AtualizarStatusDTO dto){
+	public ResponseEntity<?> atualizarStatus1(@PathVariable("id") Long codigo, @RequestBody AtualizarStatusDTO dto, HttpServletRequest request){
 		return service.obterPorId(codigo).map(entidade -> {
+			if(!TokenFilter.permiteAcesso(request, dono(entidade)))
+				return acessoNegado();
 			try {
 				StatusLancamento status = StatusLancamento.valueOf(dto.getStatus());
 				if(status == null) {
 					return ResponseEntity.badRequest().body("Status inválido");
 				}
-				entidade.setStatus(status);
-				service.atualizar(entidade);
-				return ResponseEntity.ok(entidade);
+				return ResponseEntity.ok(service.atualizarStatus(codigo, dto));
 			}catch (RegraNegocioException | IllegalArgumentException | NullPointerException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
 			}
@@ -124,7 +270,11 @@ public class LancamentoResource {
 	}
 	
 	@PutMapping("{id}/status")	
-	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long codigo, @RequestBody AtualizarStatusDTO dto){
+	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long codigo, @RequestBody AtualizarStatusDTO dto, HttpServletRequest request){
+		// o dono so e consultado com token: sem ele a alteracao segue sem a leitura extra
+		if(TokenFilter.usuarioAutenticado(request) != null && !TokenFilter.permiteAcesso(request,
+				service.obterResumoPorId(codigo).map(ResumoLancamento::getUsuarioId).orElse(null)))
+			return acessoNegado();
 		try {
 			Lancamento lancamento = service.atualizarStatus(codigo, dto);
 			return ResponseEntity.ok(lancamento);
@@ -133,11 +283,25 @@ public class LancamentoResource {
 		}
 	}
 
+	@PutMapping("/status")
+	public ResponseEntity<?> atualizarStatusEmLote(@RequestParam("usuario") Long idUsuario, @RequestBody AtualizarStatusLoteDTO dto){
+		try {
+			ResultadoStatusLoteDTO resultado = service.atualizarStatusEmLote(idUsuario, dto);
+			return ResponseEntity.ok(resultado);
+		}catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
 	@PutMapping("/temp/{id}")
-	public ResponseEntity<?> atualizarAux(@PathVariable("id") Long codigo, @RequestBody LancamentoDTO dto){
+	public ResponseEntity<?> atualizarAux(@PathVariable("id") Long codigo, @RequestBody LancamentoDTO dto, HttpServletRequest request){
 		try {
 			Lancamento lancamentoSalvo = service.obterPorId(codigo).orElseThrow(() -> new IllegalArgumentException());
-			BeanUtils.copyProperties(converter(dto), lancamentoSalvo, "id");
+			if(!TokenFilter.permiteAcesso(request, dono(lancamentoSalvo)) || !TokenFilter.permiteAcesso(request, dto.getUsuario()))
+				return acessoNegado();
+			if(dto.getVersao() != null && !dto.getVersao().equals(lancamentoSalvo.getVersao()))
+				throw new ObjectOptimisticLockingFailureException(Lancamento.class, codigo);
+			BeanUtils.copyProperties(converter(dto), lancamentoSalvo, "id", "versao");
 			service.atualizar(lancamentoSalvo);
 			return ResponseEntity.ok(lancamentoSalvo);
 		}catch (IllegalArgumentException e) {
@@ -147,8 +311,23 @@ public class LancamentoResource {
 		}			
 	}
 
+	private static Long dono(Lancamento lancamento) {
+		return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+	}
+
+	private static ResponseEntity<?> acessoNegado() {
+		return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TokenFilter.ACESSO_NEGADO);
+	}
+
 	private Lancamento converter(LancamentoDTO dto) {
 		Usuario usuario = usuarioService.obterPorId(dto.getUsuario()).orElseThrow(() -> new RegraNegocioException("Usuario nao encontrado"));
+		return converter(dto, usuario);
+	}
+
+	// conversoes visiveis no pacote para os benchmarks (modulo benchmarks)
+	Lancamento converter(LancamentoDTO dto, Usuario usuario) {
+		if(usuario == null)
+			throw new RegraNegocioException("Usuario nao encontrado");
 		Lancamento lanc = new Lancamento();
 		lanc.setDescricao(dto.getDescricao());
 		lanc.setAno(dto.getAno());
@@ -162,16 +341,8 @@ public class LancamentoResource {
 		return lanc;
 	}
 	
-	private LancamentoDTO converter(Lancamento lanc) {
-		return LancamentoDTO.builder()
-		.id(lanc.getId())
-		.descricao(lanc.getDescricao())
-		.valor(lanc.getValor())
-		.mes(lanc.getMes())
-		.ano(lanc.getAno())
-		.status(lanc.getStatus().name())
-		.tipo(lanc.getTipo().name())
-		.usuario(lanc.getUsuario().getId()).build();
+	LancamentoDTO converter(Lancamento lanc) {
+		return LancamentoDTO.de(lanc);
 	}
 
 }
@@ -0,0 +1,45 @@
+package com.donte.financas.api.resource;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.donte.financas.service.VersaoDados;
+
+/**
+ * GET condicional (If-None-Match) com a versao dos dados do usuario. A versao e comparada antes
+ * da consulta: quando nada mudou a resposta 304 nao acessa o banco. Last-Modified nao e enviado:
+ * com resolucao de um segundo, uma escrita no mesmo segundo da leitura seria respondida com um
+ * 304 desatualizado, e o ETag ja identifica a versao exata.
+ */
+final class RespostaCondicional {
+
+	private RespostaCondicional() {
+	}
+
+	static boolean naoModificado(HttpServletRequest request, VersaoDados versao) {
+		// sem a resposta o Spring apenas compara os cabecalhos; o ETag e incluido pelos metodos
+		// abaixo, so nas respostas que realmente dependem da versao
+		return new ServletWebRequest(request).checkNotModified(versao.getEtag());
+	}
+
+	static ResponseEntity<?> naoModificada(VersaoDados versao) {
+		return comVersao(ResponseEntity.status(HttpStatus.NOT_MODIFIED), versao).build();
+	}
+
+	static ResponseEntity.BodyBuilder ok(VersaoDados versao) {
+		return comVersao(ResponseEntity.ok(), versao);
+	}
+
+	private static ResponseEntity.BodyBuilder comVersao(ResponseEntity.BodyBuilder builder, VersaoDados versao) {
+		// no-cache: o cliente pode guardar a resposta, mas revalida a cada uso; o formato (JSON,
+		// Smile ou CBOR) depende do Accept
+		return builder.eTag(versao.getEtag())
+				.cacheControl(CacheControl.noCache().cachePrivate()).varyBy(HttpHeaders.ACCEPT);
+	}
+
+}
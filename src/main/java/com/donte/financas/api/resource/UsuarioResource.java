@@ -1,9 +1,14 @@
 package com.donte.financas.api.resource;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,14 +16,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.donte.financas.api.dto.EstatisticasCacheDTO;
+import com.donte.financas.api.dto.FluxoMensalDTO;
 import com.donte.financas.api.dto.UsuarioDTO;
+import com.donte.financas.api.filter.TokenFilter;
 import com.donte.financas.exception.ErroAutenticacaoException;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.TokenService;
 import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDados;
+import com.donte.financas.service.VersaoDadosService;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -26,17 +38,22 @@ public class UsuarioResource {
 	
 	private UsuarioService service;
 	private LancamentoService lancService;
+	private TokenService tokenService;
+	private VersaoDadosService versaoDadosService;
 
-	public UsuarioResource(UsuarioService service, LancamentoService lancService) {
+	public UsuarioResource(UsuarioService service, LancamentoService lancService, TokenService tokenService,
+			VersaoDadosService versaoDadosService) {
 		this.service = service;
 		this.lancService = lancService;
+		this.tokenService = tokenService;
+		this.versaoDadosService = versaoDadosService;
 	}
 	
 	@PostMapping("/autenticar")
 	public ResponseEntity<?> autenticar(@RequestBody UsuarioDTO dto){
 		try {
 			Usuario autenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(autenticado);
+			return ResponseEntity.ok(tokenService.gerar(autenticado));
 		}catch (ErroAutenticacaoException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -53,19 +70,54 @@ public class UsuarioResource {
 		}
 	}
 	
+	// com token, cada usuario ve apenas o proprio cadastro
 	@GetMapping
-	public List<Usuario> teste(){
+	public List<Usuario> teste(HttpServletRequest request){
+		Long autenticado = TokenFilter.usuarioAutenticado(request);
+		if(autenticado != null)
+			return service.obterPorId(autenticado).map(Collections::singletonList).orElse(Collections.emptyList());
 		return service.obterTodos();
 	}
 	
+	@GetMapping("/cache")
+	public EstatisticasCacheDTO estatisticasCache(){
+		return service.obterEstatisticasCache();
+	}
+
 	@GetMapping("{id}/saldo")
-	public ResponseEntity<?> saldo(@PathVariable("id") Long id){
+	public ResponseEntity<?> saldo(@PathVariable("id") Long id, HttpServletRequest request){
+		if(!TokenFilter.permiteAcesso(request, id))
+			return acessoNegado();
 		Optional<Usuario> usuarioOpt = service.obterPorId(id);
 		if(!usuarioOpt.isPresent())
 			return ResponseEntity.notFound().build();
+		VersaoDados versao = versaoDadosService.obterVersao(id);
+		if(RespostaCondicional.naoModificado(request, versao))
+			return RespostaCondicional.naoModificada(versao);
 		BigDecimal saldo = lancService.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+		return RespostaCondicional.ok(versao).body(saldo);
+	}
+
+	@GetMapping("{id}/fluxo-mensal")
+	public ResponseEntity<?> fluxoMensal(@PathVariable("id") Long id,
+			@RequestParam("inicio") @DateTimeFormat(pattern = "yyyy-MM") YearMonth inicio,
+			@RequestParam("fim") @DateTimeFormat(pattern = "yyyy-MM") YearMonth fim,
+			HttpServletRequest request){
+		if(!TokenFilter.permiteAcesso(request, id))
+			return acessoNegado();
+		Optional<Usuario> usuarioOpt = service.obterPorId(id);
+		if(!usuarioOpt.isPresent())
+			return ResponseEntity.notFound().build();
+		try {
+			FluxoMensalDTO fluxo = lancService.obterFluxoMensal(id, inicio, fim);
+			return ResponseEntity.ok(fluxo);
+		}catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+
+	private static ResponseEntity<?> acessoNegado() {
+		return ResponseEntity.status(HttpStatus.FORBIDDEN).body(TokenFilter.ACESSO_NEGADO);
 	}
-	
 
 }
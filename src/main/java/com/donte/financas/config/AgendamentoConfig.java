@@ -0,0 +1,12 @@
+package com.donte.financas.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@EnableScheduling
+@Configuration
+@ConditionalOnProperty(name = "financas.agendamento.habilitado", matchIfMissing = true)
+public class AgendamentoConfig {
+
+}
@@ -0,0 +1,26 @@
+package com.donte.financas.config;
+
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+	// poucas importacoes simultaneas: o gargalo e o banco, nao a leitura dos arquivos
+	@Bean
+	public Executor importacaoExecutor(@Value("${financas.importacao.simultaneas:2}") int simultaneas) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(simultaneas);
+		executor.setMaxPoolSize(simultaneas);
+		executor.setQueueCapacity(50);
+		executor.setThreadNamePrefix("importacao-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.donte.financas.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que limita quantas threads usam o banco ao mesmo tempo. Com threads virtuais nao ha mais
+ * teto de threads na frente do pool: as requisicoes excedentes esperam aqui, no semaforo, em vez de
+ * disputarem a fila do Hikari. A permissao e devolvida quando a conexao e fechada.
+ */
+public class DataSourceLimitado extends DelegatingDataSource {
+
+	private interface Abertura {
+		Connection abrir() throws SQLException;
+	}
+
+	private final Semaphore acessos;
+	private final int limite;
+	private final long esperaMaximaMs;
+
+	public DataSourceLimitado(DataSource dataSource, int limite, long esperaMaximaMs) {
+		super(dataSource);
+		this.acessos = new Semaphore(limite, true);
+		this.limite = limite;
+		this.esperaMaximaMs = esperaMaximaMs;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return abrir(() -> obtainTargetDataSource().getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String usuario, String senha) throws SQLException {
+		return abrir(() -> obtainTargetDataSource().getConnection(usuario, senha));
+	}
+
+	public int getLimite() {
+		return limite;
+	}
+
+	public int getEmUso() {
+		return limite - acessos.availablePermits();
+	}
+
+	public int getAguardando() {
+		return acessos.getQueueLength();
+	}
+
+	private Connection abrir(Abertura abertura) throws SQLException {
+		try {
+			if(!acessos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException("Nenhum acesso ao banco liberado em " + esperaMaximaMs
+						+ " ms (limite de " + limite + " simultaneos).");
+			}
+		}catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrompido aguardando acesso ao banco.", e);
+		}
+		try {
+			return liberarAoFechar(abertura.abrir());
+		}catch (SQLException | RuntimeException e) {
+			acessos.release();
+			throw e;
+		}
+	}
+
+	private Connection liberarAoFechar(Connection conexao) {
+		AtomicBoolean fechada = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(DataSourceLimitado.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, metodo, argumentos) -> {
+					if(metodo.getName().equals("close") && metodo.getParameterCount() == 0) {
+						// fechar duas vezes nao pode devolver duas permissoes
+						if(!fechada.compareAndSet(false, true)) {
+							return null;
+						}
+						try {
+							conexao.close();
+						}finally {
+							acessos.release();
+						}
+						return null;
+					}
+					try {
+						return metodo.invoke(conexao, argumentos);
+					}catch (InvocationTargetException e) {
+						throw e.getTargetException();
+					}
+				});
+	}
+
+}
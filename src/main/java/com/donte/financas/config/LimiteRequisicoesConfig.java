@@ -0,0 +1,47 @@
+package com.donte.financas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.donte.financas.api.filter.LimitadorTaxa;
+import com.donte.financas.api.filter.LimiteRequisicoesFilter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+@ConditionalOnProperty(name = "financas.limite.habilitado", matchIfMissing = true)
+public class LimiteRequisicoesConfig {
+
+	@Bean
+	public FilterRegistrationBean<LimiteRequisicoesFilter> limiteRequisicoesFilter(
+			@Value("${financas.limite.ip.por-segundo:50}") double ipPorSegundo,
+			@Value("${financas.limite.ip.rajada:100}") int ipRajada,
+			@Value("${financas.limite.usuario.por-segundo:20}") double usuarioPorSegundo,
+			@Value("${financas.limite.usuario.rajada:40}") int usuarioRajada) {
+		LimiteRequisicoesFilter filtro = new LimiteRequisicoesFilter(
+				new LimitadorTaxa<>(ipPorSegundo, ipRajada), new LimitadorTaxa<>(usuarioPorSegundo, usuarioRajada));
+		FilterRegistrationBean<LimiteRequisicoesFilter> registro = new FilterRegistrationBean<>(filtro);
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(SegurancaConfig.ORDEM_TOKEN + 1);
+		return registro;
+	}
+
+	@Bean
+	public MeterBinder limiteRequisicoes(FilterRegistrationBean<LimiteRequisicoesFilter> limiteRequisicoesFilter) {
+		LimiteRequisicoesFilter filtro = limiteRequisicoesFilter.getFilter();
+		return registry -> {
+			FunctionCounter.builder("financas.limite.recusadas", filtro, LimiteRequisicoesFilter::getRecusadasPorIp)
+					.description("Requisicoes recusadas com 429").tag("limite", "ip").register(registry);
+			FunctionCounter.builder("financas.limite.recusadas", filtro, LimiteRequisicoesFilter::getRecusadasPorUsuario)
+					.description("Requisicoes recusadas com 429").tag("limite", "usuario").register(registry);
+			Gauge.builder("financas.limite.baldes", filtro, f -> f.getPorIp().getBaldes()).tag("limite", "ip").register(registry);
+			Gauge.builder("financas.limite.baldes", filtro, f -> f.getPorUsuario().getBaldes()).tag("limite", "usuario").register(registry);
+		};
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.donte.financas.config;
+
+import java.util.Optional;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Tempo de cada endpoint dos resources de lancamento e usuario e de cada metodo dos seus servicos,
+ * com a tag resultado: ok, nao_modificado, nao_encontrado, requisicao_invalida ou o nome da excecao lancada.
+ * O timer do resource termina antes da serializacao da resposta; a diferenca para o
+ * http.server.requests do Spring e o custo de serializar e dos filtros.
+ */
+@Aspect
+@Component
+// externo a transacao: o tempo dos servicos inclui o commit
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasAspect {
+
+	static final String TIMER_RESOURCE = "financas.resource";
+	static final String TIMER_SERVICE = "financas.service";
+
+	private final MeterRegistry registry;
+
+	public MetricasAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Around("execution(public * com.donte.financas.api.resource.LancamentoResource.*(..)) "
+			+ "|| execution(public * com.donte.financas.api.resource.UsuarioResource.*(..))")
+	public Object medirResource(ProceedingJoinPoint ponto) throws Throwable {
+		return medir(TIMER_RESOURCE, ponto);
+	}
+
+	@Around("execution(public * com.donte.financas.service.LancamentoService+.*(..)) "
+			+ "|| execution(public * com.donte.financas.service.UsuarioService+.*(..))")
+	public Object medirService(ProceedingJoinPoint ponto) throws Throwable {
+		return medir(TIMER_SERVICE, ponto);
+	}
+
+	private Object medir(String nome, ProceedingJoinPoint ponto) throws Throwable {
+		Timer.Sample amostra = Timer.start(registry);
+		String resultado = "ok";
+		try {
+			Object retorno = ponto.proceed();
+			resultado = resultado(retorno);
+			return retorno;
+		}catch (Throwable e) {
+			resultado = e.getClass().getSimpleName();
+			throw e;
+		}finally {
+			amostra.stop(Timer.builder(nome)
+					.tag("classe", ponto.getSignature().getDeclaringType().getSimpleName())
+					.tag("metodo", ponto.getSignature().getName())
+					.tag("resultado", resultado)
+					.register(registry));
+		}
+	}
+
+	private static String resultado(Object retorno) {
+		if(retorno instanceof Optional && !((Optional<?>) retorno).isPresent()) {
+			return "nao_encontrado";
+		}
+		if(retorno instanceof ResponseEntity) {
+			// os resources tratam RegraNegocioException devolvendo 400; a excecao aparece no timer do servico
+			HttpStatus status = ((ResponseEntity<?>) retorno).getStatusCode();
+			if(status == HttpStatus.NOT_FOUND) {
+				return "nao_encontrado";
+			}
+			if(status == HttpStatus.NOT_MODIFIED) {
+				return "nao_modificado";
+			}
+			if(status.is4xxClientError()) {
+				return "requisicao_invalida";
+			}
+			if(status.isError()) {
+				return "erro";
+			}
+		}
+		return "ok";
+	}
+
+}
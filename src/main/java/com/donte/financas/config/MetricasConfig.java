@@ -0,0 +1,38 @@
+package com.donte.financas.config;
+
+import java.util.Arrays;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metricas que o Actuator nao registra sozinho. As do Hibernate (hibernate.*, com
+ * hibernate.generate_statistics) e as do pool (hikaricp.*) vem da autoconfiguracao.
+ */
+@Configuration
+public class MetricasConfig {
+
+	@Bean
+	public MeterBinder consultasLentas(EntityManagerFactory entityManagerFactory,
+			@Value("${financas.metricas.consulta-lenta-ms:200}") long limiteMs) {
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		return registry -> Gauge.builder("financas.hibernate.consultas.lentas", estatisticas, e -> contarLentas(e, limiteMs))
+				.description("Consultas distintas cuja execucao mais lenta passou de financas.metricas.consulta-lenta-ms")
+				.register(registry);
+	}
+
+	private static double contarLentas(Statistics estatisticas, long limiteMs) {
+		return Arrays.stream(estatisticas.getQueries())
+				.filter(consulta -> estatisticas.getQueryStatistics(consulta).getExecutionMaxTime() > limiteMs)
+				.count();
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.donte.financas.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.donte.financas.api.reativo.LeituraReativaHandler;
+import com.donte.financas.exception.RegraNegocioException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publica as leituras reativas em /api/reativo, no mesmo Tomcat da API MVC. O WebFlux roda sobre o
+ * I/O nao bloqueante do Servlet 3.1: a escrita so pede novos itens ao R2DBC quando o socket aceita mais
+ * dados, entao um cliente lento nao prende thread nem acumula a resposta em memoria. O TokenFilter
+ * vale tambem para estas rotas (/api/*).
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReativoConfig implements DisposableBean {
+
+	public static final String CAMINHO = "/api/reativo";
+
+	private ConnectionPool pool;
+
+	// o pool nao e exposto como bean: com um ConnectionFactory no contexto o Spring Boot desliga o DataSource JDBC
+	@Bean
+	public DatabaseClient leituraReativaClient(R2dbcProperties propriedades) {
+		ConnectionFactoryOptions.Builder opcoes = ConnectionFactoryOptions.parse(propriedades.getUrl()).mutate();
+		if(propriedades.getUsername() != null) {
+			opcoes.option(ConnectionFactoryOptions.USER, propriedades.getUsername());
+		}
+		if(propriedades.getPassword() != null) {
+			opcoes.option(ConnectionFactoryOptions.PASSWORD, propriedades.getPassword());
+		}
+		pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes.build()))
+				.initialSize(propriedades.getPool().getInitialSize())
+				.maxSize(propriedades.getPool().getMaxSize())
+				.maxIdleTime(propriedades.getPool().getMaxIdleTime())
+				.build());
+		return DatabaseClient.create(pool);
+	}
+
+	@Bean
+	public ServletRegistrationBean<ServletHttpHandlerAdapter> leituraReativaServlet(LeituraReativaHandler handler, ObjectMapper objectMapper) {
+		RouterFunction<ServerResponse> rotas = RouterFunctions.route()
+				.GET("/lancamentos", handler::buscar)
+				.GET("/lancamentos/{id}", handler::buscarPorId)
+				.GET("/usuarios/{id}/saldo", handler::saldo)
+				.build();
+		HandlerStrategies estrategias = HandlerStrategies.builder()
+				.codecs(codecs -> {
+					codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+					codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+				})
+				.exceptionHandler(ReativoConfig::tratarRegraNegocio)
+				.build();
+
+		ServletRegistrationBean<ServletHttpHandlerAdapter> registro = new ServletRegistrationBean<>(
+				new ServletHttpHandlerAdapter(RouterFunctions.toHttpHandler(rotas, estrategias)), CAMINHO + "/*");
+		registro.setName("leituraReativa");
+		registro.setAsyncSupported(true);
+		registro.setLoadOnStartup(1);
+		return registro;
+	}
+
+	// erros de regra emitidos antes do primeiro item da resposta, com a mesma resposta 400 da API MVC
+	private static Mono<Void> tratarRegraNegocio(ServerWebExchange exchange, Throwable erro) {
+		ServerHttpResponse resposta = exchange.getResponse();
+		if(!(erro instanceof RegraNegocioException) || resposta.isCommitted()) {
+			return Mono.error(erro);
+		}
+		resposta.setStatusCode(HttpStatus.BAD_REQUEST);
+		resposta.getHeaders().setContentType(MediaType.parseMediaType("text/plain;charset=UTF-8"));
+		DataBuffer mensagem = resposta.bufferFactory().wrap(erro.getMessage().getBytes(StandardCharsets.UTF_8));
+		return resposta.writeWith(Mono.just(mensagem));
+	}
+
+	@Override
+	public void destroy() {
+		if(pool != null) {
+			pool.dispose();
+		}
+	}
+
+}
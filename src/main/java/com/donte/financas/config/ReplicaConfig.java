@@ -0,0 +1,144 @@
+package com.donte.financas.config;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourcePoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.metadata.DataSourcePoolMetadataProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.service.VersaoDadosService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Replica de leitura, ligada quando financas.replica.url e informada. O primario continua configurado
+ * por spring.datasource.*; as transacoes readOnly vao para a replica, exceto as do usuario que escreveu
+ * ha menos de financas.replica.janela-leitura-ms, que ainda leem do primario para enxergar a propria
+ * escrita mesmo com atraso na replicacao.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financas.replica.url")
+public class ReplicaConfig implements DisposableBean {
+
+	private HikariDataSource primario;
+	private HikariDataSource replica;
+
+	// os pools nao sao expostos como beans: a inicializacao do Spring Boot (schema.sql, data.sql) e disparada
+	// por cada DataSource do contexto e pediria o DataSource principal enquanto ele ainda esta sendo criado
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, Environment environment,
+			VersaoDadosService versaoDadosService,
+			@Value("${financas.replica.janela-leitura-ms:5000}") long janelaMs,
+			@Value("${financas.replica.espera-apos-falha-ms:30000}") long esperaAposFalhaMs) {
+		Binder binder = Binder.get(environment);
+		primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+		if(primario.getPoolName() == null) {
+			primario.setPoolName("primario");
+		}
+
+		replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+				.url(environment.getRequiredProperty("financas.replica.url"))
+				.username(environment.getProperty("financas.replica.username", properties.determineUsername()))
+				.password(environment.getProperty("financas.replica.password", properties.determinePassword()))
+				.build();
+		replica.setPoolName("replica");
+		// a aplicacao sobe sem a replica e nao espera o timeout padrao a cada falha
+		replica.setInitializationFailTimeout(-1);
+		replica.setConnectionTimeout(2_000);
+		binder.bind("financas.replica.hikari", Bindable.ofInstance(replica));
+
+		RoteamentoDataSource roteamento = new RoteamentoDataSource(limitar(primario, environment), limitar(replica, environment), () -> {
+			Long usuarioId = usuarioDaRequisicao();
+			return usuarioId != null
+					&& System.currentTimeMillis() - versaoDadosService.obterVersao(usuarioId).getUltimaAlteracao() < janelaMs;
+		}, esperaAposFalhaMs);
+		return new LazyConnectionDataSourceProxy(roteamento);
+	}
+
+	// com threads virtuais cada pool tem o seu limite de acessos: o BeanPostProcessor de ThreadsVirtuaisConfig
+	// so enxerga o proxy devolvido acima, ja que os pools nao sao beans
+	private static DataSource limitar(HikariDataSource pool, Environment environment) {
+		if(!environment.getProperty("financas.threads-virtuais.habilitado", Boolean.class, false)) {
+			return pool;
+		}
+		return new DataSourceLimitado(pool, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+	}
+
+	// como os pools nao sao beans, as metricas jdbc.connections.* de cada um sao registradas aqui
+	@Bean
+	public MeterBinder roteamentoLeituras(DataSource dataSource, ObjectProvider<DataSourcePoolMetadataProvider> provedores)
+			throws SQLException {
+		RoteamentoDataSource roteamento = dataSource.unwrap(RoteamentoDataSource.class);
+		List<DataSourcePoolMetadataProvider> metadados = provedores.orderedStream().collect(Collectors.toList());
+		return registry -> {
+			new DataSourcePoolMetrics(primario, metadados, "primario", Collections.emptyList()).bindTo(registry);
+			new DataSourcePoolMetrics(replica, metadados, "replica", Collections.emptyList()).bindTo(registry);
+			FunctionCounter.builder("financas.banco.replica.leituras", roteamento, RoteamentoDataSource::getLeiturasNaReplica)
+					.description("Conexoes de transacoes readOnly entregues pela replica").register(registry);
+			FunctionCounter.builder("financas.banco.replica.falhas", roteamento, RoteamentoDataSource::getFalhasDaReplica)
+					.description("Leituras desviadas para o primario porque a replica nao entregou conexao").register(registry);
+			registrarAcessos(registry, roteamento.getPrimario(), "primario");
+			registrarAcessos(registry, roteamento.getReplica(), "replica");
+		};
+	}
+
+	private static void registrarAcessos(MeterRegistry registry, DataSource pool, String nome) {
+		if(pool instanceof DataSourceLimitado) {
+			DataSourceLimitado limitado = (DataSourceLimitado) pool;
+			Gauge.builder("financas.banco.acessos.em-uso", limitado, DataSourceLimitado::getEmUso).tag("pool", nome).register(registry);
+			Gauge.builder("financas.banco.acessos.aguardando", limitado, DataSourceLimitado::getAguardando)
+					.description("Threads esperando acesso ao banco no DataSourceLimitado")
+					.tag("pool", nome).register(registry);
+		}
+	}
+
+	// o usuario do token ou, com o token desligado, o parametro usuario; fora de uma requisicao (jobs) nao ha usuario
+	private static Long usuarioDaRequisicao() {
+		if(!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+			return null;
+		}
+		HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+		Object autenticado = request.getAttribute(TokenFilter.ATRIBUTO_USUARIO);
+		if(autenticado != null) {
+			return (Long) autenticado;
+		}
+		String parametro = request.getParameter("usuario");
+		return NumberUtils.isDigits(parametro) ? Long.valueOf(parametro) : null;
+	}
+
+	@Override
+	public void destroy() {
+		if(primario != null) {
+			primario.close();
+		}
+		if(replica != null) {
+			replica.close();
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.donte.financas.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envia as transacoes somente leitura para a replica e todo o resto para o primario. A decisao usa o
+ * readOnly da transacao corrente, entao precisa ficar atras de um LazyConnectionDataSourceProxy: sem
+ * ele a conexao e obtida no inicio da transacao, antes do readOnly ser registrado.
+ * Quando a replica nao entrega conexao, as leituras voltam ao primario por esperaAposFalhaMs.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractDataSource {
+
+	private interface Abertura {
+		Connection abrir(DataSource dataSource) throws SQLException;
+	}
+
+	private final DataSource primario;
+	private final DataSource replica;
+	private final BooleanSupplier exigirPrimario;
+	private final long esperaAposFalhaMs;
+	private volatile long replicaIndisponivelAte;
+	private final LongAdder leiturasNaReplica = new LongAdder();
+	private final LongAdder falhasDaReplica = new LongAdder();
+
+	/**
+	 * @param exigirPrimario consultado nas leituras: {@code true} manda a leitura para o primario,
+	 *                       como nas leituras logo depois de uma escrita do mesmo usuario
+	 */
+	public RoteamentoDataSource(DataSource primario, DataSource replica, BooleanSupplier exigirPrimario, long esperaAposFalhaMs) {
+		this.primario = primario;
+		this.replica = replica;
+		this.exigirPrimario = exigirPrimario;
+		this.esperaAposFalhaMs = esperaAposFalhaMs;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return abrir(DataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return abrir(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	private Connection abrir(Abertura abertura) throws SQLException {
+		if(usarReplica()) {
+			try {
+				Connection conexao = abertura.abrir(replica);
+				leiturasNaReplica.increment();
+				return conexao;
+			}catch (SQLException e) {
+				falhasDaReplica.increment();
+				replicaIndisponivelAte = System.currentTimeMillis() + esperaAposFalhaMs;
+				log.warn("Replica indisponivel, leituras no primario pelos proximos {} ms: {}", esperaAposFalhaMs, e.getMessage());
+			}
+		}
+		return abertura.abrir(primario);
+	}
+
+	private boolean usarReplica() {
+		return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				&& System.currentTimeMillis() >= replicaIndisponivelAte
+				&& !exigirPrimario.getAsBoolean();
+	}
+
+	DataSource getPrimario() {
+		return primario;
+	}
+
+	DataSource getReplica() {
+		return replica;
+	}
+
+	public long getLeiturasNaReplica() {
+		return leiturasNaReplica.sum();
+	}
+
+	public long getFalhasDaReplica() {
+		return falhasDaReplica.sum();
+	}
+
+}
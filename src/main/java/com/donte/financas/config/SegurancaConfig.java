@@ -0,0 +1,26 @@
+package com.donte.financas.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.service.TokenService;
+
+@Configuration
+@ConditionalOnProperty(name = "financas.token.habilitado", matchIfMissing = true)
+public class SegurancaConfig {
+
+	// antes do limite de requisicoes, que usa o usuario identificado pelo token
+	public static final int ORDEM_TOKEN = 0;
+
+	@Bean
+	public FilterRegistrationBean<TokenFilter> tokenFilter(TokenService tokenService) {
+		FilterRegistrationBean<TokenFilter> registro = new FilterRegistrationBean<>(new TokenFilter(tokenService));
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(ORDEM_TOKEN);
+		return registro;
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.donte.financas.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.sql.DataSource;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Modo de execucao em threads virtuais (Java 21 ou superior), ligado por financas.threads-virtuais.habilitado.
+ * O Tomcat atende cada requisicao numa thread virtual nova e as chamadas {@code @Transactional} dos servicos
+ * rodam nessa mesma thread, entao uma consulta lenta nao prende mais uma thread do pool. O acesso ao banco
+ * passa a ser limitado por {@link DataSourceLimitado}, com o tamanho do pool do Hikari.
+ * A aplicacao continua compilando para Java 8: a API de threads virtuais e obtida por reflexao.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financas.threads-virtuais.habilitado")
+public class ThreadsVirtuaisConfig {
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService requisicaoExecutor() {
+		return criarExecutorVirtual("requisicao-");
+	}
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> threadsVirtuaisTomcat(ExecutorService requisicaoExecutor) {
+		return protocolHandler -> protocolHandler.setExecutor(requisicaoExecutor);
+	}
+
+	@Bean
+	public static BeanPostProcessor acessoBancoLimitado(Environment environment) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(bean instanceof HikariDataSource) {
+					HikariDataSource hikari = (HikariDataSource) bean;
+					return new DataSourceLimitado(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+				}
+				// os que apenas delegam (o proprio DataSourceLimitado, o proxy da replica) ja chegam a um pool
+				// limitado: com a replica, ReplicaConfig limita o primario e a replica, que nao sao beans
+				if(bean instanceof DataSource && !(bean instanceof DelegatingDataSource)) {
+					return new DataSourceLimitado((DataSource) bean,
+							environment.getProperty("financas.threads-virtuais.acessos-banco", Integer.class, 10),
+							environment.getProperty("financas.threads-virtuais.espera-banco-ms", Long.class, 30_000L));
+				}
+				return bean;
+			}
+		};
+	}
+
+	@Bean
+	public MeterBinder acessosBanco(DataSource dataSource) {
+		return registry -> {
+			if(dataSource instanceof DataSourceLimitado) {
+				DataSourceLimitado limitado = (DataSourceLimitado) dataSource;
+				Gauge.builder("financas.banco.acessos.em-uso", limitado, DataSourceLimitado::getEmUso).register(registry);
+				Gauge.builder("financas.banco.acessos.aguardando", limitado, DataSourceLimitado::getAguardando)
+						.description("Threads esperando acesso ao banco no DataSourceLimitado")
+						.register(registry);
+			}
+		};
+	}
+
+	static ExecutorService criarExecutorVirtual(String prefixo) {
+		try {
+			Object construtor = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> tipoConstrutor = Class.forName("java.lang.Thread$Builder");
+			construtor = tipoConstrutor.getMethod("name", String.class, long.class).invoke(construtor, prefixo, 0L);
+			ThreadFactory fabrica = (ThreadFactory) tipoConstrutor.getMethod("factory").invoke(construtor);
+			Method executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) executor.invoke(null, fabrica);
+		}catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior (em uso: "
+					+ System.getProperty("java.version") + "). Desligue financas.threads-virtuais.habilitado.", e);
+		}
+	}
+
+}
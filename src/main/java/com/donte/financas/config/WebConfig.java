@@ -1,10 +1,23 @@
 package com.donte.financas.config;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
 @EnableWebMvc
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -16,4 +29,35 @@ public class WebConfig implements WebMvcConfigurer {
 		.allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS");
 	}
 
+	// respostas em streaming (exportacao) sao escritas nestas threads, fora do pool do Tomcat
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(TimeUnit.MINUTES.toMillis(30));
+		configurer.setTaskExecutor(mvcTaskExecutor());
+	}
+
+	// Smile e CBOR entram sozinhos com as bibliotecas no classpath; no Smile os valores repetidos
+	// (tipo, status, descricoes iguais) tambem passam a ser referencias, nao so os nomes dos campos
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.stream()
+			.filter(MappingJackson2SmileHttpMessageConverter.class::isInstance)
+			.forEach(converter -> ((MappingJackson2SmileHttpMessageConverter) converter).setObjectMapper(criarMapperSmile()));
+	}
+
+	public static ObjectMapper criarMapperSmile() {
+		SmileFactory fabrica = SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+		return Jackson2ObjectMapperBuilder.smile().factory(fabrica).build();
+	}
+
+	@Bean
+	public ThreadPoolTaskExecutor mvcTaskExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(4);
+		executor.setMaxPoolSize(16);
+		executor.setQueueCapacity(100);
+		executor.setThreadNamePrefix("mvc-async-");
+		return executor;
+	}
+
 }
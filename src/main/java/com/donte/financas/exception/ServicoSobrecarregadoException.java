@@ -0,0 +1,11 @@
+package com.donte.financas.exception;
+
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+	private static final long serialVersionUID = 3318842170957125402L;
+
+	public ServicoSobrecarregadoException(String msg) {
+		super(msg);
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.donte.financas.job;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.donte.financas.service.ArquivamentoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Move para lancamento_arquivo os lancamentos dos anos encerrados, mantendo os totais
+ * anuais usados pela reconciliacao do saldo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArquivamentoJob {
+
+	private final ArquivamentoService arquivamentoService;
+
+	@Scheduled(cron = "${financas.arquivamento.cron:0 30 3 * * *}")
+	public void executar() {
+		int arquivados = arquivamentoService.arquivarAnosEncerrados();
+		log.info("Arquivamento concluido com {} lancamento(s) movido(s)", arquivados);
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.donte.financas.job;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.donte.financas.api.filter.LimiteRequisicoesFilter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Descarta os baldes ociosos do limite de requisicoes, fora das threads que atendem a API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "financas.limite.habilitado", matchIfMissing = true)
+public class LimiteRequisicoesJob {
+
+	private final FilterRegistrationBean<LimiteRequisicoesFilter> limiteRequisicoesFilter;
+
+	@Scheduled(fixedDelayString = "${financas.limite.limpeza-ms:60000}")
+	public void executar() {
+		LimiteRequisicoesFilter filtro = limiteRequisicoesFilter.getFilter();
+		int removidos = filtro.getPorIp().limparOciosos() + filtro.getPorUsuario().limparOciosos();
+		if(removidos > 0) {
+			log.debug("{} balde(s) ocioso(s) do limite de requisicoes removido(s)", removidos);
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.donte.financas.job;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.donte.financas.model.repository.DivergenciaSaldo;
+import com.donte.financas.service.SaldoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recalcula periodicamente a tabela saldo_usuario a partir dos lancamentos
+ * e corrige (registrando em log) qualquer diferenca encontrada.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconciliacaoSaldoJob {
+
+	private final SaldoService saldoService;
+
+	@Scheduled(cron = "${financas.saldo.reconciliacao.cron:0 0 3 * * *}")
+	public void executar() {
+		List<DivergenciaSaldo> divergencias = saldoService.reconciliarTodos();
+		divergencias.forEach(d -> log.warn("Saldo divergente corrigido: usuario={} registrado={} calculado={}",
+				d.getUsuarioId(), d.getSaldoRegistrado(), d.getSaldoCalculado()));
+		log.info("Reconciliacao de saldos concluida com {} divergencia(s)", divergencias.size());
+	}
+
+}
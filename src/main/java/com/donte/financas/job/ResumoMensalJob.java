@@ -0,0 +1,29 @@
+package com.donte.financas.job;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.donte.financas.service.ResumoMensalService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recalcula o resumo mensal dos meses alterados desde a ultima execucao.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResumoMensalJob {
+
+	private final ResumoMensalService resumoMensalService;
+
+	@Scheduled(fixedDelayString = "${financas.resumo-mensal.intervalo-ms:5000}")
+	public void executar() {
+		int processados = resumoMensalService.processarPendentes();
+		if(processados > 0) {
+			log.debug("Resumo mensal recalculado para {} alteracao(oes)", processados);
+		}
+	}
+
+}
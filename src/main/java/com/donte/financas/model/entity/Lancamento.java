@@ -8,13 +8,17 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import com.donte.financas.model.enums.StatusLancamento;
@@ -26,7 +30,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// os indices ficam so na V03 (db/migration); no H2 o LancamentoIndiceTest aplica o mesmo script
 @Table(name = "lancamento", schema = "financas")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,7 +40,8 @@ import lombok.NoArgsConstructor;
 public class Lancamento {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", schema = "financas", sequenceName = "lancamento_id_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -47,7 +54,7 @@ public class Lancamento {
 	@Column(name = "ano")
 	private Integer ano;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuarioid")
 	private Usuario usuario;
 
@@ -65,5 +72,10 @@ public class Lancamento {
 	@Column(name = "status")
 	@Enumerated(value = EnumType.STRING)
 	private StatusLancamento status;
+
+	// controle de concorrencia otimista: atualizacoes com versao desatualizada sao recusadas
+	@Version
+	@Column(name = "versao")
+	private Long versao;
 	
 }
@@ -0,0 +1,80 @@
+package com.donte.financas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lancamento de um ano encerrado, movido de {@link Lancamento} pelo {@code ArquivamentoJob}
+ * com o mesmo id. Somente leitura: os totais dele estao em {@link ResumoAnual}.
+ */
+@Entity
+@Table(name = "lancamento_arquivo", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_arquivo_usuario_ano_mes", columnList = "usuarioid, ano, mes, id") })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoArquivado {
+
+	@Id
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "descricao")
+	private String descricao;
+
+	@Column(name = "mes")
+	private Integer mes;
+
+	@Column(name = "ano")
+	private Integer ano;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "usuarioid")
+	private Usuario usuario;
+
+	@Column(name = "valor")
+	private BigDecimal valor;
+
+	@Column(name = "criado")
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	private LocalDate dataCadastro;
+
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+
+	@Column(name = "versao")
+	private Long versao;
+
+	@Column(name = "arquivado")
+	private LocalDateTime arquivadoEm;
+
+}
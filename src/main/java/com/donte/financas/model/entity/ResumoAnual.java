@@ -0,0 +1,62 @@
+package com.donte.financas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Soma e quantidade dos lancamentos arquivados de um usuario em um ano, por tipo e status.
+ * Atualizado na mesma transacao que move os lancamentos para {@link LancamentoArquivado}.
+ */
+@Entity
+@Table(name = "lancamento_resumo_anual", schema = "financas")
+@IdClass(ResumoAnualId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoAnual {
+
+	@Id
+	@Column(name = "usuarioid")
+	private Long usuarioId;
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+
+	@Id
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+
+	@Id
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+
+	@Column(name = "total")
+	private BigDecimal total;
+
+	@Column(name = "quantidade")
+	private Long quantidade;
+
+	@Column(name = "atualizado")
+	private LocalDateTime atualizadoEm;
+
+}
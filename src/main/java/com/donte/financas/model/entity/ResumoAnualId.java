@@ -0,0 +1,24 @@
+package com.donte.financas.model.entity;
+
+import java.io.Serializable;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoAnualId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long usuarioId;
+	private Integer ano;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+
+}
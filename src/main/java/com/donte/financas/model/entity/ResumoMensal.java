@@ -0,0 +1,66 @@
+package com.donte.financas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Soma e quantidade dos lancamentos de um usuario em um mes, por tipo e status.
+ * Mantido pelo {@code ResumoMensalJob} a partir de {@link ResumoMensalPendente}.
+ */
+@Entity
+@Table(name = "lancamento_resumo_mensal", schema = "financas")
+@IdClass(ResumoMensalId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+
+	@Id
+	@Column(name = "usuarioid")
+	private Long usuarioId;
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+
+	@Id
+	@Column(name = "mes")
+	private Integer mes;
+
+	@Id
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+
+	@Id
+	@Column(name = "status")
+	@Enumerated(value = EnumType.STRING)
+	private StatusLancamento status;
+
+	@Column(name = "total")
+	private BigDecimal total;
+
+	@Column(name = "quantidade")
+	private Long quantidade;
+
+	@Column(name = "atualizado")
+	private LocalDateTime atualizadoEm;
+
+}
@@ -0,0 +1,48 @@
+package com.donte.financas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marca um mes de um usuario cujo resumo precisa ser recalculado. Os registros so
+ * sao inseridos e excluidos, nunca atualizados.
+ */
+@Entity
+@Table(name = "lancamento_resumo_pendente", schema = "financas", indexes = {
+		@Index(name = "idx_resumo_pendente_usuario_ano_mes", columnList = "usuarioid, ano, mes") })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalPendente {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "usuarioid")
+	private Long usuarioId;
+
+	@Column(name = "ano")
+	private Integer ano;
+
+	@Column(name = "mes")
+	private Integer mes;
+
+	@Column(name = "registrado")
+	private LocalDateTime registradoEm;
+
+}
@@ -0,0 +1,18 @@
+package com.donte.financas.model.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ano de um usuario com lancamentos, usado para escolher o que sera arquivado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnoLancamento {
+
+	private Long usuarioId;
+	private Integer ano;
+
+}
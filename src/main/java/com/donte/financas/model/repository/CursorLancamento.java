@@ -0,0 +1,49 @@
+package com.donte.financas.model.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.donte.financas.exception.RegraNegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posicao de um lancamento na ordenacao (ano, mes, id) usada pela paginacao por cursor.
+ * O cliente recebe apenas o valor codificado, sem precisar conhecer o formato.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorLancamento {
+
+	private static final String SEPARADOR = ":";
+
+	private Integer ano;
+	private Integer mes;
+	private Long id;
+
+	public static CursorLancamento de(ResumoLancamento lancamento) {
+		return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+
+	public String codificar() {
+		String valor = ano + SEPARADOR + mes + SEPARADOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static CursorLancamento decodificar(String cursor) {
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] partes = valor.split(SEPARADOR);
+			if(partes.length != 3) {
+				throw new IllegalArgumentException();
+			}
+			return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+		}catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Cursor de paginação inválido");
+		}
+	}
+
+}
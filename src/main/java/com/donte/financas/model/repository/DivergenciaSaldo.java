@@ -0,0 +1,18 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaSaldo {
+
+	private Long usuarioId;
+	private BigDecimal saldoRegistrado;
+	private BigDecimal saldoCalculado;
+
+}
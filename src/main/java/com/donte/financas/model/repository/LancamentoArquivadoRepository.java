@@ -0,0 +1,28 @@
+package com.donte.financas.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.donte.financas.model.entity.LancamentoArquivado;
+
+public interface LancamentoArquivadoRepository extends JpaRepository<LancamentoArquivado, Long> {
+
+	// copia as linhas no proprio banco, sem carregar as entidades
+	@Modifying
+	@Query("insert into LancamentoArquivado (id, descricao, mes, ano, usuario, valor, dataCadastro, tipo, status, versao, arquivadoEm) "
+			+ "select l.id, l.descricao, l.mes, l.ano, l.usuario, l.valor, l.dataCadastro, l.tipo, l.status, l.versao, :agora "
+			+ "from Lancamento l where l.id in :ids")
+	int copiar(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+	@Query("select new com.donte.financas.model.repository.TotalLancamento(a.ano, a.mes, a.tipo, a.status, sum(a.valor), count(a)) "
+			+ "from LancamentoArquivado a where a.usuario.id = :id and a.ano = :ano and a.mes = :mes "
+			+ "group by a.ano, a.mes, a.tipo, a.status")
+	List<TotalLancamento> obterTotaisDoMes(@Param("id") Long usuarioId, @Param("ano") Integer ano, @Param("mes") Integer mes);
+
+}
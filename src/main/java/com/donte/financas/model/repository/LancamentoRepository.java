@@ -1,17 +1,79 @@
 package com.donte.financas.model.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.donte.financas.model.entity.Lancamento;
-import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.enums.StatusLancamento;
+
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+	int FETCH_SIZE_EXPORTACAO = 500;
 	
-	@Query("select sum(l.valor) from Lancamento l inner join l.usuario u where u.id = :id and l.tipo = :tipo and l.status = 'EFETIVADO'")
-	public BigDecimal obterTotalPorTipoAndUsuario(@Param("tipo") TipoLancamento tipo , @Param("id") Long usuarioId);
+	@Query("select new com.donte.financas.model.repository.TotalLancamento(l.tipo, l.status, sum(l.valor), count(l)) "
+			+ "from Lancamento l where l.usuario.id = :id group by l.tipo, l.status")
+	List<TotalLancamento> obterTotaisPorTipoEStatus(@Param("id") Long usuarioId);
+
+	@Query("select new com.donte.financas.model.repository.TotalLancamento(l.tipo, l.status, sum(l.valor), count(l)) "
+			+ "from Lancamento l where l.id in :ids group by l.tipo, l.status")
+	List<TotalLancamento> obterTotaisPorIds(@Param("ids") Collection<Long> ids);
+
+	// anos ate o limite em que nenhum lancamento do usuario esta pendente
+	@Query("select new com.donte.financas.model.repository.AnoLancamento(l.usuario.id, l.ano) "
+			+ "from Lancamento l where l.ano <= :ano group by l.usuario.id, l.ano "
+			+ "having sum(case when l.status = :pendente then 1 else 0 end) = 0 order by l.usuario.id, l.ano")
+	List<AnoLancamento> obterAnosEncerrados(@Param("ano") Integer anoLimite, @Param("pendente") StatusLancamento pendente);
+
+	// o bloqueio impede que uma alteracao concorrente mude o lancamento entre a copia e a exclusao
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select l.id from Lancamento l where l.usuario.id = :id and l.ano = :ano and l.status <> :pendente order by l.id")
+	List<Long> bloquearParaArquivamento(@Param("id") Long usuarioId, @Param("ano") Integer ano,
+			@Param("pendente") StatusLancamento pendente, Pageable pagina);
+
+	@Modifying
+	@Query("delete from Lancamento l where l.id in :ids")
+	int remover(@Param("ids") Collection<Long> ids);
+
+	// le o estado gravado no banco, sem descarregar antes as alteracoes pendentes da sessao
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+	@Query("select new com.donte.financas.model.repository.ResumoLancamento(l.id, l.descricao, l.mes, l.ano, l.valor, l.usuario.id, l.tipo, l.status, l.versao) "
+			+ "from Lancamento l where l.id = :id")
+	Optional<ResumoLancamento> obterResumo(@Param("id") Long id);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Lancamento l set l.status = :status, l.versao = l.versao + 1 where l.id in :ids and l.status <> :status")
+	int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("status") StatusLancamento status);
+
+	// precisa de transacao aberta enquanto o stream for consumido; o driver traz as linhas em blocos do fetch size
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true") })
+	@Query("select l from Lancamento l where l.usuario.id = :id order by l.ano, l.mes, l.id")
+	Stream<Lancamento> streamPorUsuario(@Param("id") Long usuarioId);
+
+	// carga do indice de texto do usuario; tambem exige transacao aberta durante o consumo
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true") })
+	@Query("select new com.donte.financas.model.repository.ResumoLancamento(l.id, l.descricao, l.mes, l.ano, l.valor, l.usuario.id, l.tipo, l.status, l.versao) "
+			+ "from Lancamento l where l.usuario.id = :id")
+	Stream<ResumoLancamento> streamResumosPorUsuario(@Param("id") Long usuarioId);
+
+	@Query("select new com.donte.financas.model.repository.ResumoLancamento(l.id, l.descricao, l.mes, l.ano, l.valor, l.usuario.id, l.tipo, l.status, l.versao) "
+			+ "from Lancamento l where l.id in :ids")
+	List<ResumoLancamento> obterResumos(@Param("ids") Collection<Long> ids);
 
 }
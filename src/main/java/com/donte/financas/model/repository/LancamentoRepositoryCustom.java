@@ -0,0 +1,53 @@
+package com.donte.financas.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.enums.StatusLancamento;
+
+public interface LancamentoRepositoryCustom {
+
+	/**
+	 * Busca ate {@code limite} lancamentos que atendem ao filtro, ordenados por (ano, mes, id),
+	 * a partir da posicao seguinte ao cursor. Um cursor nulo comeca do inicio. Quando o filtro
+	 * informa um ano fora dos anos mantidos, a tabela de lancamentos arquivados tambem e lida.
+	 */
+	List<ResumoLancamento> buscarAposCursor(Lancamento filtro, CursorLancamento cursor, int limite);
+
+	/**
+	 * Le e bloqueia (select ... for update) os lancamentos que atendem ao filtro e, quando informados,
+	 * estao entre os {@code ids}. Deve ser chamado dentro de uma transacao.
+	 */
+	List<ResumoLancamento> bloquearParaAlteracao(Lancamento filtro, Collection<Long> ids);
+
+	/**
+	 * Bloqueia o usuario do filtro e os lancamentos que atendem ao filtro, devolvendo quantos sao.
+	 * No PostgreSQL o bloqueio do usuario faz novas insercoes dele esperarem (a chave estrangeira
+	 * bloqueia a linha do usuario), entao o filtro alcanca os mesmos lancamentos ate o fim da transacao.
+	 */
+	int bloquearPorFiltro(Lancamento filtro);
+
+	/**
+	 * Soma e quantidade, por mes, tipo e status, dos lancamentos do filtro que ainda nao estao no {@code status}.
+	 */
+	List<TotalLancamento> obterTotaisParaAlteracao(Lancamento filtro, StatusLancamento status);
+
+	/**
+	 * Altera o status dos lancamentos do filtro com um unico update, sem enviar os ids ao banco.
+	 */
+	int atualizarStatus(Lancamento filtro, StatusLancamento status);
+
+	/**
+	 * Insere os lancamentos descarregando e limpando a sessao a cada lote do JDBC,
+	 * para que os inserts sigam agrupados e a memoria nao cresca com o tamanho da lista.
+	 * Os lancamentos ficam desanexados ao final.
+	 */
+	void persistirEmLote(List<Lancamento> lancamentos);
+
+	/**
+	 * Desanexa todas as entidades da sessao atual.
+	 */
+	void limparSessao();
+
+}
@@ -0,0 +1,217 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.LancamentoArquivado;
+import com.donte.financas.model.enums.StatusLancamento;
+
+public class LancamentoRepositoryCustomImpl implements LancamentoRepositoryCustom {
+
+	private static final char ESCAPE = '\\';
+	private static final Comparator<ResumoLancamento> ORDEM = Comparator.comparing(ResumoLancamento::getAno)
+			.thenComparing(ResumoLancamento::getMes).thenComparing(ResumoLancamento::getId);
+
+	@PersistenceContext
+	private EntityManager manager;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int tamanhoLote;
+
+	@Value("${financas.arquivamento.anos-mantidos:2}")
+	private int anosMantidos;
+
+	@Override
+	public List<ResumoLancamento> buscarAposCursor(Lancamento filtro, CursorLancamento cursor, int limite) {
+		List<ResumoLancamento> lancamentos = buscarAposCursor(Lancamento.class, filtro, cursor, limite);
+		if(filtro.getAno() == null || filtro.getAno() > Year.now().getValue() - anosMantidos) {
+			return lancamentos;
+		}
+		// ano antigo: pode estar no arquivo, inteiro ou em parte; as duas listas ja vem na ordem da pagina
+		List<ResumoLancamento> todos = new ArrayList<>(lancamentos);
+		todos.addAll(buscarAposCursor(LancamentoArquivado.class, filtro, cursor, limite));
+		todos.sort(ORDEM);
+		return todos.size() > limite ? todos.subList(0, limite) : todos;
+	}
+
+	private List<ResumoLancamento> buscarAposCursor(Class<?> entidade, Lancamento filtro, CursorLancamento cursor, int limite) {
+		CriteriaBuilder cb = manager.getCriteriaBuilder();
+		CriteriaQuery<ResumoLancamento> query = cb.createQuery(ResumoLancamento.class);
+		Root<?> root = query.from(entidade);
+
+		Path<Integer> ano = root.get("ano");
+		Path<Integer> mes = root.get("mes");
+		Path<Long> id = root.get("id");
+
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		if(cursor != null) {
+			predicados.add(cb.or(
+					cb.greaterThan(ano, cursor.getAno()),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.greaterThan(mes, cursor.getMes())),
+					cb.and(cb.equal(ano, cursor.getAno()), cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))));
+		}
+
+		query.select(resumo(cb, root))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(ano), cb.asc(mes), cb.asc(id));
+
+		return manager.createQuery(query).setMaxResults(limite).getResultList();
+	}
+
+	@Override
+	public List<ResumoLancamento> bloquearParaAlteracao(Lancamento filtro, Collection<Long> ids) {
+		CriteriaBuilder cb = manager.getCriteriaBuilder();
+		CriteriaQuery<ResumoLancamento> query = cb.createQuery(ResumoLancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		if(ids != null) {
+			predicados.add(root.get("id").in(ids));
+		}
+
+		// ordem fixa de bloqueio para duas alteracoes concorrentes nao se travarem mutuamente
+		query.select(resumo(cb, root))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("id")));
+
+		return manager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList();
+	}
+
+	@Override
+	public int bloquearPorFiltro(Lancamento filtro) {
+		usuarioRepository.bloquear(filtro.getUsuario().getId());
+
+		CriteriaBuilder cb = manager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		query.select(root.get("id"))
+			.where(filtrar(cb, root, filtro).toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("id")));
+		// bloqueia e conta percorrendo o cursor: os ids sao descartados conforme chegam, entao a memoria
+		// nao cresce com a quantidade de lancamentos do filtro
+		int bloqueados = 0;
+		try(ScrollableResults ids = manager.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.unwrap(org.hibernate.query.Query.class)
+				.setFetchSize(LancamentoRepository.FETCH_SIZE_EXPORTACAO)
+				.scroll(ScrollMode.FORWARD_ONLY)) {
+			while(ids.next()) {
+				bloqueados++;
+			}
+		}
+		return bloqueados;
+	}
+
+	@Override
+	public List<TotalLancamento> obterTotaisParaAlteracao(Lancamento filtro, StatusLancamento status) {
+		CriteriaBuilder cb = manager.getCriteriaBuilder();
+		CriteriaQuery<TotalLancamento> query = cb.createQuery(TotalLancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		predicados.add(cb.notEqual(root.get("status"), status));
+		query.select(cb.construct(TotalLancamento.class, root.get("ano"), root.get("mes"), root.get("tipo"), root.get("status"),
+					cb.sum(root.<BigDecimal>get("valor")), cb.count(root)))
+			.where(predicados.toArray(new Predicate[0]))
+			.groupBy(root.get("ano"), root.get("mes"), root.get("tipo"), root.get("status"));
+
+		return manager.createQuery(query).getResultList();
+	}
+
+	@Override
+	public int atualizarStatus(Lancamento filtro, StatusLancamento status) {
+		CriteriaBuilder cb = manager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> root = update.from(Lancamento.class);
+
+		List<Predicate> predicados = filtrar(cb, root, filtro);
+		predicados.add(cb.notEqual(root.get("status"), status));
+		update.set(root.<StatusLancamento>get("status"), status)
+			.set(root.<Long>get("versao"), cb.sum(root.<Long>get("versao"), 1L))
+			.where(predicados.toArray(new Predicate[0]));
+
+		// como o update por ids: descarrega a sessao antes e a limpa depois
+		manager.flush();
+		int atualizados = manager.createQuery(update).executeUpdate();
+		manager.clear();
+		return atualizados;
+	}
+
+	private List<Predicate> filtrar(CriteriaBuilder cb, From<?, ?> root, Lancamento filtro) {
+		List<Predicate> predicados = new ArrayList<>();
+		if(filtro.getUsuario() != null) {
+			// usuario.id e a propria coluna usuarioid, nao exige join com usuario
+			predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+		}
+		if(StringUtils.isNotBlank(filtro.getDescricao())) {
+			String termo = "%" + escaparLike(filtro.getDescricao().toLowerCase()) + "%";
+			predicados.add(cb.like(cb.lower(root.get("descricao")), termo, ESCAPE));
+		}
+		if(filtro.getMes() != null) {
+			predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+		}
+		if(filtro.getAno() != null) {
+			predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+		}
+		if(filtro.getTipo() != null) {
+			predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+		}
+		if(filtro.getStatus() != null) {
+			predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+		}
+		return predicados;
+	}
+
+	private CompoundSelection<ResumoLancamento> resumo(CriteriaBuilder cb, From<?, ?> root) {
+		return cb.construct(ResumoLancamento.class, root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"),
+				root.get("valor"), root.get("usuario").get("id"), root.get("tipo"), root.get("status"), root.get("versao"));
+	}
+
+	@Override
+	public void persistirEmLote(List<Lancamento> lancamentos) {
+		for(int i = 0; i < lancamentos.size(); i++) {
+			manager.persist(lancamentos.get(i));
+			if((i + 1) % tamanhoLote == 0) {
+				manager.flush();
+				manager.clear();
+			}
+		}
+		manager.flush();
+		manager.clear();
+	}
+
+	@Override
+	public void limparSessao() {
+		manager.clear();
+	}
+
+	private static String escaparLike(String valor) {
+		return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
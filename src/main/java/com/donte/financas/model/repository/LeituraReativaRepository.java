@@ -0,0 +1,96 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.Year;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consultas da pilha reativa, via R2DBC, sobre as mesmas tabelas das migracoes do Flyway.
+ * Os filtros e a ordem da busca sao os de {@link LancamentoRepositoryCustom#buscarAposCursor}.
+ */
+@Repository
+public class LeituraReativaRepository {
+
+	private static final String COLUNAS = "select id, descricao, mes, ano, valor, usuarioid, tipo, status, versao from financas.lancamento";
+	private static final String COLUNAS_ARQUIVO = "select id, descricao, mes, ano, valor, usuarioid, tipo, status, versao from financas.lancamento_arquivo";
+
+	private final DatabaseClient client;
+	private final int anosMantidos;
+
+	public LeituraReativaRepository(DatabaseClient client, @Value("${financas.arquivamento.anos-mantidos:2}") int anosMantidos) {
+		this.client = client;
+		this.anosMantidos = anosMantidos;
+	}
+
+	public Flux<ResumoLancamento> buscar(Lancamento filtro) {
+		StringBuilder condicoes = new StringBuilder(" where usuarioid = :usuario");
+		if(StringUtils.isNotBlank(filtro.getDescricao())) {
+			condicoes.append(" and lower(descricao) like :descricao escape '\\'");
+		}
+		if(filtro.getMes() != null) {
+			condicoes.append(" and mes = :mes");
+		}
+		if(filtro.getAno() != null) {
+			condicoes.append(" and ano = :ano");
+		}
+		StringBuilder sql = new StringBuilder(COLUNAS).append(condicoes);
+		// o arquivo so e lido quando o ano pedido pode ter sido arquivado
+		if(filtro.getAno() != null && filtro.getAno() <= Year.now().getValue() - anosMantidos) {
+			sql.append(" union all ").append(COLUNAS_ARQUIVO).append(condicoes);
+		}
+		sql.append(" order by ano, mes, id");
+
+		GenericExecuteSpec consulta = client.sql(sql.toString()).bind("usuario", filtro.getUsuario().getId());
+		if(StringUtils.isNotBlank(filtro.getDescricao())) {
+			consulta = consulta.bind("descricao", "%" + escaparLike(filtro.getDescricao().toLowerCase()) + "%");
+		}
+		if(filtro.getMes() != null) {
+			consulta = consulta.bind("mes", filtro.getMes());
+		}
+		if(filtro.getAno() != null) {
+			consulta = consulta.bind("ano", filtro.getAno());
+		}
+		return consulta.map((linha, metadados) -> resumo(linha)).all();
+	}
+
+	public Mono<ResumoLancamento> obterResumo(Long id) {
+		return client.sql(COLUNAS + " where id = :id").bind("id", id).map((linha, metadados) -> resumo(linha)).one();
+	}
+
+	public Mono<Boolean> existeUsuario(Long id) {
+		return client.sql("select 1 from financas.usuario where id = :id").bind("id", id)
+				.map((linha, metadados) -> Boolean.TRUE).first()
+				.defaultIfEmpty(Boolean.FALSE);
+	}
+
+	public Mono<BigDecimal> obterSaldo(Long usuarioId) {
+		return client.sql("select saldo from financas.saldo_usuario where usuarioid = :id").bind("id", usuarioId)
+				.map((linha, metadados) -> linha.get("saldo", BigDecimal.class)).first()
+				.defaultIfEmpty(BigDecimal.ZERO);
+	}
+
+	private static ResumoLancamento resumo(Row linha) {
+		return new ResumoLancamento(linha.get("id", Long.class), linha.get("descricao", String.class),
+				linha.get("mes", Integer.class), linha.get("ano", Integer.class), linha.get("valor", BigDecimal.class),
+				linha.get("usuarioid", Long.class), TipoLancamento.valueOf(linha.get("tipo", String.class)),
+				StatusLancamento.valueOf(linha.get("status", String.class)), linha.get("versao", Long.class));
+	}
+
+	private static String escaparLike(String valor) {
+		return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.donte.financas.model.repository;
+
+import com.donte.financas.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mes de um usuario afetado pela alteracao de um lancamento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesLancamento {
+
+	private Long usuarioId;
+	private Integer ano;
+	private Integer mes;
+
+	public static MesLancamento de(Lancamento lancamento) {
+		Long usuarioId = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		return new MesLancamento(usuarioId, lancamento.getAno(), lancamento.getMes());
+	}
+
+	public static MesLancamento de(ResumoLancamento resumo) {
+		return new MesLancamento(resumo.getUsuarioId(), resumo.getAno(), resumo.getMes());
+	}
+
+}
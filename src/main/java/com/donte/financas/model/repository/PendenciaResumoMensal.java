@@ -0,0 +1,20 @@
+package com.donte.financas.model.repository;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alteracoes ainda nao refletidas no resumo mensal e o momento da mais antiga.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendenciaResumoMensal {
+
+	private Long quantidade;
+	private LocalDateTime maisAntiga;
+
+}
@@ -0,0 +1,30 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.donte.financas.model.entity.ResumoAnual;
+import com.donte.financas.model.entity.ResumoAnualId;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+public interface ResumoAnualRepository extends JpaRepository<ResumoAnual, ResumoAnualId> {
+
+	@Query("select new com.donte.financas.model.repository.TotalLancamento(r.tipo, r.status, sum(r.total), sum(r.quantidade)) "
+			+ "from ResumoAnual r where r.usuarioId = :id group by r.tipo, r.status")
+	List<TotalLancamento> obterTotaisPorTipoEStatus(@Param("id") Long usuarioId);
+
+	@Modifying
+	@Query("update ResumoAnual r set r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade, r.atualizadoEm = :agora "
+			+ "where r.usuarioId = :id and r.ano = :ano and r.tipo = :tipo and r.status = :status")
+	int somar(@Param("id") Long usuarioId, @Param("ano") Integer ano, @Param("tipo") TipoLancamento tipo,
+			@Param("status") StatusLancamento status, @Param("total") BigDecimal total,
+			@Param("quantidade") Long quantidade, @Param("agora") LocalDateTime agora);
+
+}
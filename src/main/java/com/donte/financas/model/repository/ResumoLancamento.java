@@ -0,0 +1,31 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projecao de leitura de um lancamento: apenas as colunas exibidas nas consultas,
+ * com o id do usuario em vez da entidade (nao gera join nem carrega o usuario).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoLancamento {
+
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private BigDecimal valor;
+	private Long usuarioId;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Long versao;
+
+}
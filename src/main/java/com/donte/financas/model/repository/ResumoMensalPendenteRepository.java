@@ -0,0 +1,36 @@
+package com.donte.financas.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.donte.financas.model.entity.ResumoMensalPendente;
+
+public interface ResumoMensalPendenteRepository extends JpaRepository<ResumoMensalPendente, Long> {
+
+	// o bloqueio impede que duas instancias do job recalculem o mesmo lote ao mesmo tempo
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p from ResumoMensalPendente p order by p.id")
+	List<ResumoMensalPendente> obterLote(Pageable pagina);
+
+	@Modifying
+	@Query("delete from ResumoMensalPendente p where p.id in :ids")
+	int remover(@Param("ids") Collection<Long> ids);
+
+	@Query("select new com.donte.financas.model.repository.PendenciaResumoMensal(count(p), min(p.registradoEm)) "
+			+ "from ResumoMensalPendente p where p.usuarioId = :id "
+			+ "and (p.ano > :anoInicio or (p.ano = :anoInicio and p.mes >= :mesInicio)) "
+			+ "and (p.ano < :anoFim or (p.ano = :anoFim and p.mes <= :mesFim))")
+	PendenciaResumoMensal obterPendencia(@Param("id") Long usuarioId,
+			@Param("anoInicio") Integer anoInicio, @Param("mesInicio") Integer mesInicio,
+			@Param("anoFim") Integer anoFim, @Param("mesFim") Integer mesFim);
+
+}
@@ -0,0 +1,48 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.donte.financas.model.entity.ResumoMensal;
+import com.donte.financas.model.entity.ResumoMensalId;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+	@Query("select new com.donte.financas.model.repository.TotalLancamento(r.ano, r.mes, r.tipo, r.status, r.total, r.quantidade) "
+			+ "from ResumoMensal r where r.usuarioId = :id "
+			+ "and (r.ano > :anoInicio or (r.ano = :anoInicio and r.mes >= :mesInicio)) "
+			+ "and (r.ano < :anoFim or (r.ano = :anoFim and r.mes <= :mesFim)) "
+			+ "order by r.ano, r.mes, r.tipo, r.status")
+	List<TotalLancamento> obterTotaisMensais(@Param("id") Long usuarioId,
+			@Param("anoInicio") Integer anoInicio, @Param("mesInicio") Integer mesInicio,
+			@Param("anoFim") Integer anoFim, @Param("mesFim") Integer mesFim);
+
+	@Modifying
+	@Query("delete from ResumoMensal r where r.usuarioId = :id and r.ano = :ano and r.mes = :mes")
+	int removerMes(@Param("id") Long usuarioId, @Param("ano") Integer ano, @Param("mes") Integer mes);
+
+	// agrega apenas o mes informado, pelo indice (usuarioid, ano, mes) de lancamento
+	@Modifying
+	@Query("insert into ResumoMensal (usuarioId, ano, mes, tipo, status, total, quantidade, atualizadoEm) "
+			+ "select l.usuario.id, l.ano, l.mes, l.tipo, l.status, sum(l.valor), count(l), :agora "
+			+ "from Lancamento l where l.usuario.id = :id and l.ano = :ano and l.mes = :mes "
+			+ "group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	int calcularMes(@Param("id") Long usuarioId, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("agora") LocalDateTime agora);
+
+	@Modifying
+	@Query("update ResumoMensal r set r.total = r.total + :total, r.quantidade = r.quantidade + :quantidade "
+			+ "where r.usuarioId = :id and r.ano = :ano and r.mes = :mes and r.tipo = :tipo and r.status = :status")
+	int somar(@Param("id") Long usuarioId, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+			@Param("total") BigDecimal total, @Param("quantidade") Long quantidade);
+
+}
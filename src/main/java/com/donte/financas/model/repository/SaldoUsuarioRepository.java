@@ -0,0 +1,26 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.donte.financas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Modifying
+	@Query("update SaldoUsuario s set s.saldo = s.saldo + :delta where s.usuarioId = :id")
+	int somarAoSaldo(@Param("id") Long usuarioId, @Param("delta") BigDecimal delta);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from SaldoUsuario s where s.usuarioId = :id")
+	Optional<SaldoUsuario> obterParaAtualizacao(@Param("id") Long usuarioId);
+
+}
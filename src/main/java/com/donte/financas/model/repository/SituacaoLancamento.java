@@ -0,0 +1,46 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Campos de um lancamento que influenciam o saldo do usuario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SituacaoLancamento {
+
+	private Long usuarioId;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal valor;
+
+	public static SituacaoLancamento de(Lancamento lancamento) {
+		Long usuarioId = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		return new SituacaoLancamento(usuarioId, lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+	}
+
+	public static SituacaoLancamento de(ResumoLancamento resumo) {
+		return new SituacaoLancamento(resumo.getUsuarioId(), resumo.getTipo(), resumo.getStatus(), resumo.getValor());
+	}
+
+	/**
+	 * Quanto este lancamento soma ao saldo: apenas lancamentos efetivados contam,
+	 * receitas com sinal positivo e despesas com sinal negativo.
+	 */
+	public BigDecimal contribuicao() {
+		if(status != StatusLancamento.EFETIVADO || valor == null || tipo == null) {
+			return BigDecimal.ZERO;
+		}
+		return tipo == TipoLancamento.RECEITA ? valor : valor.negate();
+	}
+
+}
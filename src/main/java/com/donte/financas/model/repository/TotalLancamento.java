@@ -0,0 +1,35 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Soma e quantidade de lancamentos agrupados por tipo e status, opcionalmente por mes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalLancamento {
+
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal total;
+	private Long quantidade;
+
+	public TotalLancamento(TipoLancamento tipo, StatusLancamento status, BigDecimal total, Long quantidade) {
+		this(null, null, tipo, status, total, quantidade);
+	}
+
+	public BigDecimal contribuicao() {
+		return new SituacaoLancamento(null, tipo, status, total).contribuicao();
+	}
+
+}
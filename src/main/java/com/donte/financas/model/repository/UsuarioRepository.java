@@ -1,8 +1,14 @@
 package com.donte.financas.model.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.donte.financas.model.entity.Usuario;
 
@@ -12,4 +18,11 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 	
 	Optional<Usuario> findByEmail(String email);
 
+	@Query("select u.id from Usuario u order by u.id")
+	List<Long> listarIds();
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select u.id from Usuario u where u.id = :id")
+	Optional<Long> bloquear(@Param("id") Long id);
+
 }
@@ -0,0 +1,12 @@
+package com.donte.financas.service;
+
+public interface ArquivamentoService {
+
+	/**
+	 * Move para o arquivo, em lotes de uma transacao cada, os lancamentos dos anos encerrados:
+	 * anos anteriores aos anos mantidos em que nenhum lancamento do usuario esta pendente.
+	 * Retorna quantos lancamentos foram movidos.
+	 */
+	int arquivarAnosEncerrados();
+
+}
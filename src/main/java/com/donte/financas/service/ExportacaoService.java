@@ -0,0 +1,14 @@
+package com.donte.financas.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportacaoService {
+
+	/**
+	 * Escreve todos os lancamentos do usuario na saida, lendo-os do banco aos poucos.
+	 * @return quantidade de lancamentos exportados
+	 */
+	long exportar(Long usuarioId, FormatoExportacao formato, OutputStream saida) throws IOException;
+
+}
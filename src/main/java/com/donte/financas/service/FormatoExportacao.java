@@ -0,0 +1,17 @@
+package com.donte.financas.service;
+
+public enum FormatoExportacao {
+
+	CSV("text/csv"), NDJSON("application/x-ndjson");
+
+	private final String contentType;
+
+	FormatoExportacao(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+}
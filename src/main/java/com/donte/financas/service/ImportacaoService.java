@@ -0,0 +1,23 @@
+package com.donte.financas.service;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.donte.financas.api.dto.ImportacaoDTO;
+
+public interface ImportacaoService {
+
+	/**
+	 * Copia o extrato para um arquivo temporario e agenda a importacao, retornando logo em seguida.
+	 * O andamento pode ser acompanhado por {@link #obter(String)}. Sem {@code charset}, o OFX e lido no
+	 * charset do seu cabecalho e o CSV em UTF-8. Com a fila de importacoes cheia, lanca
+	 * {@link com.donte.financas.exception.ServicoSobrecarregadoException}.
+	 */
+	ImportacaoDTO iniciar(Long usuarioId, String formato, String charset, InputStream conteudo);
+
+	Optional<ImportacaoDTO> obter(String id);
+
+	Optional<Path> obterRejeitadas(String id);
+
+}
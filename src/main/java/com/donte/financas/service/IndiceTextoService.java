@@ -0,0 +1,32 @@
+package com.donte.financas.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.donte.financas.model.entity.Lancamento;
+
+public interface IndiceTextoService {
+
+	/**
+	 * Indexa a descricao dos lancamentos incluidos ou alterados. Dentro de uma transacao,
+	 * o indice so muda depois do commit.
+	 */
+	void registrar(Collection<Lancamento> lancamentos);
+
+	/**
+	 * Retira os lancamentos do indice do usuario. Dentro de uma transacao, apenas depois do commit.
+	 */
+	void remover(Long usuarioId, Collection<Long> ids);
+
+	/**
+	 * Ids dos lancamentos do usuario cuja descricao tem palavras que comecam por cada termo do texto,
+	 * do mais relevante para o menos. Na primeira busca o indice do usuario e carregado da tabela.
+	 */
+	List<Long> buscar(Long usuarioId, String texto, int limite);
+
+	/**
+	 * Descarta o indice do usuario e o carrega novamente a partir da tabela.
+	 */
+	void reconstruir(Long usuarioId);
+
+}
@@ -1,23 +1,35 @@
 package com.donte.financas.service;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
 import com.donte.financas.api.dto.AtualizarStatusDTO;
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.dto.ResultadoStatusLoteDTO;
 import com.donte.financas.model.entity.Lancamento;
 import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
 
 public interface LancamentoService {
 	
 	Lancamento salvar(Lancamento lancamento);
+	List<Lancamento> salvarLote(List<Lancamento> lancamentos);
 	Lancamento atualizar(Lancamento lancamento);
 	void deletar(Lancamento lancamento);
 	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	PaginaDTO<ResumoLancamento> buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho);
+	List<ResumoLancamento> buscarPorTexto(Long usuarioId, String texto, Integer limite);
 	void validar(Lancamento lancamento);
 	Optional<Lancamento> obterPorId(Long id);
+	Optional<ResumoLancamento> obterResumoPorId(Long id);
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 	Lancamento atualizarStatus(Long codigo, AtualizarStatusDTO dto);
+	ResultadoStatusLoteDTO atualizarStatusEmLote(Long usuarioId, AtualizarStatusLoteDTO dto);
 	BigDecimal obterSaldoPorUsuario(Long id);
+	FluxoMensalDTO obterFluxoMensal(Long usuarioId, YearMonth inicio, YearMonth fim);
 
 }
@@ -0,0 +1,30 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras da pilha reativa (WebFlux + R2DBC). Nenhum metodo bloqueia: os resultados sao emitidos
+ * conforme o cliente consome.
+ */
+public interface LeituraReativaService {
+
+	/**
+	 * Todos os lancamentos do filtro, na ordem da busca paginada (ano, mes, id). Emite
+	 * {@link com.donte.financas.exception.RegraNegocioException} se o usuario nao existir.
+	 */
+	Flux<ResumoLancamento> buscar(Lancamento lancamentoFiltro);
+
+	Mono<ResumoLancamento> obterResumoPorId(Long id);
+
+	/**
+	 * Saldo do usuario, ou vazio se o usuario nao existir.
+	 */
+	Mono<BigDecimal> obterSaldoPorUsuario(Long usuarioId);
+
+}
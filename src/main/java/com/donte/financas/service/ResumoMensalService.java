@@ -0,0 +1,25 @@
+package com.donte.financas.service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.model.repository.MesLancamento;
+
+public interface ResumoMensalService {
+
+	/**
+	 * Registra que o resumo dos meses informados precisa ser recalculado. Deve ser chamado
+	 * na mesma transacao da escrita dos lancamentos.
+	 */
+	void marcarPendentes(Collection<MesLancamento> meses);
+
+	/**
+	 * Recalcula os meses pendentes em lotes, um por transacao, e retorna quantas
+	 * marcacoes foram processadas.
+	 */
+	int processarPendentes();
+
+	FluxoMensalDTO obterFluxoMensal(Long usuarioId, YearMonth inicio, YearMonth fim);
+
+}
@@ -0,0 +1,31 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.donte.financas.model.repository.DivergenciaSaldo;
+import com.donte.financas.model.repository.SituacaoLancamento;
+
+public interface SaldoService {
+
+	BigDecimal obterSaldo(Long usuarioId);
+
+	/**
+	 * Aplica ao saldo a diferenca entre a situacao anterior e a nova de um lancamento.
+	 * Use {@code null} em {@code antes} para inclusoes e em {@code depois} para exclusoes.
+	 */
+	void registrarAlteracao(SituacaoLancamento antes, SituacaoLancamento depois);
+
+	/**
+	 * Equivalente a {@link #registrarAlteracao} para varios lancamentos: as diferencas sao somadas
+	 * e aplicadas com uma unica atualizacao por usuario.
+	 */
+	void registrarAlteracoes(Collection<SituacaoLancamento> antes, Collection<SituacaoLancamento> depois);
+
+	Optional<DivergenciaSaldo> reconciliar(Long usuarioId);
+
+	List<DivergenciaSaldo> reconciliarTodos();
+
+}
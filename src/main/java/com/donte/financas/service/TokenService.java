@@ -0,0 +1,16 @@
+package com.donte.financas.service;
+
+import com.donte.financas.api.dto.TokenDTO;
+import com.donte.financas.model.entity.Usuario;
+
+public interface TokenService {
+
+	TokenDTO gerar(Usuario usuario);
+
+	/**
+	 * Confere assinatura e expiracao do token sem acessar o banco.
+	 * @return id do usuario dono do token
+	 */
+	Long validar(String token);
+
+}
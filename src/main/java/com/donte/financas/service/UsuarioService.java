@@ -1,8 +1,10 @@
 package com.donte.financas.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.donte.financas.api.dto.EstatisticasCacheDTO;
 import com.donte.financas.model.entity.Usuario;
 
 public interface UsuarioService {
@@ -14,7 +16,11 @@ public interface UsuarioService {
 	void validarEmail(String email);
 
 	Optional<Usuario> obterPorId(Long id);
+
+	List<Usuario> obterPorIds(Collection<Long> ids);
 	
 	List<Usuario> obterTodos();
 
+	EstatisticasCacheDTO obterEstatisticasCache();
+
 }
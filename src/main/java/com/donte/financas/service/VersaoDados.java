@@ -0,0 +1,25 @@
+package com.donte.financas.service;
+
+/**
+ * Versao dos lancamentos e do saldo de um usuario, usada nos GETs condicionais.
+ */
+public class VersaoDados {
+
+	private final String etag;
+	private final long ultimaAlteracao;
+
+	public VersaoDados(String etag, long ultimaAlteracao) {
+		this.etag = etag;
+		this.ultimaAlteracao = ultimaAlteracao;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	/** Instante, em milissegundos, da ultima alteracao registrada (Last-Modified). */
+	public long getUltimaAlteracao() {
+		return ultimaAlteracao;
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.donte.financas.service;
+
+import java.util.Collection;
+
+public interface VersaoDadosService {
+
+	/**
+	 * Muda a versao dos usuarios informados. Dentro de uma transacao a mudanca so acontece depois
+	 * do commit: uma leitura que obtiver a nova versao ja enxerga os dados gravados.
+	 */
+	void registrarAlteracao(Collection<Long> usuarioIds);
+
+	/**
+	 * Versao atual dos dados do usuario, sem consultar o banco. Deve ser obtida antes da consulta
+	 * que monta a resposta, nunca depois.
+	 */
+	VersaoDados obterVersao(Long usuarioId);
+
+}
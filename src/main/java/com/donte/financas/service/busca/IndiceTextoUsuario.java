@@ -0,0 +1,272 @@
+package com.donte.financas.service.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Indice invertido das descricoes dos lancamentos de um usuario. Os termos sao as palavras da
+ * descricao em minusculas e sem acentos. Cada termo da consulta casa com os termos que comecam
+ * por ele e todos precisam casar; a ordem e a do BM25, com o id maior (mais novo) primeiro
+ * em caso de empate.
+ */
+public class IndiceTextoUsuario {
+
+	private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	// um termo que apenas comeca pelo termo consultado vale menos que a palavra inteira
+	private static final double PESO_PREFIXO = 0.7;
+	private static final Comparator<Map.Entry<Long, Double>> RELEVANCIA = Comparator
+			.comparing((Map.Entry<Long, Double> e) -> e.getValue()).thenComparing(Map.Entry::getKey);
+
+	private final ReentrantReadWriteLock bloqueio = new ReentrantReadWriteLock();
+	// termo -> (id do lancamento -> ocorrencias do termo na descricao)
+	private final NavigableMap<String, Map<Long, Integer>> termos = new TreeMap<>();
+	private final Map<Long, Documento> documentos = new HashMap<>();
+	private long totalOcorrencias;
+	// lido sem o bloqueio pelo peso do cache, que nao deve esperar uma carga em andamento
+	private volatile int tamanho;
+
+	/**
+	 * Cria o indice ja bloqueado para escrita pela thread atual, que deve carrega-lo e chamar
+	 * {@link #concluirCarga()}. Buscas e alteracoes de outras threads esperam a carga terminar.
+	 */
+	public static IndiceTextoUsuario emCarga() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		indice.bloqueio.writeLock().lock();
+		return indice;
+	}
+
+	public void concluirCarga() {
+		bloqueio.writeLock().unlock();
+	}
+
+	/**
+	 * Inclui ou substitui a descricao do lancamento. Uma versao menor que a ja indexada e ignorada:
+	 * as alteracoes chegam depois do commit e podem chegar fora de ordem.
+	 */
+	public void indexar(Long id, Long versao, String descricao) {
+		bloqueio.writeLock().lock();
+		try {
+			Documento atual = documentos.get(id);
+			if(atual != null) {
+				if(versao != null && atual.versao != null && atual.versao > versao) {
+					return;
+				}
+				removerDocumento(id, atual);
+			}
+			Map<String, Integer> frequencias = new LinkedHashMap<>();
+			String[] ocorrencias = termos(descricao);
+			for(String termo : ocorrencias) {
+				frequencias.merge(termo, 1, Integer::sum);
+			}
+			String[] distintos = new String[frequencias.size()];
+			int[] contagens = new int[frequencias.size()];
+			int i = 0;
+			for(Map.Entry<String, Integer> frequencia : frequencias.entrySet()) {
+				distintos[i] = frequencia.getKey();
+				contagens[i++] = frequencia.getValue();
+				termos.computeIfAbsent(frequencia.getKey(), termo -> new HashMap<>()).put(id, frequencia.getValue());
+			}
+			documentos.put(id, new Documento(versao, distintos, contagens, ocorrencias.length));
+			totalOcorrencias += ocorrencias.length;
+			tamanho = documentos.size();
+		}finally {
+			bloqueio.writeLock().unlock();
+		}
+	}
+
+	public void remover(Long id) {
+		bloqueio.writeLock().lock();
+		try {
+			Documento atual = documentos.get(id);
+			if(atual != null) {
+				removerDocumento(id, atual);
+			}
+		}finally {
+			bloqueio.writeLock().unlock();
+		}
+	}
+
+	private void removerDocumento(Long id, Documento documento) {
+		for(String termo : documento.termos) {
+			Map<Long, Integer> ids = termos.get(termo);
+			ids.remove(id);
+			if(ids.isEmpty()) {
+				termos.remove(termo);
+			}
+		}
+		documentos.remove(id);
+		totalOcorrencias -= documento.tamanho;
+		tamanho = documentos.size();
+	}
+
+	/**
+	 * Quantidade de lancamentos indexados, sem esperar por uma carga ou alteracao em andamento.
+	 */
+	public int getTamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Ids dos lancamentos que contem todos os termos da consulta, do mais relevante para o menos.
+	 */
+	public List<Long> buscar(String consulta, int limite) {
+		String[] consultados = Arrays.stream(termos(consulta)).distinct().toArray(String[]::new);
+		if(consultados.length == 0 || limite < 1) {
+			return Collections.emptyList();
+		}
+		bloqueio.readLock().lock();
+		try {
+			if(documentos.isEmpty()) {
+				return Collections.emptyList();
+			}
+			List<Consulta> consultas = new ArrayList<>();
+			for(String termo : consultados) {
+				consultas.add(new Consulta(termo, termos.subMap(termo, true, termo + Character.MAX_VALUE, false)));
+			}
+			// comeca pelo termo mais raro: os seguintes so avaliam os lancamentos que ainda restam
+			consultas.sort(Comparator.comparingLong(c -> c.ocorrencias));
+			double mediaTamanho = (double) totalOcorrencias / documentos.size();
+
+			Map<Long, Double> pontos = pontuarPelosTermos(consultas.get(0), null, mediaTamanho);
+			for(int i = 1; i < consultas.size() && !pontos.isEmpty(); i++) {
+				Consulta proxima = consultas.get(i);
+				pontos = pontos.size() < proxima.ocorrencias
+						? pontuarPelosDocumentos(proxima, pontos, mediaTamanho)
+						: pontuarPelosTermos(proxima, pontos, mediaTamanho);
+			}
+			return melhores(pontos, limite);
+		}finally {
+			bloqueio.readLock().unlock();
+		}
+	}
+
+	// percorre as listas de ids dos termos que casam; com candidatos, mantem apenas os que casaram
+	private Map<Long, Double> pontuarPelosTermos(Consulta consulta, Map<Long, Double> candidatos, double mediaTamanho) {
+		Map<Long, Double> pontos = new HashMap<>();
+		double idf = idf(consulta);
+		for(Map.Entry<String, Map<Long, Integer>> termo : consulta.expansoes.entrySet()) {
+			double peso = consulta.peso(termo.getKey());
+			for(Map.Entry<Long, Integer> ocorrencia : termo.getValue().entrySet()) {
+				if(candidatos != null && !candidatos.containsKey(ocorrencia.getKey())) {
+					continue;
+				}
+				double ponto = peso * bm25(idf, ocorrencia.getValue(), documentos.get(ocorrencia.getKey()).tamanho, mediaTamanho);
+				pontos.merge(ocorrencia.getKey(), ponto, Math::max);
+			}
+		}
+		if(candidatos != null) {
+			pontos.replaceAll((id, ponto) -> ponto + candidatos.get(id));
+		}
+		return pontos;
+	}
+
+	// poucos candidatos: mais barato conferir os termos de cada um do que percorrer as listas
+	private Map<Long, Double> pontuarPelosDocumentos(Consulta consulta, Map<Long, Double> candidatos, double mediaTamanho) {
+		Map<Long, Double> pontos = new HashMap<>();
+		double idf = idf(consulta);
+		for(Map.Entry<Long, Double> candidato : candidatos.entrySet()) {
+			Documento documento = documentos.get(candidato.getKey());
+			double melhor = 0;
+			for(int i = 0; i < documento.termos.length; i++) {
+				String termo = documento.termos[i];
+				if(termo.startsWith(consulta.termo)) {
+					melhor = Math.max(melhor, consulta.peso(termo) * bm25(idf, documento.contagens[i], documento.tamanho, mediaTamanho));
+				}
+			}
+			if(melhor > 0) {
+				pontos.put(candidato.getKey(), candidato.getValue() + melhor);
+			}
+		}
+		return pontos;
+	}
+
+	// a raridade e a do termo consultado (todas as palavras que comecam por ele), entao a palavra
+	// inteira sempre pontua mais que uma palavra apenas com o mesmo inicio
+	private double idf(Consulta consulta) {
+		double quantidadeDocumentos = Math.min(consulta.ocorrencias, documentos.size());
+		return Math.log(1 + (documentos.size() - quantidadeDocumentos + 0.5) / (quantidadeDocumentos + 0.5));
+	}
+
+	private static double bm25(double idf, int frequencia, int tamanho, double mediaTamanho) {
+		return idf * frequencia * (K1 + 1) / (frequencia + K1 * (1 - B + B * tamanho / mediaTamanho));
+	}
+
+	private static List<Long> melhores(Map<Long, Double> pontos, int limite) {
+		PriorityQueue<Map.Entry<Long, Double>> fila = new PriorityQueue<>(limite, RELEVANCIA);
+		for(Map.Entry<Long, Double> ponto : pontos.entrySet()) {
+			if(fila.size() < limite) {
+				fila.offer(ponto);
+			}else if(RELEVANCIA.compare(ponto, fila.peek()) > 0) {
+				fila.poll();
+				fila.offer(ponto);
+			}
+		}
+		Long[] ids = new Long[fila.size()];
+		for(int i = ids.length - 1; i >= 0; i--) {
+			ids[i] = fila.poll().getKey();
+		}
+		return Arrays.asList(ids);
+	}
+
+	/**
+	 * Palavras do texto em minusculas e sem acentos, na ordem em que aparecem.
+	 */
+	public static String[] termos(String texto) {
+		if(texto == null) {
+			return new String[0];
+		}
+		String normalizado = ACENTOS.matcher(Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+		return Arrays.stream(SEPARADORES.split(normalizado)).filter(termo -> !termo.isEmpty()).toArray(String[]::new);
+	}
+
+	private static class Documento {
+
+		final Long versao;
+		final String[] termos;
+		final int[] contagens;
+		final int tamanho;
+
+		Documento(Long versao, String[] termos, int[] contagens, int tamanho) {
+			this.versao = versao;
+			this.termos = termos;
+			this.contagens = contagens;
+			this.tamanho = tamanho;
+		}
+
+	}
+
+	private static class Consulta {
+
+		final String termo;
+		final Map<String, Map<Long, Integer>> expansoes;
+		final long ocorrencias;
+
+		Consulta(String termo, Map<String, Map<Long, Integer>> expansoes) {
+			this.termo = termo;
+			this.expansoes = expansoes;
+			this.ocorrencias = expansoes.values().stream().mapToLong(Map::size).sum();
+		}
+
+		double peso(String termoIndexado) {
+			return termoIndexado.equals(termo) ? 1 : PESO_PREFIXO;
+		}
+
+	}
+
+}
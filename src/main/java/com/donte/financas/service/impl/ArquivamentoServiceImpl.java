@@ -0,0 +1,98 @@
+package com.donte.financas.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.model.entity.ResumoAnual;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.repository.AnoLancamento;
+import com.donte.financas.model.repository.LancamentoArquivadoRepository;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoAnualRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.service.ArquivamentoService;
+import com.donte.financas.service.IndiceTextoService;
+import com.donte.financas.service.VersaoDadosService;
+
+@Service
+public class ArquivamentoServiceImpl implements ArquivamentoService {
+
+	private LancamentoRepository lancamentoRepository;
+	private LancamentoArquivadoRepository arquivadoRepository;
+	private ResumoAnualRepository resumoAnualRepository;
+	private SaldoUsuarioRepository saldoRepository;
+	private VersaoDadosService versaoDadosService;
+	private IndiceTextoService indiceTextoService;
+	private TransactionTemplate transactionTemplate;
+	private int anosMantidos;
+	private int tamanhoLote;
+
+	public ArquivamentoServiceImpl(LancamentoRepository lancamentoRepository, LancamentoArquivadoRepository arquivadoRepository,
+			ResumoAnualRepository resumoAnualRepository, SaldoUsuarioRepository saldoRepository,
+			VersaoDadosService versaoDadosService, IndiceTextoService indiceTextoService,
+			PlatformTransactionManager transactionManager,
+			@Value("${financas.arquivamento.anos-mantidos:2}") int anosMantidos,
+			@Value("${financas.arquivamento.tamanho-lote:1000}") int tamanhoLote) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.arquivadoRepository = arquivadoRepository;
+		this.resumoAnualRepository = resumoAnualRepository;
+		this.saldoRepository = saldoRepository;
+		this.versaoDadosService = versaoDadosService;
+		this.indiceTextoService = indiceTextoService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.anosMantidos = anosMantidos;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	public int arquivarAnosEncerrados() {
+		int arquivados = 0;
+		List<AnoLancamento> anos = lancamentoRepository.obterAnosEncerrados(Year.now().getValue() - anosMantidos, StatusLancamento.PENDENTE);
+		for(AnoLancamento ano : anos) {
+			int lote;
+			// lotes pequenos para nao segurar bloqueios nem gerar uma transacao enorme por ano
+			do {
+				lote = transactionTemplate.execute(status -> arquivarLote(ano));
+				arquivados += lote;
+			} while(lote == tamanhoLote);
+		}
+		return arquivados;
+	}
+
+	private int arquivarLote(AnoLancamento ano) {
+		List<Long> ids = lancamentoRepository.bloquearParaArquivamento(ano.getUsuarioId(), ano.getAno(),
+				StatusLancamento.PENDENTE, PageRequest.of(0, tamanhoLote));
+		if(ids.isEmpty()) {
+			return 0;
+		}
+		// mesma linha bloqueada pela reconciliacao do saldo: ela nunca ve o lote nas duas tabelas ou em nenhuma
+		saldoRepository.obterParaAtualizacao(ano.getUsuarioId());
+
+		LocalDateTime agora = LocalDateTime.now();
+		List<TotalLancamento> totais = lancamentoRepository.obterTotaisPorIds(ids);
+		arquivadoRepository.copiar(ids, agora);
+		lancamentoRepository.remover(ids);
+		for(TotalLancamento total : totais) {
+			if(resumoAnualRepository.somar(ano.getUsuarioId(), ano.getAno(), total.getTipo(), total.getStatus(),
+					total.getTotal(), total.getQuantidade(), agora) == 0) {
+				resumoAnualRepository.save(ResumoAnual.builder().usuarioId(ano.getUsuarioId()).ano(ano.getAno())
+						.tipo(total.getTipo()).status(total.getStatus()).total(total.getTotal())
+						.quantidade(total.getQuantidade()).atualizadoEm(agora).build());
+			}
+		}
+		// buscas sem ano, ou com um ano mantido, deixam de trazer esses lancamentos
+		versaoDadosService.registrarAlteracao(Collections.singletonList(ano.getUsuarioId()));
+		indiceTextoService.remover(ano.getUsuarioId(), ids);
+		return ids.size();
+	}
+
+}
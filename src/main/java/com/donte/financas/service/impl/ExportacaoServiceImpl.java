@@ -0,0 +1,97 @@
+package com.donte.financas.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.service.ExportacaoService;
+import com.donte.financas.service.FormatoExportacao;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+@Service
+public class ExportacaoServiceImpl implements ExportacaoService {
+
+	// mesmo valor do fetch size da consulta: a sessao e limpa a cada lote lido do banco
+	static final int TAMANHO_LOTE = LancamentoRepository.FETCH_SIZE_EXPORTACAO;
+
+	private LancamentoRepository repository;
+	private ObjectWriter writer;
+
+	public ExportacaoServiceImpl(LancamentoRepository repository, ObjectMapper objectMapper) {
+		this.repository = repository;
+		this.writer = objectMapper.writerFor(LancamentoDTO.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long exportar(Long usuarioId, FormatoExportacao formato, OutputStream saida) throws IOException {
+		Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+		if(formato == FormatoExportacao.CSV) {
+			escritor.write("id;descricao;mes;ano;valor;tipo;status\n");
+		}
+
+		AtomicLong quantidade = new AtomicLong();
+		try(Stream<Lancamento> lancamentos = repository.streamPorUsuario(usuarioId)) {
+			lancamentos.forEach(lancamento -> {
+				try {
+					escrever(formato, LancamentoDTO.de(lancamento), escritor);
+				}catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				if(quantidade.incrementAndGet() % TAMANHO_LOTE == 0) {
+					// descarta as entidades ja escritas para a sessao nao crescer com o total exportado
+					repository.limparSessao();
+				}
+			});
+		}catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		escritor.flush();
+		return quantidade.get();
+	}
+
+	private void escrever(FormatoExportacao formato, LancamentoDTO dto, Writer escritor) throws IOException {
+		if(formato == FormatoExportacao.NDJSON) {
+			writer.writeValue(escritor, dto);
+			escritor.write('\n');
+			return;
+		}
+		escritor.write(String.valueOf(dto.getId()));
+		escritor.write(';');
+		escritor.write(csv(dto.getDescricao()));
+		escritor.write(';');
+		escritor.write(String.valueOf(dto.getMes()));
+		escritor.write(';');
+		escritor.write(String.valueOf(dto.getAno()));
+		escritor.write(';');
+		escritor.write(dto.getValor().toPlainString());
+		escritor.write(';');
+		escritor.write(dto.getTipo());
+		escritor.write(';');
+		escritor.write(dto.getStatus());
+		escritor.write('\n');
+	}
+
+	private static String csv(String valor) {
+		if(valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0
+				&& valor.indexOf('\r') < 0) {
+			return valor;
+		}
+		return "\"" + valor.replace("\"", "\"\"") + "\"";
+	}
+
+}
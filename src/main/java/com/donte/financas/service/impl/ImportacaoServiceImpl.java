@@ -0,0 +1,290 @@
+package com.donte.financas.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.donte.financas.api.dto.ImportacaoDTO;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.exception.ServicoSobrecarregadoException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.service.ImportacaoService;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.importacao.LeitorCsv;
+import com.donte.financas.service.importacao.LeitorExtrato;
+import com.donte.financas.service.importacao.LeitorOfx;
+import com.donte.financas.service.importacao.LinhaExtrato;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class ImportacaoServiceImpl implements ImportacaoService {
+
+	static final int TAMANHO_DESCRICAO = 100;
+	static final Duration RETENCAO = Duration.ofHours(24);
+
+	private LancamentoService lancamentoService;
+	private UsuarioService usuarioService;
+	private Executor executor;
+	private int tamanhoLote;
+
+	private final Map<String, Importacao> importacoes = new ConcurrentHashMap<>();
+
+	public ImportacaoServiceImpl(LancamentoService lancamentoService, UsuarioService usuarioService,
+			@Qualifier("importacaoExecutor") Executor executor,
+			@Value("${financas.importacao.tamanho-lote:500}") int tamanhoLote) {
+		this.lancamentoService = lancamentoService;
+		this.usuarioService = usuarioService;
+		this.executor = executor;
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	public ImportacaoDTO iniciar(Long usuarioId, String formato, String charset, InputStream conteudo) {
+		Usuario usuario = usuarioService.obterPorId(usuarioId).orElseThrow(() -> new RegraNegocioException("Usuario nao encontrado"));
+		String formatoNormalizado = StringUtils.lowerCase(formato);
+		if(!"csv".equals(formatoNormalizado) && !"ofx".equals(formatoNormalizado)) {
+			throw new RegraNegocioException("Formato de extrato não suportado. Use csv ou ofx");
+		}
+		Charset charsetArquivo = obterCharset(charset);
+		removerExpiradas();
+
+		Importacao importacao = new Importacao(UUID.randomUUID().toString(), usuario, formatoNormalizado, charsetArquivo);
+		try {
+			importacao.arquivo = Files.createTempFile("importacao-", "." + formatoNormalizado);
+			importacao.arquivoRejeitadas = Files.createTempFile("importacao-rejeitadas-", ".csv");
+			// copia em blocos: o upload nao precisa caber em memoria nem sobreviver ao fim da requisicao
+			Files.copy(conteudo, importacao.arquivo, StandardCopyOption.REPLACE_EXISTING);
+		}catch (IOException e) {
+			importacao.apagarArquivos();
+			throw new RegraNegocioException("Não foi possível receber o arquivo: " + e.getMessage());
+		}
+
+		importacoes.put(importacao.id, importacao);
+		try {
+			executor.execute(() -> processar(importacao));
+		}catch (RejectedExecutionException e) {
+			// fila cheia: nada foi processado, entao a importacao nao fica registrada
+			importacoes.remove(importacao.id);
+			importacao.apagarArquivos();
+			throw new ServicoSobrecarregadoException("Muitas importações em andamento. Tente novamente mais tarde");
+		}
+		return importacao.paraDTO();
+	}
+
+	private static Charset obterCharset(String charset) {
+		if(StringUtils.isBlank(charset)) {
+			return null;
+		}
+		try {
+			return Charset.forName(charset.trim());
+		}catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Charset não suportado: " + charset);
+		}
+	}
+
+	/**
+	 * O charset informado na requisicao; sem ele, o do cabecalho do OFX ou UTF-8.
+	 */
+	private static Charset charsetDoArquivo(Importacao importacao) throws IOException {
+		if(importacao.charset != null) {
+			return importacao.charset;
+		}
+		if("ofx".equals(importacao.formato)) {
+			try(InputStream entrada = Files.newInputStream(importacao.arquivo)) {
+				return LeitorOfx.charsetDoCabecalho(entrada);
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	@Override
+	public Optional<ImportacaoDTO> obter(String id) {
+		return Optional.ofNullable(importacoes.get(id)).map(Importacao::paraDTO);
+	}
+
+	@Override
+	public Optional<Path> obterRejeitadas(String id) {
+		return Optional.ofNullable(importacoes.get(id))
+				.filter(importacao -> importacao.situacao != Situacao.PROCESSANDO)
+				.map(importacao -> importacao.arquivoRejeitadas);
+	}
+
+	void processar(Importacao importacao) {
+		try(Reader reader = Files.newBufferedReader(importacao.arquivo, charsetDoArquivo(importacao));
+				LeitorExtrato leitor = "ofx".equals(importacao.formato) ? new LeitorOfx(reader) : new LeitorCsv(reader);
+				BufferedWriter rejeitadas = Files.newBufferedWriter(importacao.arquivoRejeitadas, StandardCharsets.UTF_8)) {
+			rejeitadas.write("linha;motivo;conteudo");
+			rejeitadas.newLine();
+
+			List<LinhaExtrato> linhas = new ArrayList<>(tamanhoLote);
+			List<Lancamento> lancamentos = new ArrayList<>(tamanhoLote);
+			LinhaExtrato linha;
+			while((linha = leitor.proxima()) != null) {
+				importacao.lidas.incrementAndGet();
+				try {
+					lancamentos.add(converter(linha, importacao.usuario));
+					linhas.add(linha);
+				}catch (RegraNegocioException e) {
+					rejeitar(importacao, rejeitadas, linha, e.getMessage());
+				}
+				if(lancamentos.size() == tamanhoLote) {
+					salvar(importacao, rejeitadas, linhas, lancamentos);
+				}
+			}
+			salvar(importacao, rejeitadas, linhas, lancamentos);
+			importacao.concluir(Situacao.CONCLUIDA, null);
+		}catch (IOException | RuntimeException e) {
+			log.error("Falha na importacao {}", importacao.id, e);
+			importacao.concluir(Situacao.FALHOU, e.getMessage());
+		}finally {
+			apagar(importacao.arquivo);
+		}
+	}
+
+	private Lancamento converter(LinhaExtrato linha, Usuario usuario) {
+		if(linha.getErro() != null) {
+			throw new RegraNegocioException(linha.getErro());
+		}
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(StringUtils.left(StringUtils.trim(linha.getDescricao()), TAMANHO_DESCRICAO));
+		lancamento.setMes(linha.getData().getMonthValue());
+		lancamento.setAno(linha.getData().getYear());
+		lancamento.setValor(linha.getValor().abs());
+		lancamento.setTipo(linha.getValor().signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+		lancamento.setUsuario(usuario);
+		lancamentoService.validar(lancamento);
+		return lancamento;
+	}
+
+	/**
+	 * Grava o bloco em uma transacao propria; se ela falhar, so as linhas do bloco sao rejeitadas.
+	 */
+	private void salvar(Importacao importacao, BufferedWriter rejeitadas, List<LinhaExtrato> linhas, List<Lancamento> lancamentos) throws IOException {
+		if(lancamentos.isEmpty()) {
+			return;
+		}
+		try {
+			lancamentoService.salvarLote(lancamentos);
+			importacao.importadas.addAndGet(lancamentos.size());
+		}catch (RuntimeException e) {
+			log.warn("Bloco da importacao {} rejeitado", importacao.id, e);
+			for(LinhaExtrato linha : linhas) {
+				rejeitar(importacao, rejeitadas, linha, "Erro ao gravar o bloco: " + e.getMessage());
+			}
+		}
+		linhas.clear();
+		lancamentos.clear();
+	}
+
+	private void rejeitar(Importacao importacao, BufferedWriter rejeitadas, LinhaExtrato linha, String motivo) throws IOException {
+		importacao.rejeitadas.incrementAndGet();
+		rejeitadas.write(linha.getNumero() + ";" + csv(motivo) + ";" + csv(linha.getOriginal()));
+		rejeitadas.newLine();
+	}
+
+	private static String csv(String valor) {
+		return "\"" + StringUtils.defaultString(valor).replace("\"", "\"\"") + "\"";
+	}
+
+	private void removerExpiradas() {
+		LocalDateTime limite = LocalDateTime.now().minus(RETENCAO);
+		importacoes.values().removeIf(importacao -> {
+			boolean expirada = importacao.fim != null && importacao.fim.isBefore(limite);
+			if(expirada) {
+				importacao.apagarArquivos();
+			}
+			return expirada;
+		});
+	}
+
+	private static void apagar(Path arquivo) {
+		try {
+			if(arquivo != null) {
+				Files.deleteIfExists(arquivo);
+			}
+		}catch (IOException e) {
+			log.warn("Nao foi possivel apagar {}", arquivo, e);
+		}
+	}
+
+	enum Situacao {
+		PROCESSANDO, CONCLUIDA, FALHOU
+	}
+
+	static class Importacao {
+		final String id;
+		final Usuario usuario;
+		final String formato;
+		final Charset charset;
+		final LocalDateTime inicio = LocalDateTime.now();
+		final AtomicLong lidas = new AtomicLong();
+		final AtomicLong importadas = new AtomicLong();
+		final AtomicLong rejeitadas = new AtomicLong();
+		volatile Situacao situacao = Situacao.PROCESSANDO;
+		volatile String mensagem;
+		volatile LocalDateTime fim;
+		Path arquivo;
+		Path arquivoRejeitadas;
+
+		Importacao(String id, Usuario usuario, String formato, Charset charset) {
+			this.id = id;
+			this.usuario = usuario;
+			this.formato = formato;
+			this.charset = charset;
+		}
+
+		void concluir(Situacao situacao, String mensagem) {
+			this.mensagem = mensagem;
+			this.fim = LocalDateTime.now();
+			this.situacao = situacao;
+		}
+
+		void apagarArquivos() {
+			apagar(arquivo);
+			apagar(arquivoRejeitadas);
+		}
+
+		ImportacaoDTO paraDTO() {
+			return ImportacaoDTO.builder()
+					.id(id)
+					.usuario(usuario.getId())
+					.formato(formato)
+					.situacao(situacao.name())
+					.lidas(lidas.get())
+					.importadas(importadas.get())
+					.rejeitadas(rejeitadas.get())
+					.mensagem(mensagem)
+					.inicio(inicio)
+					.fim(fim)
+					.build();
+		}
+	}
+
+}
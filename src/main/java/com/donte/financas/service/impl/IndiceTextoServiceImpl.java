@@ -0,0 +1,147 @@
+package com.donte.financas.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.IndiceTextoService;
+import com.donte.financas.service.busca.IndiceTextoUsuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Um {@link IndiceTextoUsuario} em memoria por usuario que buscou recentemente. Escritas de usuarios
+ * sem indice carregado sao ignoradas: a proxima busca carrega o estado da tabela. Como em
+ * {@link VersaoDadosServiceImpl}, todas as escritas precisam passar por esta instancia.
+ * O cache e limitado pela soma dos lancamentos indexados, nao pela quantidade de usuarios: o peso
+ * de cada indice e recalculado ao fim da carga e depois de cada escrita aplicada.
+ */
+@Service
+public class IndiceTextoServiceImpl implements IndiceTextoService {
+
+	private LancamentoRepository repository;
+	private TransactionTemplate transactionTemplate;
+	private Cache<Long, IndiceTextoUsuario> indices;
+
+	public IndiceTextoServiceImpl(LancamentoRepository repository, PlatformTransactionManager transactionManager,
+			@Value("${financas.busca-texto.lancamentos-em-memoria:1000000}") long lancamentosEmMemoria,
+			@Value("${financas.busca-texto.expiracao-minutos:30}") long expiracaoMinutos) {
+		this.repository = repository;
+		// transacao propria e de escrita: com replica configurada a carga le do primario e
+		// nao perde uma alteracao ignorada enquanto o indice ainda nao existia
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.indices = Caffeine.newBuilder()
+				// peso minimo 1: indices vazios tambem ocupam uma entrada
+				.weigher((Long usuarioId, IndiceTextoUsuario indice) -> Math.max(1, indice.getTamanho()))
+				.maximumWeight(lancamentosEmMemoria)
+				.expireAfterAccess(expiracaoMinutos, TimeUnit.MINUTES)
+				.build();
+	}
+
+	// os campos do lancamento sao lidos no commit, quando a versao ja foi incrementada pelo flush
+	@Override
+	public void registrar(Collection<Lancamento> lancamentos) {
+		List<Lancamento> alterados = new ArrayList<>(lancamentos);
+		aposCommit(() -> {
+			Map<Long, IndiceTextoUsuario> atualizados = new HashMap<>();
+			for(Lancamento lancamento : alterados) {
+				if(lancamento.getId() == null || lancamento.getUsuario() == null) {
+					continue;
+				}
+				IndiceTextoUsuario indice = indices.getIfPresent(lancamento.getUsuario().getId());
+				if(indice != null) {
+					indice.indexar(lancamento.getId(), lancamento.getVersao(), lancamento.getDescricao());
+					atualizados.put(lancamento.getUsuario().getId(), indice);
+				}
+			}
+			atualizados.forEach(this::atualizarPeso);
+		});
+	}
+
+	@Override
+	public void remover(Long usuarioId, Collection<Long> ids) {
+		List<Long> removidos = new ArrayList<>(ids);
+		aposCommit(() -> {
+			IndiceTextoUsuario indice = usuarioId == null ? null : indices.getIfPresent(usuarioId);
+			if(indice != null) {
+				removidos.forEach(indice::remover);
+				atualizarPeso(usuarioId, indice);
+			}
+		});
+	}
+
+	// o Caffeine so pesa o valor ao grava-lo: regravar o mesmo indice atualiza o peso e, se passar
+	// do limite, descarta os indices usados ha mais tempo
+	private void atualizarPeso(Long usuarioId, IndiceTextoUsuario indice) {
+		indices.asMap().replace(usuarioId, indice, indice);
+	}
+
+	private void aposCommit(Runnable acao) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			acao.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				acao.run();
+			}
+		});
+	}
+
+	@Override
+	public List<Long> buscar(Long usuarioId, String texto, int limite) {
+		return obterIndice(usuarioId).buscar(texto, limite);
+	}
+
+	@Override
+	public void reconstruir(Long usuarioId) {
+		indices.invalidate(usuarioId);
+		obterIndice(usuarioId);
+	}
+
+	private IndiceTextoUsuario obterIndice(Long usuarioId) {
+		IndiceTextoUsuario indice = indices.getIfPresent(usuarioId);
+		if(indice != null) {
+			return indice;
+		}
+		// o indice entra no cache ainda bloqueado: uma escrita confirmada durante a carga espera
+		// e e aplicada sobre o estado lido, em vez de ser ignorada
+		IndiceTextoUsuario novo = IndiceTextoUsuario.emCarga();
+		try {
+			IndiceTextoUsuario existente = indices.asMap().putIfAbsent(usuarioId, novo);
+			if(existente != null) {
+				return existente;
+			}
+			transactionTemplate.executeWithoutResult(status -> {
+				try(Stream<ResumoLancamento> resumos = repository.streamResumosPorUsuario(usuarioId)) {
+					resumos.forEach(resumo -> novo.indexar(resumo.getId(), resumo.getVersao(), resumo.getDescricao()));
+				}
+			});
+			atualizarPeso(usuarioId, novo);
+			return novo;
+		}catch (RuntimeException e) {
+			indices.asMap().remove(usuarioId, novo);
+			throw e;
+		}finally {
+			novo.concluirCarga();
+		}
+	}
+
+}
@@ -1,32 +1,81 @@
 package com.donte.financas.service.impl;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.donte.financas.api.dto.AtualizarStatusDTO;
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.api.dto.ItemLoteDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.dto.ResultadoStatusLoteDTO;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.model.enums.StatusLancamento;
 import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.CursorLancamento;
 import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.MesLancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.model.repository.SituacaoLancamento;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.service.IndiceTextoService;
 import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.ResumoMensalService;
+import com.donte.financas.service.SaldoService;
+import com.donte.financas.service.VersaoDadosService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService{
 	
+	public static final int TAMANHO_PAGINA_PADRAO = 50;
+	public static final int TAMANHO_PAGINA_MAXIMO = 500;
+	public static final int TAMANHO_MAXIMO_LOTE = 5000;
+	public static final int TENTATIVAS_EM_CONFLITO = 5;
+
 	private LancamentoRepository repository;
+	private SaldoService saldoService;
+	private ResumoMensalService resumoMensalService;
+	private VersaoDadosService versaoDadosService;
+	private IndiceTextoService indiceTextoService;
+	private TransactionTemplate transactionTemplate;
+	private TransactionTemplate leituraTemplate;
 
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, SaldoService saldoService,
+			ResumoMensalService resumoMensalService, VersaoDadosService versaoDadosService,
+			IndiceTextoService indiceTextoService, PlatformTransactionManager transactionManager) {
 		this.repository = repository;
+		this.saldoService = saldoService;
+		this.resumoMensalService = resumoMensalService;
+		this.versaoDadosService = versaoDadosService;
+		this.indiceTextoService = indiceTextoService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.leituraTemplate = new TransactionTemplate(transactionManager);
+		this.leituraTemplate.setReadOnly(true);
 	}
 
 	@Override
@@ -34,7 +83,26 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento salvo = repository.save(lancamento);
+		saldoService.registrarAlteracao(null, SituacaoLancamento.de(salvo));
+		registrarMesesAlterados(Collections.singletonList(MesLancamento.de(salvo)));
+		indiceTextoService.registrar(Collections.singletonList(salvo));
+		return salvo;
+	}
+
+	@Override
+	@Transactional
+	public List<Lancamento> salvarLote(List<Lancamento> lancamentos) {
+		lancamentos.forEach(lancamento -> {
+			validar(lancamento);
+			lancamento.setStatus(StatusLancamento.PENDENTE);
+		});
+		repository.persistirEmLote(lancamentos);
+		saldoService.registrarAlteracoes(Collections.emptyList(),
+				lancamentos.stream().map(SituacaoLancamento::de).collect(Collectors.toList()));
+		registrarMesesAlterados(lancamentos.stream().map(MesLancamento::de).collect(Collectors.toList()));
+		indiceTextoService.registrar(lancamentos);
+		return lancamentos;
 	}
 
 	@Override
@@ -42,14 +110,53 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		ResumoLancamento gravado = obterGravado(lancamento);
+		Lancamento salvo = repository.save(lancamento);
+		saldoService.registrarAlteracao(gravado == null ? null : SituacaoLancamento.de(gravado), SituacaoLancamento.de(salvo));
+		// o lancamento pode ter mudado de mes, entao os dois meses sao recalculados
+		List<MesLancamento> meses = new ArrayList<>();
+		if(gravado != null) {
+			meses.add(MesLancamento.de(gravado));
+		}
+		meses.add(MesLancamento.de(salvo));
+		registrarMesesAlterados(meses);
+		if(gravado != null && !gravado.getUsuarioId().equals(salvo.getUsuario().getId())) {
+			indiceTextoService.remover(gravado.getUsuarioId(), Collections.singletonList(salvo.getId()));
+		}
+		indiceTextoService.registrar(Collections.singletonList(salvo));
+		return salvo;
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		ResumoLancamento gravado = obterGravado(lancamento);
 		repository.delete(lancamento);
+		if(gravado != null) {
+			saldoService.registrarAlteracao(SituacaoLancamento.de(gravado), null);
+			registrarMesesAlterados(Collections.singletonList(MesLancamento.de(gravado)));
+			indiceTextoService.remover(gravado.getUsuarioId(), Collections.singletonList(gravado.getId()));
+		}
+	}
+
+	// toda escrita passa por aqui: os meses alterados sao recalculados e a versao dos usuarios muda
+	private void registrarMesesAlterados(Collection<MesLancamento> meses) {
+		resumoMensalService.marcarPendentes(meses);
+		versaoDadosService.registrarAlteracao(meses.stream().map(MesLancamento::getUsuarioId).collect(Collectors.toList()));
+	}
+
+	// estado gravado no banco; se a versao gravada nao for a da entidade, o saldo seria
+	// calculado sobre um estado que esta alteracao nao enxergou
+	private ResumoLancamento obterGravado(Lancamento lancamento) {
+		ResumoLancamento gravado = repository.obterResumo(lancamento.getId()).orElse(null);
+		if(gravado == null) {
+			return null;
+		}
+		if(lancamento.getVersao() != null && !lancamento.getVersao().equals(gravado.getVersao())) {
+			throw new ObjectOptimisticLockingFailureException(Lancamento.class, lancamento.getId());
+		}
+		return gravado;
 	}
 
 	@Override
@@ -59,6 +166,41 @@ public class LancamentoServiceImpl implements LancamentoService{
 		return repository.findAll(example);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaDTO<ResumoLancamento> buscar(Lancamento lancamentoFiltro, String cursor, Integer tamanho) {
+		int limite = tamanho == null ? TAMANHO_PAGINA_PADRAO : Math.min(Math.max(tamanho, 1), TAMANHO_PAGINA_MAXIMO);
+		CursorLancamento posicao = StringUtils.isBlank(cursor) ? null : CursorLancamento.decodificar(cursor);
+
+		// busca um item a mais apenas para saber se existe proxima pagina
+		List<ResumoLancamento> lancamentos = repository.buscarAposCursor(lancamentoFiltro, posicao, limite + 1);
+
+		String proximoCursor = null;
+		if(lancamentos.size() > limite) {
+			lancamentos = lancamentos.subList(0, limite);
+			proximoCursor = CursorLancamento.de(lancamentos.get(limite - 1)).codificar();
+		}
+		return PaginaDTO.<ResumoLancamento>builder().itens(lancamentos).proximoCursor(proximoCursor).build();
+	}
+
+	// sem transacao propria: a primeira busca do usuario carrega o indice numa transacao separada e,
+	// com uma conexao presa aqui, duas conexoes por busca podem esgotar o pool
+	@Override
+	public List<ResumoLancamento> buscarPorTexto(Long usuarioId, String texto, Integer limite) {
+		if(StringUtils.isBlank(texto)) {
+			throw new RegraNegocioException("Informe um texto para a busca");
+		}
+		int quantidade = limite == null ? TAMANHO_PAGINA_PADRAO : Math.min(Math.max(limite, 1), TAMANHO_PAGINA_MAXIMO);
+		List<Long> ids = indiceTextoService.buscar(usuarioId, texto, quantidade);
+		if(ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		// o indice decide a ordem; o banco so completa os campos de cada id
+		Map<Long, ResumoLancamento> resumos = new HashMap<>();
+		leituraTemplate.execute(status -> repository.obterResumos(ids)).forEach(resumo -> resumos.put(resumo.getId(), resumo));
+		return ids.stream().map(resumos::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
 	@Override
 	public void validar(Lancamento lancamento) {
 		if(StringUtils.isBlank(lancamento.getDescricao())) {
@@ -91,34 +233,157 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Optional<Lancamento> obterPorId(Long id) {
 		return repository.findById(id);
 	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<ResumoLancamento> obterResumoPorId(Long id) {
+		return repository.obterResumo(id);
+	}
 	
 	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
 		lancamento.setStatus(status);
 		atualizar(lancamento);
 	}
 
-	
 	@Override
 	public Lancamento atualizarStatus(Long codigo, AtualizarStatusDTO dto) {
-		Lancamento lancamento = repository.findById(codigo).orElseThrow(() -> new RegraNegocioException("Lançamento não encontrado"));
 		StatusLancamento status = StatusLancamento.valueOf(dto.getStatus());
-		lancamento.setStatus(status);
-		return atualizar(lancamento);
+		// definir o status nao depende do estado lido, entao um conflito pode ser repetido com seguranca
+		return comRetentativa(() -> transactionTemplate.execute(transacao -> {
+			Lancamento lancamento = repository.findById(codigo).orElseThrow(() -> new RegraNegocioException("Lançamento não encontrado"));
+			lancamento.setStatus(status);
+			return atualizar(lancamento);
+		}));
+	}
+
+	/**
+	 * Repete a operacao quando ela falha por concorrencia (versao desatualizada, deadlock ou espera
+	 * por bloqueio), com uma pausa aleatoria crescente. Cada tentativa deve abrir a propria transacao:
+	 * o rollback limpa o contexto de persistencia e a tentativa seguinte le o estado atual.
+	 */
+	private <T> T comRetentativa(Supplier<T> operacao) {
+		for(int tentativa = 1; ; tentativa++) {
+			try {
+				return operacao.get();
+			}catch (ConcurrencyFailureException e) {
+				if(tentativa >= TENTATIVAS_EM_CONFLITO) {
+					throw e;
+				}
+				try {
+					Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * tentativa);
+				}catch (InterruptedException interrupcao) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	@Override
+	@Transactional
+	public ResultadoStatusLoteDTO atualizarStatusEmLote(Long usuarioId, AtualizarStatusLoteDTO dto) {
+		StatusLancamento status = converterEnum(StatusLancamento.class, dto.getStatus(), "Status inválido");
+		if(status == null) {
+			throw new RegraNegocioException("Status inválido");
+		}
+		List<Long> ids = dto.getIds() == null || dto.getIds().isEmpty() ? null : dto.getIds();
+		if(ids == null && dto.getMes() == null && dto.getAno() == null && dto.getTipo() == null && dto.getStatusAtual() == null) {
+			throw new RegraNegocioException("Informe os lançamentos ou um filtro");
+		}
+		if(ids != null && ids.size() > TAMANHO_MAXIMO_LOTE) {
+			throw new RegraNegocioException("Informe no máximo " + TAMANHO_MAXIMO_LOTE + " lançamentos");
+		}
+
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(Usuario.builder().id(usuarioId).build());
+		filtro.setMes(dto.getMes());
+		filtro.setAno(dto.getAno());
+		filtro.setTipo(converterEnum(TipoLancamento.class, dto.getTipo(), "Tipo inválido"));
+		filtro.setStatus(converterEnum(StatusLancamento.class, dto.getStatusAtual(), "Status atual inválido"));
+
+		// sem ids o filtro pode alcancar dezenas de milhares de lancamentos: o update usa o proprio filtro
+		// e o saldo e os meses saem de uma consulta agrupada, sem trazer os lancamentos nem devolver os ids
+		if(ids == null) {
+			return atualizarStatusPorFiltro(filtro, status);
+		}
+
+		// bloqueia as linhas do usuario para o saldo ser calculado sobre o status que sera substituido
+		List<ResumoLancamento> encontrados = repository.bloquearParaAlteracao(filtro, ids);
+		List<SituacaoLancamento> antes = new ArrayList<>();
+		List<SituacaoLancamento> depois = new ArrayList<>();
+		List<Long> alterar = new ArrayList<>();
+		List<MesLancamento> meses = new ArrayList<>();
+		for(ResumoLancamento resumo : encontrados) {
+			if(resumo.getStatus() != status) {
+				alterar.add(resumo.getId());
+				meses.add(MesLancamento.de(resumo));
+				antes.add(SituacaoLancamento.de(resumo));
+				depois.add(new SituacaoLancamento(resumo.getUsuarioId(), resumo.getTipo(), status, resumo.getValor()));
+			}
+		}
+
+		ResultadoStatusLoteDTO resultado = new ResultadoStatusLoteDTO();
+		Set<Long> idsEncontrados = encontrados.stream().map(ResumoLancamento::getId).collect(Collectors.toSet());
+		for(int i = 0; i < ids.size(); i++) {
+			if(!idsEncontrados.contains(ids.get(i))) {
+				resultado.getFalhas().add(ItemLoteDTO.builder().indice(i).id(ids.get(i)).mensagem("Lançamento não encontrado").build());
+			}
+		}
+		if(!alterar.isEmpty()) {
+			resultado.setAtualizados(repository.atualizarStatus(alterar, status));
+			saldoService.registrarAlteracoes(antes, depois);
+			registrarMesesAlterados(meses);
+		}
+		resultado.setInalterados(encontrados.size() - alterar.size());
+		return resultado;
+	}
+
+	private ResultadoStatusLoteDTO atualizarStatusPorFiltro(Lancamento filtro, StatusLancamento status) {
+		int encontrados = repository.bloquearPorFiltro(filtro);
+		Long usuarioId = filtro.getUsuario().getId();
+		List<SituacaoLancamento> antes = new ArrayList<>();
+		List<SituacaoLancamento> depois = new ArrayList<>();
+		List<MesLancamento> meses = new ArrayList<>();
+		for(TotalLancamento total : repository.obterTotaisParaAlteracao(filtro, status)) {
+			antes.add(new SituacaoLancamento(usuarioId, total.getTipo(), total.getStatus(), total.getTotal()));
+			depois.add(new SituacaoLancamento(usuarioId, total.getTipo(), status, total.getTotal()));
+			meses.add(new MesLancamento(usuarioId, total.getAno(), total.getMes()));
+		}
+
+		ResultadoStatusLoteDTO resultado = new ResultadoStatusLoteDTO();
+		if(!meses.isEmpty()) {
+			resultado.setAtualizados(repository.atualizarStatus(filtro, status));
+			saldoService.registrarAlteracoes(antes, depois);
+			registrarMesesAlterados(meses);
+		}
+		resultado.setInalterados(encontrados - resultado.getAtualizados());
+		return resultado;
+	}
+
+	private static <E extends Enum<E>> E converterEnum(Class<E> tipo, String valor, String mensagem) {
+		if(StringUtils.isBlank(valor)) {
+			return null;
+		}
+		try {
+			return Enum.valueOf(tipo, valor);
+		}catch (IllegalArgumentException e) {
+			throw new RegraNegocioException(mensagem);
+		}
 	}
 
 	@Override
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterTotalPorTipoAndUsuario(TipoLancamento.RECEITA, id);
-		BigDecimal despesas = repository.obterTotalPorTipoAndUsuario(TipoLancamento.DESPESA, id);
-		
-		if(receitas == null)
-			receitas = BigDecimal.ZERO;
-		
-		if(despesas == null)
-			despesas = BigDecimal.ZERO;
-		
-		return receitas.subtract(despesas);
+		return saldoService.obterSaldo(id);
+	}
+
+	@Override
+	public FluxoMensalDTO obterFluxoMensal(Long usuarioId, YearMonth inicio, YearMonth fim) {
+		if(inicio == null || fim == null || fim.isBefore(inicio)) {
+			throw new RegraNegocioException("Informe um período válido");
+		}
+		return resumoMensalService.obterFluxoMensal(usuarioId, inicio, fim);
 	}
 
 }
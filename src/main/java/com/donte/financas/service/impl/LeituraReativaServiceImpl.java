@@ -0,0 +1,47 @@
+package com.donte.financas.service.impl;
+
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Service;
+
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.repository.LeituraReativaRepository;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.LeituraReativaService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class LeituraReativaServiceImpl implements LeituraReativaService {
+
+	private LeituraReativaRepository repository;
+
+	public LeituraReativaServiceImpl(LeituraReativaRepository repository) {
+		this.repository = repository;
+	}
+
+	@Override
+	public Flux<ResumoLancamento> buscar(Lancamento lancamentoFiltro) {
+		if(lancamentoFiltro.getUsuario() == null || lancamentoFiltro.getUsuario().getId() == null) {
+			return Flux.error(new RegraNegocioException("Informe um usuário"));
+		}
+		return repository.existeUsuario(lancamentoFiltro.getUsuario().getId())
+				.flatMapMany(existe -> existe
+						? repository.buscar(lancamentoFiltro)
+						: Flux.error(new RegraNegocioException("Não foi possivel realizar a consulta. Usuário nao encontrado")));
+	}
+
+	@Override
+	public Mono<ResumoLancamento> obterResumoPorId(Long id) {
+		return repository.obterResumo(id);
+	}
+
+	@Override
+	public Mono<BigDecimal> obterSaldoPorUsuario(Long usuarioId) {
+		return repository.existeUsuario(usuarioId)
+				.flatMap(existe -> existe ? repository.obterSaldo(usuarioId) : Mono.empty());
+	}
+
+}
@@ -0,0 +1,126 @@
+package com.donte.financas.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.model.entity.ResumoMensal;
+import com.donte.financas.model.entity.ResumoMensalPendente;
+import com.donte.financas.model.repository.LancamentoArquivadoRepository;
+import com.donte.financas.model.repository.MesLancamento;
+import com.donte.financas.model.repository.PendenciaResumoMensal;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.service.ResumoMensalService;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+	private ResumoMensalRepository repository;
+	private ResumoMensalPendenteRepository pendenteRepository;
+	private LancamentoArquivadoRepository arquivadoRepository;
+	private TransactionTemplate transactionTemplate;
+	private int tamanhoLote;
+
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, ResumoMensalPendenteRepository pendenteRepository,
+			LancamentoArquivadoRepository arquivadoRepository, PlatformTransactionManager transactionManager,
+			@Value("${financas.resumo-mensal.tamanho-lote:500}") int tamanhoLote) {
+		this.repository = repository;
+		this.pendenteRepository = pendenteRepository;
+		this.arquivadoRepository = arquivadoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	@Transactional
+	public void marcarPendentes(Collection<MesLancamento> meses) {
+		LocalDateTime agora = LocalDateTime.now();
+		List<ResumoMensalPendente> pendentes = new LinkedHashSet<>(meses).stream()
+				.filter(mes -> mes.getUsuarioId() != null && mes.getAno() != null && mes.getMes() != null)
+				.map(mes -> ResumoMensalPendente.builder().usuarioId(mes.getUsuarioId()).ano(mes.getAno()).mes(mes.getMes())
+						.registradoEm(agora).build())
+				.collect(Collectors.toList());
+		if(!pendentes.isEmpty()) {
+			pendenteRepository.saveAll(pendentes);
+		}
+	}
+
+	@Override
+	public int processarPendentes() {
+		int processados = 0;
+		int lote;
+		// um lote incompleto indica que a fila acabou; o que chegar depois fica para a proxima execucao
+		do {
+			lote = transactionTemplate.execute(status -> processarLote());
+			processados += lote;
+		} while(lote == tamanhoLote);
+		return processados;
+	}
+
+	private int processarLote() {
+		List<ResumoMensalPendente> lote = pendenteRepository.obterLote(PageRequest.of(0, tamanhoLote));
+		// varias alteracoes no mesmo mes custam um unico recalculo, restrito aquele mes
+		Set<MesLancamento> meses = lote.stream()
+				.map(pendente -> new MesLancamento(pendente.getUsuarioId(), pendente.getAno(), pendente.getMes()))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		LocalDateTime agora = LocalDateTime.now();
+		for(MesLancamento mes : meses) {
+			repository.removerMes(mes.getUsuarioId(), mes.getAno(), mes.getMes());
+			repository.calcularMes(mes.getUsuarioId(), mes.getAno(), mes.getMes(), agora);
+			somarArquivados(mes, agora);
+		}
+		if(!lote.isEmpty()) {
+			// remove apenas o que foi lido: uma marcacao de id menor ainda nao confirmada
+			// quando o lote foi lido precisa continuar na fila
+			pendenteRepository.remover(lote.stream().map(ResumoMensalPendente::getId).collect(Collectors.toList()));
+		}
+		return lote.size();
+	}
+
+	// um mes de ano ja arquivado pode ter recebido um lancamento novo: o recalculo le apenas
+	// a tabela lancamento, entao os totais arquivados do mes sao somados de volta
+	private void somarArquivados(MesLancamento mes, LocalDateTime agora) {
+		for(TotalLancamento total : arquivadoRepository.obterTotaisDoMes(mes.getUsuarioId(), mes.getAno(), mes.getMes())) {
+			if(repository.somar(mes.getUsuarioId(), mes.getAno(), mes.getMes(), total.getTipo(), total.getStatus(),
+					total.getTotal(), total.getQuantidade()) == 0) {
+				repository.save(ResumoMensal.builder().usuarioId(mes.getUsuarioId()).ano(mes.getAno()).mes(mes.getMes())
+						.tipo(total.getTipo()).status(total.getStatus()).total(total.getTotal())
+						.quantidade(total.getQuantidade()).atualizadoEm(agora).build());
+			}
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public FluxoMensalDTO obterFluxoMensal(Long usuarioId, YearMonth inicio, YearMonth fim) {
+		Objects.requireNonNull(inicio);
+		Objects.requireNonNull(fim);
+		List<TotalLancamento> totais = repository.obterTotaisMensais(usuarioId,
+				inicio.getYear(), inicio.getMonthValue(), fim.getYear(), fim.getMonthValue());
+		PendenciaResumoMensal pendencia = pendenteRepository.obterPendencia(usuarioId,
+				inicio.getYear(), inicio.getMonthValue(), fim.getYear(), fim.getMonthValue());
+		long pendentes = pendencia.getQuantidade() == null ? 0 : pendencia.getQuantidade();
+		return FluxoMensalDTO.builder()
+				.totais(totais)
+				.atualizado(pendentes == 0)
+				.alteracoesPendentes(pendentes)
+				.pendenteDesde(pendencia.getMaisAntiga())
+				.build();
+	}
+
+}
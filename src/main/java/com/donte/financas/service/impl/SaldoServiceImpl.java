@@ -0,0 +1,133 @@
+package com.donte.financas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.model.entity.SaldoUsuario;
+import com.donte.financas.model.repository.DivergenciaSaldo;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoAnualRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.SituacaoLancamento;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.SaldoService;
+import com.donte.financas.service.VersaoDadosService;
+
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private ResumoAnualRepository resumoAnualRepository;
+	private UsuarioRepository usuarioRepository;
+	private VersaoDadosService versaoDadosService;
+	private TransactionTemplate transactionTemplate;
+
+	public SaldoServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository,
+			ResumoAnualRepository resumoAnualRepository, UsuarioRepository usuarioRepository, VersaoDadosService versaoDadosService,
+			PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.resumoAnualRepository = resumoAnualRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.versaoDadosService = versaoDadosService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long usuarioId) {
+		return repository.findById(usuarioId).map(SaldoUsuario::getSaldo).orElse(BigDecimal.ZERO);
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(SituacaoLancamento antes, SituacaoLancamento depois) {
+		registrarAlteracoes(antes == null ? Collections.emptyList() : Collections.singletonList(antes),
+				depois == null ? Collections.emptyList() : Collections.singletonList(depois));
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracoes(Collection<SituacaoLancamento> antes, Collection<SituacaoLancamento> depois) {
+		// o lancamento pode ter mudado de usuario, por isso a diferenca e calculada por usuario
+		Map<Long, BigDecimal> deltas = new HashMap<>();
+		for(SituacaoLancamento situacao : antes) {
+			if(situacao.getUsuarioId() != null) {
+				deltas.merge(situacao.getUsuarioId(), situacao.contribuicao().negate(), BigDecimal::add);
+			}
+		}
+		for(SituacaoLancamento situacao : depois) {
+			if(situacao.getUsuarioId() != null) {
+				deltas.merge(situacao.getUsuarioId(), situacao.contribuicao(), BigDecimal::add);
+			}
+		}
+		deltas.forEach((usuarioId, delta) -> {
+			if(delta.signum() != 0) {
+				somar(usuarioId, delta);
+			}
+		});
+	}
+
+	private void somar(Long usuarioId, BigDecimal delta) {
+		if(repository.somarAoSaldo(usuarioId, delta) == 0) {
+			// ainda sem registro de saldo: o bloqueio do usuario garante que apenas uma transacao o crie,
+			// as demais esperam e repetem a soma sobre o registro ja gravado
+			usuarioRepository.bloquear(usuarioId);
+			if(repository.somarAoSaldo(usuarioId, delta) == 0) {
+				repository.saveAndFlush(SaldoUsuario.builder().usuarioId(usuarioId).saldo(delta).build());
+			}
+		}
+	}
+
+	@Override
+	@Transactional
+	public Optional<DivergenciaSaldo> reconciliar(Long usuarioId) {
+		// o bloqueio da linha de saldo serializa a conferencia com as escritas que alteram o saldo
+		Optional<SaldoUsuario> registro = repository.obterParaAtualizacao(usuarioId);
+		BigDecimal registrado = registro.map(SaldoUsuario::getSaldo).orElse(BigDecimal.ZERO);
+		BigDecimal calculado = calcularSaldo(usuarioId);
+
+		if(calculado.compareTo(registrado) == 0) {
+			return Optional.empty();
+		}
+		SaldoUsuario saldo = registro.orElseGet(() -> SaldoUsuario.builder().usuarioId(usuarioId).build());
+		saldo.setSaldo(calculado);
+		repository.save(saldo);
+		versaoDadosService.registrarAlteracao(Collections.singletonList(usuarioId));
+		return Optional.of(new DivergenciaSaldo(usuarioId, registrado, calculado));
+	}
+
+	@Override
+	public List<DivergenciaSaldo> reconciliarTodos() {
+		List<DivergenciaSaldo> divergencias = new ArrayList<>();
+		for(Long usuarioId : usuarioRepository.listarIds()) {
+			// uma transacao por usuario para nao segurar bloqueios durante toda a execucao
+			transactionTemplate.execute(status -> reconciliar(usuarioId)).ifPresent(divergencias::add);
+		}
+		return divergencias;
+	}
+
+	// os lancamentos arquivados entram pelos totais anuais; o arquivamento bloqueia a mesma linha
+	// de saldo, entao nenhum lote e movido entre as duas consultas
+	private BigDecimal calcularSaldo(Long usuarioId) {
+		return Stream.concat(lancamentoRepository.obterTotaisPorTipoEStatus(usuarioId).stream(),
+				resumoAnualRepository.obterTotaisPorTipoEStatus(usuarioId).stream())
+				.map(TotalLancamento::contribuicao)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.donte.financas.service.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.donte.financas.api.dto.TokenDTO;
+import com.donte.financas.exception.ErroAutenticacaoException;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tokens JWT assinados com HMAC-SHA256. O conteudo traz apenas o id do usuario e a expiracao,
+ * entao a validacao e feita sem consultar o banco.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+	private static final String ALGORITMO = "HmacSHA256";
+	private static final String CABECALHO = codificar("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	// Mac nao e thread-safe; cada assinatura usa um clone deste prototipo, que ja vem inicializado com a chave
+	private final Mac prototipo;
+	private final long expiracaoMinutos;
+	private final Clock relogio;
+
+	// sem valor padrao: uma implantacao sem FINANCAS_TOKEN_SEGREDO nao pode subir aceitando tokens forjaveis
+	@Autowired
+	public TokenServiceImpl(@Value("${financas.token.segredo:}") String segredo,
+			@Value("${financas.token.expiracao-minutos:60}") long expiracaoMinutos) {
+		this(segredo, expiracaoMinutos, Clock.systemUTC());
+	}
+
+	public TokenServiceImpl(String segredo, long expiracaoMinutos, Clock relogio) {
+		if(segredo == null || segredo.trim().isEmpty()) {
+			throw new IllegalStateException("Informe o segredo do token em financas.token.segredo (variavel FINANCAS_TOKEN_SEGREDO)");
+		}
+		byte[] chave = segredo.getBytes(StandardCharsets.UTF_8);
+		if(chave.length < 32) {
+			throw new IllegalStateException("O segredo do token deve ter pelo menos 32 bytes");
+		}
+		try {
+			this.prototipo = Mac.getInstance(ALGORITMO);
+			this.prototipo.init(new SecretKeySpec(chave, ALGORITMO));
+		}catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+		this.expiracaoMinutos = expiracaoMinutos;
+		this.relogio = relogio;
+	}
+
+	@Override
+	public TokenDTO gerar(Usuario usuario) {
+		Instant agora = relogio.instant().truncatedTo(ChronoUnit.SECONDS);
+		Instant expiracao = agora.plus(expiracaoMinutos, ChronoUnit.MINUTES);
+		String conteudo = "{\"sub\":\"" + usuario.getId() + "\",\"iat\":" + agora.getEpochSecond()
+				+ ",\"exp\":" + expiracao.getEpochSecond() + "}";
+		String semAssinatura = CABECALHO + "." + codificar(conteudo.getBytes(StandardCharsets.UTF_8));
+		String token = semAssinatura + "." + codificar(assinar(semAssinatura));
+
+		return TokenDTO.builder()
+				.id(usuario.getId())
+				.nome(usuario.getNome())
+				.email(usuario.getEmail())
+				.token(token)
+				.expiracao(expiracao)
+				.build();
+	}
+
+	@Override
+	public Long validar(String token) {
+		if(token == null) {
+			throw new ErroAutenticacaoException("Token não informado");
+		}
+		int primeiroPonto = token.indexOf('.');
+		int ultimoPonto = token.lastIndexOf('.');
+		if(primeiroPonto < 0 || primeiroPonto == ultimoPonto || !token.substring(0, primeiroPonto).equals(CABECALHO)) {
+			throw new ErroAutenticacaoException("Token inválido");
+		}
+
+		byte[] assinatura;
+		JsonNode conteudo;
+		try {
+			assinatura = Base64.getUrlDecoder().decode(token.substring(ultimoPonto + 1));
+			if(!MessageDigest.isEqual(assinatura, assinar(token.substring(0, ultimoPonto)))) {
+				throw new ErroAutenticacaoException("Token inválido");
+			}
+			conteudo = mapper.readTree(Base64.getUrlDecoder().decode(token.substring(primeiroPonto + 1, ultimoPonto)));
+		}catch (IllegalArgumentException | IOException e) {
+			throw new ErroAutenticacaoException("Token inválido");
+		}
+
+		if(!conteudo.path("exp").canConvertToLong() || !conteudo.path("sub").isTextual()) {
+			throw new ErroAutenticacaoException("Token inválido");
+		}
+		if(relogio.instant().getEpochSecond() >= conteudo.get("exp").asLong()) {
+			throw new ErroAutenticacaoException("Token expirado");
+		}
+		try {
+			return Long.valueOf(conteudo.get("sub").asText());
+		}catch (NumberFormatException e) {
+			throw new ErroAutenticacaoException("Token inválido");
+		}
+	}
+
+	private byte[] assinar(String valor) {
+		try {
+			Mac mac = (Mac) prototipo.clone();
+			return mac.doFinal(valor.getBytes(StandardCharsets.US_ASCII));
+		}catch (CloneNotSupportedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String codificar(byte[] valor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor);
+	}
+
+}
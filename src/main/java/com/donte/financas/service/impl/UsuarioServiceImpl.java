@@ -1,24 +1,49 @@
 package com.donte.financas.service.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.donte.financas.api.dto.EstatisticasCacheDTO;
 import com.donte.financas.exception.ErroAutenticacaoException;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.model.repository.UsuarioRepository;
 import com.donte.financas.service.UsuarioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService{
 	
 	private UsuarioRepository repository;
+	// apenas usuarios encontrados sao guardados: um id inexistente sempre consulta o banco
+	private Cache<Long, Usuario> cache;
+	private PasswordEncoder passwordEncoder;
 
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository,
+			@Value("${financas.cache.usuario.tamanho-maximo:10000}") long tamanhoMaximo,
+			@Value("${financas.cache.usuario.expiracao-minutos:10}") long expiracaoMinutos,
+			@Value("${financas.senha.custo-bcrypt:10}") int custoBcrypt) {
 		this.repository = repository;
+		this.passwordEncoder = new BCryptPasswordEncoder(custoBcrypt);
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(expiracaoMinutos, TimeUnit.MINUTES)
+				.recordStats()
+				.build();
 	}
 
 	@Override
@@ -27,7 +52,7 @@ public class UsuarioServiceImpl implements UsuarioService{
 		if(!optUsuario.isPresent()) {
 			throw new ErroAutenticacaoException("Usuario nao encontrado.");
 		}
-		if(!optUsuario.get().getSenha().equals(senha)) {
+		if(senha == null || !passwordEncoder.matches(senha, optUsuario.get().getSenha())) {
 			throw new ErroAutenticacaoException("Senha invalida.");
 		}
 		return optUsuario.get();
@@ -37,7 +62,12 @@ public class UsuarioServiceImpl implements UsuarioService{
 	@Transactional
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
-		return repository.save(usuario);
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+		}
+		Usuario salvo = repository.save(usuario);
+		cache.invalidate(salvo.getId());
+		return salvo;
 	}
 
 	@Override
@@ -49,7 +79,25 @@ public class UsuarioServiceImpl implements UsuarioService{
 
 	@Override
 	public Optional<Usuario> obterPorId(Long id) {
-		return repository.findById(id);
+		if(id == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(cache.get(id, chave -> repository.findById(chave).orElse(null)));
+	}
+
+	@Override
+	public List<Usuario> obterPorIds(Collection<Long> ids) {
+		Map<Long, Usuario> encontrados = cache.getAllPresent(ids);
+		List<Usuario> usuarios = new ArrayList<>(encontrados.values());
+		Set<Long> faltantes = new HashSet<>(ids);
+		faltantes.removeAll(encontrados.keySet());
+		if(!faltantes.isEmpty()) {
+			for(Usuario usuario : repository.findAllById(faltantes)) {
+				cache.put(usuario.getId(), usuario);
+				usuarios.add(usuario);
+			}
+		}
+		return usuarios;
 	}
 
 	@Override
@@ -57,4 +105,18 @@ public class UsuarioServiceImpl implements UsuarioService{
 		return repository.findAll();
 	}
 
+	@Override
+	public EstatisticasCacheDTO obterEstatisticasCache() {
+		// aplica as remocoes pendentes para o tamanho refletir os limites configurados
+		cache.cleanUp();
+		CacheStats estatisticas = cache.stats();
+		return EstatisticasCacheDTO.builder()
+				.tamanho(cache.estimatedSize())
+				.acertos(estatisticas.hitCount())
+				.faltas(estatisticas.missCount())
+				.taxaAcerto(estatisticas.hitRate())
+				.remocoes(estatisticas.evictionCount())
+				.build();
+	}
+
 }
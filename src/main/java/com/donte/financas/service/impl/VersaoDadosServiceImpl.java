@@ -0,0 +1,74 @@
+package com.donte.financas.service.impl;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.donte.financas.service.VersaoDados;
+import com.donte.financas.service.VersaoDadosService;
+
+/**
+ * Contador de alteracoes por usuario mantido em memoria. O inicio da instancia faz parte da etag,
+ * entao as versoes emitidas antes de um reinicio deixam de valer. Todas as escritas precisam passar
+ * por esta instancia: com mais de uma instancia atendendo a API, uma delas nao veria as alteracoes
+ * feitas pelas outras.
+ */
+@Service
+public class VersaoDadosServiceImpl implements VersaoDadosService {
+
+	private final String inicio = Long.toString(System.currentTimeMillis(), 36);
+	private final long instanteInicio = System.currentTimeMillis();
+	private final ConcurrentMap<Long, Contador> contadores = new ConcurrentHashMap<>();
+
+	@Override
+	public void registrarAlteracao(Collection<Long> usuarioIds) {
+		Set<Long> ids = usuarioIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+		if(ids.isEmpty()) {
+			return;
+		}
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			incrementar(ids);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				incrementar(ids);
+			}
+		});
+	}
+
+	private void incrementar(Set<Long> ids) {
+		long agora = System.currentTimeMillis();
+		for(Long id : ids) {
+			contadores.merge(id, new Contador(1, agora),
+					(atual, novo) -> new Contador(atual.valor + 1, Math.max(atual.instante, agora)));
+		}
+	}
+
+	@Override
+	public VersaoDados obterVersao(Long usuarioId) {
+		Contador contador = contadores.getOrDefault(usuarioId, new Contador(0, instanteInicio));
+		return new VersaoDados("W/\"" + usuarioId + "-" + inicio + "-" + contador.valor + "\"", contador.instante);
+	}
+
+	private static class Contador {
+
+		final long valor;
+		final long instante;
+
+		Contador(long valor, long instante) {
+			this.valor = valor;
+			this.instante = instante;
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.donte.financas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Extrato em CSV com as colunas {@code data;descricao;valor}, separadas por ponto e virgula ou virgula.
+ * A data pode estar em dd/MM/yyyy ou yyyy-MM-dd e o valor em formato brasileiro (1.234,56) ou com ponto decimal.
+ * Um cabecalho na primeira linha e ignorado.
+ */
+public class LeitorCsv implements LeitorExtrato {
+
+	private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+	private final BufferedReader reader;
+	private char separador;
+	private long numero;
+
+	public LeitorCsv(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String linha;
+		do {
+			linha = reader.readLine();
+			if(linha == null) {
+				return null;
+			}
+			numero++;
+		} while(StringUtils.isBlank(linha) || ehCabecalho(linha));
+
+		LinhaExtrato.LinhaExtratoBuilder resultado = LinhaExtrato.builder().numero(numero).original(linha);
+		List<String> campos = dividir(linha);
+		if(campos.size() < 3) {
+			return resultado.erro("Linha deve ter data, descrição e valor").build();
+		}
+		try {
+			return resultado
+					.data(converterData(campos.get(0).trim()))
+					.descricao(campos.get(1).trim())
+					.valor(converterValor(campos.get(2).trim()))
+					.build();
+		}catch (DateTimeParseException e) {
+			return resultado.erro("Data inválida: " + campos.get(0)).build();
+		}catch (NumberFormatException e) {
+			return resultado.erro("Valor inválido: " + campos.get(2)).build();
+		}
+	}
+
+	private boolean ehCabecalho(String linha) {
+		// so a primeira linha preenchida define o separador e pode ser cabecalho
+		if(separador != 0) {
+			return false;
+		}
+		separador = linha.indexOf(';') >= 0 ? ';' : ',';
+		String primeiro = dividir(linha).get(0).trim();
+		return !primeiro.isEmpty() && !Character.isDigit(primeiro.charAt(0));
+	}
+
+	private List<String> dividir(String linha) {
+		List<String> campos = new ArrayList<>(3);
+		StringBuilder atual = new StringBuilder();
+		boolean entreAspas = false;
+		for(int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if(c == '"') {
+				if(entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+					atual.append('"');
+					i++;
+				}else {
+					entreAspas = !entreAspas;
+				}
+			}else if(c == separador && !entreAspas) {
+				campos.add(atual.toString());
+				atual.setLength(0);
+			}else {
+				atual.append(c);
+			}
+		}
+		campos.add(atual.toString());
+		return campos;
+	}
+
+	static LocalDate converterData(String valor) {
+		return valor.indexOf('/') >= 0 ? LocalDate.parse(valor, DATA_BR) : LocalDate.parse(valor);
+	}
+
+	static BigDecimal converterValor(String valor) {
+		String normalizado = valor.replace("R$", "").replace(" ", "");
+		if(normalizado.indexOf(',') >= 0) {
+			normalizado = normalizado.replace(".", "").replace(',', '.');
+		}
+		return new BigDecimal(normalizado);
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.donte.financas.service.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Le um extrato bancario transacao a transacao, sem carregar o arquivo inteiro em memoria.
+ */
+public interface LeitorExtrato extends Closeable {
+
+	/**
+	 * @return a proxima transacao ou {@code null} ao fim do arquivo
+	 */
+	LinhaExtrato proxima() throws IOException;
+
+}
@@ -0,0 +1,187 @@
+package com.donte.financas.service.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Le as transacoes ({@code <STMTTRN>}) de um extrato OFX, tanto no formato SGML (1.x, tags sem fechamento)
+ * quanto XML (2.x). O arquivo e percorrido tag a tag; so a transacao corrente fica em memoria.
+ */
+public class LeitorOfx implements LeitorExtrato {
+
+	private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.ofPattern("uuuuMMdd").withResolverStyle(ResolverStyle.STRICT);
+	private static final int TAMANHO_CABECALHO = 4096;
+	private static final Pattern ENCODING_SGML = Pattern.compile("^\\s*ENCODING\\s*:\\s*(\\S+)", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+	private static final Pattern CHARSET_SGML = Pattern.compile("^\\s*CHARSET\\s*:\\s*(\\S+)", Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+	private static final Pattern ENCODING_XML = Pattern.compile("<\\?xml[^>]*encoding\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+	private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+	private final BufferedReader reader;
+	private long numero;
+	private int proximoCaractere = -2;
+
+	public LeitorOfx(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+
+	/**
+	 * Charset declarado no inicio do arquivo: {@code ENCODING}/{@code CHARSET} do cabecalho SGML (1.x)
+	 * ou o {@code encoding} da declaracao XML (2.x). Sem declaracao reconhecida, UTF-8.
+	 * No 1.x, {@code ENCODING:USASCII} com {@code CHARSET:1252} (comum nos bancos brasileiros) ou
+	 * {@code CHARSET:NONE} e lido como windows-1252, que nao falha com os acentos que os bancos enviam mesmo assim.
+	 */
+	public static Charset charsetDoCabecalho(InputStream entrada) throws IOException {
+		byte[] inicio = new byte[TAMANHO_CABECALHO];
+		int lidos = 0;
+		int n;
+		while(lidos < inicio.length && (n = entrada.read(inicio, lidos, inicio.length - lidos)) != -1) {
+			lidos += n;
+		}
+		String cabecalho = new String(inicio, 0, lidos, StandardCharsets.ISO_8859_1);
+		int fimCabecalho = StringUtils.indexOfIgnoreCase(cabecalho, "<OFX");
+		if(fimCabecalho >= 0) {
+			cabecalho = cabecalho.substring(0, fimCabecalho);
+		}
+
+		Matcher xml = ENCODING_XML.matcher(cabecalho);
+		if(xml.find()) {
+			return charset(xml.group(1), StandardCharsets.UTF_8);
+		}
+		Matcher encoding = ENCODING_SGML.matcher(cabecalho);
+		boolean sgml = encoding.find();
+		if(sgml && StringUtils.equalsAnyIgnoreCase(encoding.group(1), "UTF-8", "UTF8", "UNICODE")) {
+			return StandardCharsets.UTF_8;
+		}
+		Matcher charset = CHARSET_SGML.matcher(cabecalho);
+		if(charset.find()) {
+			String nome = charset.group(1);
+			if(StringUtils.isNumeric(nome)) {
+				return charset("windows-" + nome, WINDOWS_1252);
+			}
+			if("NONE".equalsIgnoreCase(nome)) {
+				return WINDOWS_1252;
+			}
+			return charset(nome.startsWith("8859") ? "ISO-" + nome : nome, WINDOWS_1252);
+		}
+		return sgml ? WINDOWS_1252 : StandardCharsets.UTF_8;
+	}
+
+	private static Charset charset(String nome, Charset padrao) {
+		try {
+			return Charset.forName(nome);
+		}catch (IllegalArgumentException e) {
+			return padrao;
+		}
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String tag;
+		while((tag = proximaTag()) != null) {
+			if("STMTTRN".equals(tag)) {
+				return lerTransacao();
+			}
+			lerTexto();
+		}
+		return null;
+	}
+
+	private LinhaExtrato lerTransacao() throws IOException {
+		numero++;
+		String data = null;
+		String valor = null;
+		String memo = null;
+		String nome = null;
+		StringBuilder original = new StringBuilder();
+
+		String tag;
+		while((tag = proximaTag()) != null && !"/STMTTRN".equals(tag)) {
+			String texto = lerTexto();
+			if(!tag.startsWith("/")) {
+				original.append('<').append(tag).append('>').append(texto);
+			}
+			switch(tag) {
+			case "DTPOSTED": data = texto; break;
+			case "TRNAMT": valor = texto; break;
+			case "MEMO": memo = texto; break;
+			case "NAME": nome = texto; break;
+			default: break;
+			}
+		}
+
+		LinhaExtrato.LinhaExtratoBuilder resultado = LinhaExtrato.builder().numero(numero).original(original.toString())
+				.descricao(StringUtils.isNotBlank(memo) ? memo : nome);
+		try {
+			resultado.data(LocalDate.parse(StringUtils.left(data, 8), DATA_OFX));
+		}catch (DateTimeParseException | NullPointerException e) {
+			return resultado.erro("Data inválida: " + data).build();
+		}
+		try {
+			resultado.valor(new BigDecimal(valor.replace(',', '.')));
+		}catch (NumberFormatException | NullPointerException e) {
+			return resultado.erro("Valor inválido: " + valor).build();
+		}
+		return resultado.build();
+	}
+
+	/**
+	 * Avanca ate o proximo {@code <} e devolve o nome da tag em maiusculas, ou {@code null} no fim do arquivo.
+	 */
+	private String proximaTag() throws IOException {
+		int c;
+		while((c = ler()) != -1 && c != '<') {
+			// ignora cabecalho e texto fora de tags
+		}
+		if(c == -1) {
+			return null;
+		}
+		StringBuilder tag = new StringBuilder();
+		while((c = ler()) != -1 && c != '>') {
+			tag.append((char) c);
+		}
+		return tag.toString().trim().toUpperCase();
+	}
+
+	/**
+	 * Le o texto ate a proxima tag, sem consumi-la.
+	 */
+	private String lerTexto() throws IOException {
+		StringBuilder texto = new StringBuilder();
+		int c;
+		while((c = ler()) != -1 && c != '<') {
+			texto.append((char) c);
+		}
+		if(c == '<') {
+			proximoCaractere = c;
+		}
+		return texto.toString().trim();
+	}
+
+	private int ler() throws IOException {
+		if(proximoCaractere != -2) {
+			int c = proximoCaractere;
+			proximoCaractere = -2;
+			return c;
+		}
+		return reader.read();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.donte.financas.service.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uma transacao lida do extrato. Valores negativos sao saidas (despesas).
+ * Quando a linha nao pode ser interpretada, {@code erro} traz o motivo e os demais campos podem ser nulos.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinhaExtrato {
+
+	private long numero;
+	private String original;
+	private LocalDate data;
+	private String descricao;
+	private BigDecimal valor;
+	private String erro;
+
+}
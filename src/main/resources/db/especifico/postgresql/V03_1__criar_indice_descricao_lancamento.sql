@@ -0,0 +1,4 @@
+-- busca por descricao usa lower(descricao) like '%termo%', que so um indice de trigramas atende
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_lancamento_descricao_trgm ON financas.lancamento USING gin (lower(descricao) gin_trgm_ops);
@@ -0,0 +1,2 @@
+-- o Hibernate reserva ids em blocos de 50 (otimizador pooled) para poder agrupar os inserts
+ALTER SEQUENCE financas.lancamento_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- converte as senhas ainda em texto puro para BCrypt ($2a$, compativel com o BCryptPasswordEncoder)
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+UPDATE financas.usuario SET senha = crypt(senha, gen_salt('bf', 10))
+ WHERE senha IS NOT NULL AND senha NOT LIKE '$2_$%';
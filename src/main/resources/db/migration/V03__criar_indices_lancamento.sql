@@ -0,0 +1,5 @@
+-- consultas do usuario por periodo (buscar e paginacao por cursor em ano, mes, id)
+CREATE INDEX idx_lancamento_usuario_ano_mes ON financas.lancamento (usuarioid, ano, mes, id);
+
+-- totais por tipo e status (saldo); valor no indice permite somar sem ler a tabela
+CREATE INDEX idx_lancamento_usuario_tipo_status ON financas.lancamento (usuarioid, tipo, status, valor);
@@ -0,0 +1,10 @@
+CREATE TABLE financas.saldo_usuario (
+  usuarioid bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+  saldo numeric(16,2) NOT NULL default 0
+);
+
+INSERT INTO financas.saldo_usuario (usuarioid, saldo)
+SELECT u.id, COALESCE(SUM(CASE WHEN l.tipo = 'RECEITA' THEN l.valor ELSE -l.valor END), 0)
+  FROM financas.usuario u
+  LEFT JOIN financas.lancamento l ON l.usuarioid = u.id AND l.status = 'EFETIVADO'
+ GROUP BY u.id;
@@ -0,0 +1,2 @@
+-- as senhas passam a ser gravadas como hash BCrypt (60 caracteres)
+ALTER TABLE financas.usuario ALTER COLUMN senha TYPE character varying(100);
@@ -0,0 +1,2 @@
+-- versao usada pelo controle de concorrencia otimista (@Version)
+ALTER TABLE financas.lancamento ADD COLUMN versao bigint NOT NULL DEFAULT 0;
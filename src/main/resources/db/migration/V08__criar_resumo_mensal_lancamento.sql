@@ -0,0 +1,29 @@
+-- totais mensais pre-agregados por tipo e status, recalculados em segundo plano
+CREATE TABLE financas.lancamento_resumo_mensal (
+  usuarioid bigint NOT NULL REFERENCES financas.usuario (id),
+  ano integer NOT NULL,
+  mes integer NOT NULL,
+  tipo character varying(20) NOT NULL,
+  status character varying(20) NOT NULL,
+  total numeric(16,2) NOT NULL,
+  quantidade bigint NOT NULL,
+  atualizado timestamp NOT NULL,
+  PRIMARY KEY (usuarioid, ano, mes, tipo, status)
+);
+
+-- meses alterados que ainda nao foram recalculados; as escritas apenas inserem aqui,
+-- sem disputar bloqueio sobre as linhas do resumo
+CREATE TABLE financas.lancamento_resumo_pendente (
+  id bigserial NOT NULL PRIMARY KEY,
+  usuarioid bigint NOT NULL,
+  ano integer NOT NULL,
+  mes integer NOT NULL,
+  registrado timestamp NOT NULL
+);
+
+CREATE INDEX idx_resumo_pendente_usuario_ano_mes ON financas.lancamento_resumo_pendente (usuarioid, ano, mes);
+
+INSERT INTO financas.lancamento_resumo_mensal (usuarioid, ano, mes, tipo, status, total, quantidade, atualizado)
+SELECT l.usuarioid, l.ano, l.mes, l.tipo, l.status, SUM(l.valor), COUNT(*), now()
+  FROM financas.lancamento l
+ GROUP BY l.usuarioid, l.ano, l.mes, l.tipo, l.status;
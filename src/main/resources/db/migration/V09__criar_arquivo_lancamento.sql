@@ -0,0 +1,28 @@
+-- lancamentos de anos encerrados, movidos pelo ArquivamentoJob; mantem o id original
+CREATE TABLE financas.lancamento_arquivo (
+  id bigint NOT NULL PRIMARY KEY,
+  descricao character varying(100) NOT NULL,
+  mes integer NOT NULL,
+  ano integer NOT NULL,
+  valor numeric(16,2) NOT NULL,
+  tipo character varying(20) NOT NULL,
+  status character varying(20) NOT NULL,
+  usuarioid bigint REFERENCES financas.usuario (id) NOT NULL,
+  criado date,
+  versao bigint NOT NULL,
+  arquivado timestamp NOT NULL
+);
+
+CREATE INDEX idx_lancamento_arquivo_usuario_ano_mes ON financas.lancamento_arquivo (usuarioid, ano, mes, id);
+
+-- totais por ano dos lancamentos ja arquivados: o saldo recalculado soma estes totais aos da tabela lancamento
+CREATE TABLE financas.lancamento_resumo_anual (
+  usuarioid bigint NOT NULL REFERENCES financas.usuario (id),
+  ano integer NOT NULL,
+  tipo character varying(20) NOT NULL,
+  status character varying(20) NOT NULL,
+  total numeric(16,2) NOT NULL,
+  quantidade bigint NOT NULL,
+  atualizado timestamp NOT NULL,
+  PRIMARY KEY (usuarioid, ano, tipo, status)
+);
@@ -0,0 +1,60 @@
+package com.donte.financas.carga;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Teste de carga da API com a aplicacao completa no H2 em memoria, sem nenhum servico externo.
+ * Nao roda com os testes; execute com o perfil {@code carga}:
+ * mvn test -Pcarga -Dtest=ApiCarga -Dcarga.usuarios=50 -Dcarga.lancamentos=1000 -Dcarga.taxa=400
+ * Parametros (propriedades de sistema): carga.usuarios, carga.lancamentos (por usuario), carga.clientes,
+ * carga.taxa (requisicoes por segundo somando todos os clientes), carga.aquecimento e carga.duracao
+ * (segundos) e carga.saida (diretorio dos histogramas, padrao target/carga).
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ApiCarga {
+
+	static final int USUARIOS = Integer.getInteger("carga.usuarios", 20);
+	static final int LANCAMENTOS_POR_USUARIO = Integer.getInteger("carga.lancamentos", 500);
+	static final int CLIENTES = Integer.getInteger("carga.clientes", 8);
+	static final int TAXA = Integer.getInteger("carga.taxa", 200);
+	static final int AQUECIMENTO = Integer.getInteger("carga.aquecimento", 10);
+	static final int DURACAO = Integer.getInteger("carga.duracao", 30);
+	static final Path SAIDA = Paths.get(System.getProperty("carga.saida", "target/carga"));
+
+	@LocalServerPort
+	int porta;
+
+	@Autowired
+	ApplicationContext contexto;
+
+	@Test
+	public void deveAtenderAMisturaDeOperacoesNaTaxaInformada() throws Exception {
+		CenarioCarga cenario = new CenarioCarga(contexto, porta);
+		cenario.popular(USUARIOS, LANCAMENTOS_POR_USUARIO);
+
+		GeradorCarga gerador = new GeradorCarga();
+		gerador.executar(CLIENTES, TAXA, AQUECIMENTO, DURACAO, SAIDA, cenario.requisicoes());
+
+		System.out.printf("%nCarga: %d usuarios x %d lancamentos, %d clientes, %d req/s, %d s (+%d s de aquecimento)%n%s"
+				+ "Histogramas em %s%n", USUARIOS, LANCAMENTOS_POR_USUARIO, CLIENTES, TAXA, DURACAO, AQUECIMENTO,
+				gerador.relatorio(DURACAO, SAIDA), SAIDA.toAbsolutePath());
+
+		for(OperacaoCarga operacao : OperacaoCarga.values()) {
+			Assertions.assertThat(gerador.total(operacao).getTotalCount()).as(operacao.name()).isPositive();
+			// acima de 1% de erros o resultado nao representa a API funcionando
+			Assertions.assertThat(gerador.erros(operacao)).as(operacao.name()).isLessThanOrEqualTo(gerador.total(operacao).getTotalCount() / 100);
+		}
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.donte.financas.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.TokenService;
+
+/**
+ * Massa de dados e requisicoes HTTP da mistura de operacoes, sobre uma aplicacao ja iniciada.
+ */
+class CenarioCarga {
+
+	static final int ANO_INICIAL = 2019;
+	static final int MESES = 36;
+
+	private final int porta;
+	private final UsuarioRepository usuarioRepository;
+	private final LancamentoService lancamentoService;
+	private final TokenService tokenService;
+
+	private final List<Usuario> usuarios = new ArrayList<>();
+	private final List<String> tokens = new ArrayList<>();
+	private final List<List<Long>> lancamentos = new ArrayList<>();
+
+	CenarioCarga(ApplicationContext contexto, int porta) {
+		this.porta = porta;
+		this.usuarioRepository = contexto.getBean(UsuarioRepository.class);
+		this.lancamentoService = contexto.getBean(LancamentoService.class);
+		this.tokenService = contexto.getBean(TokenService.class);
+	}
+
+	void popular(int quantidadeUsuarios, int lancamentosPorUsuario) {
+		// a mesma senha para todos: o custo do BCrypt e pago uma unica vez
+		String senha = new BCryptPasswordEncoder().encode("senha");
+		Random random = new Random(42);
+		for(int u = 0; u < quantidadeUsuarios; u++) {
+			Usuario usuario = usuarioRepository.save(Usuario.builder().nome("carga " + u).email("carga" + u + "@email.com").senha(senha).build());
+			List<Lancamento> lote = new ArrayList<>();
+			for(int i = 0; i < lancamentosPorUsuario; i++) {
+				lote.add(novoLancamento(random, usuario));
+			}
+			List<Long> ids = new ArrayList<>();
+			lancamentoService.salvarLote(lote).forEach(lancamento -> ids.add(lancamento.getId()));
+			usuarios.add(usuario);
+			tokens.add(tokenService.gerar(usuario).getToken());
+			lancamentos.add(ids);
+		}
+	}
+
+	Map<OperacaoCarga, GeradorCarga.Requisicao> requisicoes() {
+		Map<OperacaoCarga, GeradorCarga.Requisicao> requisicoes = new EnumMap<>(OperacaoCarga.class);
+		requisicoes.put(OperacaoCarga.BUSCA, () -> {
+			int u = sortearUsuario();
+			int ano = ANO_INICIAL + ThreadLocalRandom.current().nextInt(MESES / 12);
+			return enviar("GET", "/api/lancamentos?usuario=" + usuarios.get(u).getId() + "&ano=" + ano + "&tamanho=50", null, tokens.get(u));
+		});
+		requisicoes.put(OperacaoCarga.SALDO, () -> {
+			int u = sortearUsuario();
+			return enviar("GET", "/api/usuarios/" + usuarios.get(u).getId() + "/saldo", null, tokens.get(u));
+		});
+		requisicoes.put(OperacaoCarga.INCLUSAO, () -> {
+			int u = sortearUsuario();
+			Lancamento lancamento = novoLancamento(ThreadLocalRandom.current(), usuarios.get(u));
+			String corpo = String.format(Locale.ROOT,
+					"{\"descricao\":\"%s\",\"mes\":%d,\"ano\":%d,\"valor\":%s,\"usuario\":%d,\"tipo\":\"%s\"}",
+					lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(), lancamento.getValor().toPlainString(),
+					usuarios.get(u).getId(), lancamento.getTipo().name());
+			return enviar("POST", "/api/lancamentos", corpo, tokens.get(u));
+		});
+		requisicoes.put(OperacaoCarga.STATUS, () -> {
+			int u = sortearUsuario();
+			List<Long> ids = lancamentos.get(u);
+			Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+			StatusLancamento[] status = StatusLancamento.values();
+			String corpo = "{\"status\":\"" + status[ThreadLocalRandom.current().nextInt(status.length)].name() + "\"}";
+			return enviar("PUT", "/api/lancamentos/" + id + "/status", corpo, tokens.get(u));
+		});
+		return requisicoes;
+	}
+
+	private static Lancamento novoLancamento(Random random, Usuario usuario) {
+		int mes = random.nextInt(MESES);
+		return Lancamento.builder()
+				.descricao("lancamento de carga " + random.nextInt(1000))
+				.ano(ANO_INICIAL + mes / 12)
+				.mes(mes % 12 + 1)
+				.valor(BigDecimal.valueOf(1 + random.nextInt(100_000), 2))
+				.tipo(random.nextBoolean() ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+				.usuario(usuario)
+				.build();
+	}
+
+	private int sortearUsuario() {
+		return ThreadLocalRandom.current().nextInt(usuarios.size());
+	}
+
+	private int enviar(String metodo, String caminho, String corpo, String token) throws IOException {
+		HttpURLConnection conexao = (HttpURLConnection) new URL("http://localhost:" + porta + caminho).openConnection();
+		conexao.setRequestMethod(metodo);
+		conexao.setRequestProperty("Authorization", "Bearer " + token);
+		conexao.setRequestProperty("Accept", "application/json");
+		if(corpo != null) {
+			conexao.setDoOutput(true);
+			conexao.setRequestProperty("Content-Type", "application/json");
+			try(OutputStream saida = conexao.getOutputStream()) {
+				saida.write(corpo.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		int status = conexao.getResponseCode();
+		// a resposta e lida ate o fim para a conexao voltar ao pool de keep-alive
+		try(InputStream entrada = status < 400 ? conexao.getInputStream() : conexao.getErrorStream()) {
+			if(entrada != null) {
+				byte[] buffer = new byte[8192];
+				while(entrada.read(buffer) != -1) {
+					// descarta
+				}
+			}
+		}
+		return status;
+	}
+
+}
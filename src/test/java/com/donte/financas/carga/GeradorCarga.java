@@ -0,0 +1,174 @@
+package com.donte.financas.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Dispara as operacoes em taxa fixa (modelo aberto) a partir de varios clientes e registra a latencia
+ * de cada operacao em histogramas HdrHistogram. A latencia e medida a partir do instante em que a
+ * requisicao deveria ter saido, e nao de quando saiu: se o servidor atrasa, as requisicoes seguintes
+ * acumulam esse atraso (correcao da omissao coordenada).
+ */
+class GeradorCarga {
+
+	/**
+	 * Uma requisicao HTTP da carga; devolve o status da resposta.
+	 */
+	interface Requisicao {
+		int enviar() throws IOException;
+	}
+
+	static final long MAIOR_LATENCIA_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	private final Map<OperacaoCarga, Recorder> gravadores = new EnumMap<>(OperacaoCarga.class);
+	private final Map<OperacaoCarga, Histogram> totais = new EnumMap<>(OperacaoCarga.class);
+	private final Map<OperacaoCarga, AtomicLong> erros = new EnumMap<>(OperacaoCarga.class);
+	private final Map<OperacaoCarga, HistogramLogWriter> logs = new EnumMap<>(OperacaoCarga.class);
+	private final Map<OperacaoCarga, PrintStream> arquivosLog = new EnumMap<>(OperacaoCarga.class);
+
+	GeradorCarga() {
+		for(OperacaoCarga operacao : OperacaoCarga.values()) {
+			gravadores.put(operacao, new Recorder(MAIOR_LATENCIA_NANOS, 3));
+			totais.put(operacao, new Histogram(MAIOR_LATENCIA_NANOS, 3));
+			erros.put(operacao, new AtomicLong());
+		}
+	}
+
+	/**
+	 * Executa a carga por {@code aquecimento + duracao} segundos, descartando o aquecimento,
+	 * e grava um .hlog por operacao com os intervalos de um segundo.
+	 */
+	void executar(int clientes, int taxaPorSegundo, int aquecimento, int duracao, Path saida,
+			Map<OperacaoCarga, Requisicao> requisicoes) throws Exception {
+		Files.createDirectories(saida);
+		for(OperacaoCarga operacao : OperacaoCarga.values()) {
+			PrintStream arquivo = new PrintStream(saida.resolve(operacao.arquivo() + ".hlog").toFile(), "UTF-8");
+			HistogramLogWriter log = new HistogramLogWriter(arquivo);
+			log.outputLogFormatVersion();
+			log.outputStartTime(System.currentTimeMillis());
+			log.outputLegend();
+			arquivosLog.put(operacao, arquivo);
+			logs.put(operacao, log);
+		}
+
+		// cada cliente envia na sua fracao da taxa, com os envios intercalados entre os clientes
+		long intervalo = TimeUnit.SECONDS.toNanos(1) * clientes / taxaPorSegundo;
+		long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+		long inicioMedicao = inicio + TimeUnit.SECONDS.toNanos(aquecimento);
+		long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(duracao);
+
+		ExecutorService executor = Executors.newFixedThreadPool(clientes);
+		try {
+			List<Future<?>> resultados = new ArrayList<>();
+			for(int c = 0; c < clientes; c++) {
+				long primeiro = inicio + intervalo * c / clientes;
+				resultados.add(executor.submit(() -> cliente(primeiro, intervalo, inicioMedicao, fim, requisicoes)));
+			}
+			esperarAte(inicioMedicao);
+			descartarIntervalo();
+			while(System.nanoTime() < fim) {
+				esperarAte(Math.min(System.nanoTime() + TimeUnit.SECONDS.toNanos(1), fim));
+				registrarIntervalo();
+			}
+			for(Future<?> resultado : resultados) {
+				resultado.get(MAIOR_LATENCIA_NANOS, TimeUnit.NANOSECONDS);
+			}
+			registrarIntervalo();
+		}finally {
+			executor.shutdownNow();
+			arquivosLog.values().forEach(PrintStream::close);
+		}
+	}
+
+	private Void cliente(long primeiro, long intervalo, long inicioMedicao, long fim, Map<OperacaoCarga, Requisicao> requisicoes) {
+		for(long previsto = primeiro; previsto < fim; previsto += intervalo) {
+			esperarAte(previsto);
+			OperacaoCarga operacao = OperacaoCarga.sortear(ThreadLocalRandom.current());
+			boolean sucesso;
+			try {
+				int status = requisicoes.get(operacao).enviar();
+				sucesso = status >= 200 && status < 300;
+			}catch (IOException e) {
+				sucesso = false;
+			}
+			long latencia = System.nanoTime() - previsto;
+			if(previsto >= inicioMedicao) {
+				gravadores.get(operacao).recordValue(Math.min(latencia, MAIOR_LATENCIA_NANOS));
+				if(!sucesso) {
+					erros.get(operacao).incrementAndGet();
+				}
+			}
+		}
+		return null;
+	}
+
+	private void descartarIntervalo() {
+		gravadores.values().forEach(Recorder::reset);
+	}
+
+	private void registrarIntervalo() {
+		for(OperacaoCarga operacao : OperacaoCarga.values()) {
+			Histogram intervalo = gravadores.get(operacao).getIntervalHistogram();
+			logs.get(operacao).outputIntervalHistogram(intervalo);
+			totais.get(operacao).add(intervalo);
+		}
+	}
+
+	private static void esperarAte(long instante) {
+		long restante;
+		while((restante = instante - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(restante);
+		}
+	}
+
+	Histogram total(OperacaoCarga operacao) {
+		return totais.get(operacao);
+	}
+
+	long erros(OperacaoCarga operacao) {
+		return erros.get(operacao).get();
+	}
+
+	/**
+	 * Grava a distribuicao de percentis de cada operacao (.hgrm, em milissegundos) e devolve o resumo
+	 * com vazao e p50/p95/p99/p99.9.
+	 */
+	String relatorio(int duracao, Path saida) throws IOException {
+		StringBuilder resumo = new StringBuilder(String.format("%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+				"operacao", "total", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms"));
+		for(OperacaoCarga operacao : OperacaoCarga.values()) {
+			Histogram histograma = totais.get(operacao);
+			try(PrintStream arquivo = new PrintStream(saida.resolve(operacao.arquivo() + ".hgrm").toFile(), "UTF-8")) {
+				histograma.outputPercentileDistribution(arquivo, 1_000_000.0);
+			}
+			resumo.append(String.format("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+					operacao.arquivo(), histograma.getTotalCount(), erros(operacao),
+					histograma.getTotalCount() / (double) duracao,
+					ms(histograma, 50), ms(histograma, 95), ms(histograma, 99), ms(histograma, 99.9),
+					histograma.getMaxValue() / 1e6));
+		}
+		return resumo.toString();
+	}
+
+	private static double ms(Histogram histograma, double percentil) {
+		return histograma.getValueAtPercentile(percentil) / 1e6;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.donte.financas.carga;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Simula um banco lento: cada comando espera carga.latencia-sql-ms antes de ir ao H2, segurando a
+ * conexao como uma consulta lenta seguraria.
+ */
+@TestConfiguration
+class LatenciaSqlConfig {
+
+	@Bean
+	static BeanPostProcessor latenciaSqlDataSource(Environment environment) {
+		long latencia = TimeUnit.MILLISECONDS.toNanos(environment.getProperty("carga.latencia-sql-ms", Long.class, 0L));
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(latencia > 0 && bean instanceof DataSource) {
+					return ProxyDataSourceBuilder.create((DataSource) bean).name(nome).listener(new QueryExecutionListener() {
+						@Override
+						public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+							LockSupport.parkNanos(latencia);
+						}
+
+						@Override
+						public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+						}
+					}).build();
+				}
+				return bean;
+			}
+		};
+	}
+
+}
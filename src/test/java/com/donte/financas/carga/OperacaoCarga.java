@@ -0,0 +1,38 @@
+package com.donte.financas.carga;
+
+import java.util.Random;
+
+/**
+ * Operacoes da carga e o peso de cada uma na mistura de requisicoes.
+ */
+enum OperacaoCarga {
+
+	BUSCA(40),
+	SALDO(30),
+	INCLUSAO(15),
+	STATUS(15);
+
+	private static final int PESO_TOTAL = 100;
+
+	private final int peso;
+
+	OperacaoCarga(int peso) {
+		this.peso = peso;
+	}
+
+	static OperacaoCarga sortear(Random random) {
+		int sorteio = random.nextInt(PESO_TOTAL);
+		for(OperacaoCarga operacao : values()) {
+			sorteio -= operacao.peso;
+			if(sorteio < 0) {
+				return operacao;
+			}
+		}
+		return BUSCA;
+	}
+
+	String arquivo() {
+		return name().toLowerCase();
+	}
+
+}
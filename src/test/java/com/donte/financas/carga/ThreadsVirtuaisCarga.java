@@ -0,0 +1,83 @@
+package com.donte.financas.carga;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import com.donte.financas.FinancasApplication;
+
+/**
+ * Compara o modelo atual (pool de threads do Tomcat) com o modo de threads virtuais sob alta concorrencia
+ * e banco lento. Sobe a aplicacao duas vezes, uma em cada modo, com a mesma massa e a mesma carga.
+ * Exige Java 21 para o modo virtual; a aplicacao continua compilada para Java 8:
+ * mvn test -Pcarga -Dtest=ThreadsVirtuaisCarga -Dcarga.jvm=/caminho/do/jdk-21/bin/java
+ * Parametros, alem dos de {@link ApiCarga}: carga.latencia-sql-ms (espera antes de cada comando SQL),
+ * carga.pool (conexoes do Hikari) e carga.threads-tomcat (threads do modelo atual).
+ */
+public class ThreadsVirtuaisCarga {
+
+	static final int USUARIOS = Integer.getInteger("carga.usuarios", 20);
+	static final int LANCAMENTOS_POR_USUARIO = Integer.getInteger("carga.lancamentos", 200);
+	static final int CLIENTES = Integer.getInteger("carga.clientes", 1000);
+	static final int TAXA = Integer.getInteger("carga.taxa", 1500);
+	static final int AQUECIMENTO = Integer.getInteger("carga.aquecimento", 10);
+	static final int DURACAO = Integer.getInteger("carga.duracao", 30);
+	static final int LATENCIA_SQL_MS = Integer.getInteger("carga.latencia-sql-ms", 50);
+	static final int POOL = Integer.getInteger("carga.pool", 100);
+	static final int THREADS_TOMCAT = Integer.getInteger("carga.threads-tomcat", 200);
+	static final Path SAIDA = Paths.get(System.getProperty("carga.saida", "target/carga"));
+
+	@Test
+	public void deveCompararOsDoisModosDeExecucao() throws Exception {
+		Map<String, String> relatorios = new LinkedHashMap<>();
+		for(boolean virtuais : new boolean[] { false, true }) {
+			String modo = virtuais ? "virtuais" : "plataforma";
+			GeradorCarga gerador = new GeradorCarga();
+			try(ConfigurableApplicationContext contexto = iniciar(virtuais)) {
+				int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+				CenarioCarga cenario = new CenarioCarga(contexto, porta);
+				cenario.popular(USUARIOS, LANCAMENTOS_POR_USUARIO);
+				gerador.executar(CLIENTES, TAXA, AQUECIMENTO, DURACAO, SAIDA.resolve(modo), cenario.requisicoes());
+			}
+			relatorios.put(modo, gerador.relatorio(DURACAO, SAIDA.resolve(modo)));
+			for(OperacaoCarga operacao : OperacaoCarga.values()) {
+				Assertions.assertThat(gerador.total(operacao).getTotalCount()).as(modo + " " + operacao.name()).isPositive();
+			}
+		}
+
+		System.out.printf("%nThreads: %d clientes, %d req/s, SQL +%d ms, pool de %d conexoes, %d threads no Tomcat, %d s (+%d s de aquecimento)%n",
+				CLIENTES, TAXA, LATENCIA_SQL_MS, POOL, THREADS_TOMCAT, DURACAO, AQUECIMENTO);
+		relatorios.forEach((modo, relatorio) -> System.out.printf("%n[%s]%n%s", modo, relatorio));
+		System.out.printf("Histogramas em %s%n", SAIDA.toAbsolutePath());
+	}
+
+	private static ConfigurableApplicationContext iniciar(boolean virtuais) {
+		return new SpringApplicationBuilder(FinancasApplication.class, LatenciaSqlConfig.class)
+				.profiles("test")
+				// fora do @SpringBootTest a varredura de componentes encontraria as configuracoes de teste
+				.initializers(contexto -> contexto.getBeanFactory().registerSingleton("cargaTypeExcludeFilter", new TypeExcludeFilter() {
+					@Override
+					public boolean match(MetadataReader leitor, MetadataReaderFactory fabrica) {
+						return leitor.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+					}
+				}))
+				// como argumentos, para valerem sobre o application.properties
+				.run("--server.port=0",
+						"--financas.threads-virtuais.habilitado=" + virtuais,
+						"--server.tomcat.threads.max=" + THREADS_TOMCAT,
+						"--spring.datasource.hikari.maximum-pool-size=" + POOL,
+						"--carga.latencia-sql-ms=" + LATENCIA_SQL_MS);
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.donte.financas.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class DataSourceLimitadoTest {
+
+	DataSource dataSource;
+	DataSourceLimitado limitado;
+
+	@BeforeEach
+	public void setUp() throws SQLException {
+		dataSource = Mockito.mock(DataSource.class);
+		Mockito.when(dataSource.getConnection()).thenAnswer(invocacao -> Mockito.mock(Connection.class));
+		limitado = new DataSourceLimitado(dataSource, 2, 50);
+	}
+
+	@Test
+	public void deveEsperarUmaConexaoSerFechadaQuandoOLimiteForAtingido() throws SQLException {
+		Connection primeira = limitado.getConnection();
+		limitado.getConnection();
+
+		Assertions.assertThat(limitado.getEmUso()).isEqualTo(2);
+		Assertions.assertThatThrownBy(limitado::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+		primeira.close();
+
+		Assertions.assertThat(limitado.getConnection()).isNotNull();
+		Mockito.verify(dataSource, Mockito.times(3)).getConnection();
+	}
+
+	@Test
+	public void deveDevolverUmaUnicaPermissaoMesmoFechandoDuasVezes() throws SQLException {
+		Connection conexao = limitado.getConnection();
+
+		conexao.close();
+		conexao.close();
+
+		Assertions.assertThat(limitado.getEmUso()).isZero();
+		limitado.getConnection();
+		limitado.getConnection();
+		Assertions.assertThatThrownBy(limitado::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+	}
+
+	@Test
+	public void deveDevolverAPermissaoQuandoOPoolFalhar() throws SQLException {
+		Mockito.when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("pool esgotado"));
+
+		Assertions.assertThatThrownBy(limitado::getConnection).hasMessage("pool esgotado");
+
+		Assertions.assertThat(limitado.getEmUso()).isZero();
+	}
+
+	@Test
+	public void deveRepassarAsDemaisChamadasParaAConexaoReal() throws SQLException {
+		Connection real = Mockito.mock(Connection.class);
+		Mockito.when(dataSource.getConnection()).thenReturn(real);
+
+		Connection conexao = limitado.getConnection();
+		conexao.setAutoCommit(false);
+		conexao.close();
+
+		Mockito.verify(real).setAutoCommit(false);
+		Mockito.verify(real).close();
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.donte.financas.config;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.donte.financas.api.resource.UsuarioResource;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.TokenService;
+import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDadosService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MetricasAspectTest {
+
+	SimpleMeterRegistry registry;
+	UsuarioService usuarioService;
+	UsuarioService servicoMedido;
+	UsuarioResource resourceMedido;
+
+	@BeforeEach
+	public void setUp() {
+		registry = new SimpleMeterRegistry();
+		usuarioService = Mockito.mock(UsuarioService.class);
+		servicoMedido = proxy(usuarioService);
+		resourceMedido = proxy(new UsuarioResource(servicoMedido, Mockito.mock(LancamentoService.class), Mockito.mock(TokenService.class), Mockito.mock(VersaoDadosService.class)));
+	}
+
+	@Test
+	public void deveMedirOServicoComOResultadoDaChamada() {
+		Mockito.when(usuarioService.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		Mockito.when(usuarioService.obterPorId(2L)).thenReturn(Optional.empty());
+		Mockito.when(usuarioService.salvarUsuario(Mockito.any())).thenThrow(new RegraNegocioException("Já existe um usuário cadastrado com este email."));
+
+		servicoMedido.obterPorId(1L);
+		servicoMedido.obterPorId(2L);
+		Assertions.catchThrowable(() -> servicoMedido.salvarUsuario(new Usuario()));
+
+		Assertions.assertThat(contar(MetricasAspect.TIMER_SERVICE, "obterPorId", "ok")).isEqualTo(1);
+		Assertions.assertThat(contar(MetricasAspect.TIMER_SERVICE, "obterPorId", "nao_encontrado")).isEqualTo(1);
+		Assertions.assertThat(contar(MetricasAspect.TIMER_SERVICE, "salvarUsuario", "RegraNegocioException")).isEqualTo(1);
+	}
+
+	@Test
+	public void deveMedirOResourcePeloStatusDaResposta() {
+		Mockito.when(usuarioService.obterPorId(2L)).thenReturn(Optional.empty());
+
+		resourceMedido.saldo(2L, new MockHttpServletRequest());
+
+		Assertions.assertThat(contar(MetricasAspect.TIMER_RESOURCE, "saldo", "nao_encontrado")).isEqualTo(1);
+		// a chamada interna ao servico tambem e medida, separadamente
+		Assertions.assertThat(contar(MetricasAspect.TIMER_SERVICE, "obterPorId", "nao_encontrado")).isEqualTo(1);
+	}
+
+	private long contar(String timer, String metodo, String resultado) {
+		return registry.get(timer).tag("metodo", metodo).tag("resultado", resultado).timer().count();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(T alvo) {
+		AspectJProxyFactory fabrica = new AspectJProxyFactory(alvo);
+		fabrica.setProxyTargetClass(true);
+		fabrica.addAspect(new MetricasAspect(registry));
+		return (T) fabrica.getProxy();
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.donte.financas.config;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.donte.financas.service.UsuarioService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+public class MetricasPrometheusTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	UsuarioService usuarioService;
+
+	@Test
+	public void deveExporAsMetricasDaAplicacaoDoBancoEDoPoolNoFormatoDoPrometheus() throws Exception {
+		usuarioService.obterPorId(-1L);
+
+		mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString(
+					"financas_service_seconds_count{application=\"financas\",classe=\"UsuarioServiceImpl\",metodo=\"obterPorId\",resultado=\"nao_encontrado\",}")))
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("hibernate_query_executions_total")))
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("financas_hibernate_consultas_lentas")))
+			.andExpect(MockMvcResultMatchers.content().string(Matchers.containsString("hikaricp_connections_active")));
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.donte.financas.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.LancamentoRepositoryTest;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.LancamentoService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primario e replica em dois bancos H2 em memoria. A replicacao e simulada copiando o primario
+ * (SCRIPT/RUNSCRIPT) no momento escolhido pelo teste; o que for gravado depois so existe no primario.
+ */
+@SpringBootTest(properties = { "financas.token.habilitado=false",
+		"spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas",
+		"financas.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas",
+		"financas.replica.janela-leitura-ms=" + ReplicaConfigTest.JANELA_MS })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicaConfigTest {
+
+	static final long JANELA_MS = 300;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	DataSource dataSource;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		usuario = usuarioRepository.save(Usuario.builder().nome("usuario").email("replica@email.com").senha("senha").build());
+		lancamentoService.salvar(criarLancamento());
+		Thread.sleep(JANELA_MS + 100);
+		replicar();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveLerDaReplicaForaDaJanelaDeEscrita() throws Exception {
+		long antes = roteamento().getLeiturasNaReplica();
+		// gravado direto no repositorio: nao conta como escrita do usuario e ainda nao foi replicado
+		lancamentoRepository.save(criarLancamento());
+
+		buscar().andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(1));
+
+		Assertions.assertThat(roteamento().getLeiturasNaReplica()).isGreaterThan(antes);
+	}
+
+	@Test
+	public void deveLerDoPrimarioLogoDepoisDeUmaEscritaDoUsuario() throws Exception {
+		lancamentoService.salvar(criarLancamento());
+
+		buscar().andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(2));
+
+		Thread.sleep(JANELA_MS + 100);
+		buscar().andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(1));
+	}
+
+	@Test
+	@DirtiesContext
+	public void deveVoltarAoPrimarioQuandoAReplicaFalha() throws Exception {
+		lancamentoRepository.save(criarLancamento());
+		((HikariDataSource) roteamento().getReplica()).close();
+
+		buscar().andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(2));
+
+		Assertions.assertThat(roteamento().getFalhasDaReplica()).isEqualTo(1);
+	}
+
+	private ResultActions buscar() throws Exception {
+		return mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	private Lancamento criarLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+
+	private RoteamentoDataSource roteamento() throws SQLException {
+		return dataSource.unwrap(RoteamentoDataSource.class);
+	}
+
+	private void replicar() throws SQLException {
+		List<String> comandos = new ArrayList<>();
+		try (Connection conexao = roteamento().getPrimario().getConnection(); Statement consulta = conexao.createStatement();
+				ResultSet script = consulta.executeQuery("SCRIPT")) {
+			while(script.next()) {
+				comandos.add(script.getString(1));
+			}
+		}
+		try (Connection conexao = roteamento().getReplica().getConnection(); Statement comando = conexao.createStatement()) {
+			comando.execute("DROP ALL OBJECTS");
+			for(String sql : comandos) {
+				comando.execute(sql);
+			}
+		}
+	}
+
+}
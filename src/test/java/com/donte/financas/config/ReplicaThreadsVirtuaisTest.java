@@ -0,0 +1,72 @@
+package com.donte.financas.config;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.donte.financas.service.VersaoDadosService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replica e threads virtuais ligadas juntas, sem subir o contexto: o executor de threads virtuais
+ * exige Java 21, mas o limite de acessos dos pools e montado por ReplicaConfig em qualquer versao.
+ */
+public class ReplicaThreadsVirtuaisTest {
+
+	ReplicaConfig config = new ReplicaConfig();
+
+	@AfterEach
+	public void tearDown() {
+		config.destroy();
+	}
+
+	@Test
+	public void deveLimitarOPrimarioEAReplicaComOTamanhoDeCadaPool() throws Exception {
+		MockEnvironment environment = ambiente().withProperty("financas.threads-virtuais.habilitado", "true");
+		DataSource dataSource = criar(environment);
+		RoteamentoDataSource roteamento = dataSource.unwrap(RoteamentoDataSource.class);
+
+		Assertions.assertThat(roteamento.getPrimario()).isInstanceOf(DataSourceLimitado.class);
+		Assertions.assertThat(((DataSourceLimitado) roteamento.getPrimario()).getLimite()).isEqualTo(3);
+		Assertions.assertThat(roteamento.getReplica()).isInstanceOf(DataSourceLimitado.class);
+		Assertions.assertThat(((DataSourceLimitado) roteamento.getReplica()).getLimite()).isEqualTo(2);
+		// o proxy devolvido como bean nao ganha um segundo limite, comum aos dois pools
+		Assertions.assertThat(ThreadsVirtuaisConfig.acessoBancoLimitado(environment).postProcessAfterInitialization(dataSource, "dataSource"))
+				.isSameAs(dataSource);
+
+		try(Connection conexao = dataSource.getConnection()) {
+			conexao.isValid(1);
+			Assertions.assertThat(((DataSourceLimitado) roteamento.getPrimario()).getEmUso()).isEqualTo(1);
+		}
+		Assertions.assertThat(((DataSourceLimitado) roteamento.getPrimario()).getEmUso()).isZero();
+	}
+
+	@Test
+	public void naoDeveLimitarOsPoolsSemThreadsVirtuais() throws Exception {
+		RoteamentoDataSource roteamento = criar(ambiente()).unwrap(RoteamentoDataSource.class);
+
+		Assertions.assertThat(roteamento.getPrimario()).isInstanceOf(HikariDataSource.class);
+		Assertions.assertThat(roteamento.getReplica()).isInstanceOf(HikariDataSource.class);
+	}
+
+	private DataSource criar(MockEnvironment environment) {
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl("jdbc:h2:mem:primario-limitado;DB_CLOSE_DELAY=-1");
+		return config.dataSource(properties, environment, Mockito.mock(VersaoDadosService.class), 5000, 30000);
+	}
+
+	private static MockEnvironment ambiente() {
+		return new MockEnvironment()
+				.withProperty("financas.replica.url", "jdbc:h2:mem:replica-limitada;DB_CLOSE_DELAY=-1")
+				.withProperty("spring.datasource.hikari.maximum-pool-size", "3")
+				.withProperty("financas.replica.hikari.maximum-pool-size", "2");
+	}
+
+}
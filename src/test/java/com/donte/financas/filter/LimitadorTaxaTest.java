@@ -0,0 +1,98 @@
+package com.donte.financas.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.donte.financas.api.filter.LimitadorTaxa;
+
+public class LimitadorTaxaTest {
+
+	static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+	AtomicLong relogio = new AtomicLong(1_000 * SEGUNDO);
+	// 10 por segundo, rajada de 3
+	LimitadorTaxa<String> limitador = new LimitadorTaxa<>(10, 3, relogio::get);
+
+	@Test
+	public void deveLiberarARajadaERecusarAcimaDela() {
+		for(int i = 0; i < 3; i++) {
+			Assertions.assertThat(limitador.tentar("a")).isZero();
+		}
+
+		Assertions.assertThat(limitador.tentar("a")).isEqualTo(SEGUNDO / 10);
+		Assertions.assertThat(limitador.tentar("b")).isZero();
+	}
+
+	@Test
+	public void deveRepor1FichaACadaIntervalo() {
+		for(int i = 0; i < 3; i++) {
+			limitador.tentar("a");
+		}
+
+		relogio.addAndGet(SEGUNDO / 10);
+		Assertions.assertThat(limitador.tentar("a")).isZero();
+		Assertions.assertThat(limitador.tentar("a")).isPositive();
+
+		relogio.addAndGet(SEGUNDO);
+		for(int i = 0; i < 3; i++) {
+			Assertions.assertThat(limitador.tentar("a")).isZero();
+		}
+	}
+
+	@Test
+	public void deveRemoverApenasOsBaldesOciososNaLimpeza() {
+		limitador.tentar("a");
+		limitador.tentar("b");
+		relogio.addAndGet(SEGUNDO);
+		limitador.tentar("c");
+		Assertions.assertThat(limitador.getBaldes()).isEqualTo(3);
+
+		// a requisicao nao limpa: os baldes ociosos ficam ate a proxima limpeza
+		Assertions.assertThat(limitador.limparOciosos()).isEqualTo(2);
+
+		Assertions.assertThat(limitador.getBaldes()).isEqualTo(1);
+		Assertions.assertThat(limitador.tentar("c")).isZero();
+		Assertions.assertThat(limitador.tentar("c")).isZero();
+		Assertions.assertThat(limitador.tentar("c")).isPositive();
+	}
+
+	@Test
+	public void deveLiberarApenasARajadaComRequisicoesSimultaneas() throws Exception {
+		LimitadorTaxa<String> rajada100 = new LimitadorTaxa<>(1, 100, relogio::get);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch largada = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> tarefas = new ArrayList<>();
+			for(int t = 0; t < 8; t++) {
+				tarefas.add(executor.submit(() -> {
+					largada.await();
+					int liberadas = 0;
+					for(int i = 0; i < 1000; i++) {
+						if(rajada100.tentar("a") == 0) {
+							liberadas++;
+						}
+					}
+					return liberadas;
+				}));
+			}
+			largada.countDown();
+			int total = 0;
+			for(Future<Integer> tarefa : tarefas) {
+				total += tarefa.get(10, TimeUnit.SECONDS);
+			}
+			Assertions.assertThat(total).isEqualTo(100);
+		}finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
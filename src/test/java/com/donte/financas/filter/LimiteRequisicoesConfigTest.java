@@ -0,0 +1,41 @@
+package com.donte.financas.filter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = { "financas.token.habilitado=false", "financas.limite.habilitado=true",
+		"financas.limite.ip.por-segundo=0.01", "financas.limite.ip.rajada=2" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LimiteRequisicoesConfigTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	public void deveAplicarOLimiteNasRotasDaApi() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/cache")).andExpect(MockMvcResultMatchers.status().isOk());
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/cache")).andExpect(MockMvcResultMatchers.status().isOk());
+
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/cache"))
+		.andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+		.andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER));
+
+		Assertions.assertThat(registry.get("financas.limite.recusadas").tag("limite", "ip").functionCounter().count()).isEqualTo(1);
+		mvc.perform(MockMvcRequestBuilders.get("/actuator/health")).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.donte.financas.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.donte.financas.api.filter.LimitadorTaxa;
+import com.donte.financas.api.filter.LimiteRequisicoesFilter;
+import com.donte.financas.api.filter.TokenFilter;
+
+public class LimiteRequisicoesFilterTest {
+
+	static final long MINUTO = TimeUnit.MINUTES.toNanos(1);
+
+	AtomicLong relogio = new AtomicLong(MINUTO);
+	// 1 por segundo; rajada de 5 por IP e de 2 por usuario
+	LimiteRequisicoesFilter filter = new LimiteRequisicoesFilter(
+			new LimitadorTaxa<>(1, 5, relogio::get), new LimitadorTaxa<>(1, 2, relogio::get));
+
+	@Test
+	public void deveRecusarComRetryAfterQuandoOUsuarioPassaDoLimite() throws Exception {
+		Assertions.assertThat(executar("10.0.0.1", 1L).getStatus()).isEqualTo(200);
+		Assertions.assertThat(executar("10.0.0.1", 1L).getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse recusada = executar("10.0.0.1", 1L);
+
+		Assertions.assertThat(recusada.getStatus()).isEqualTo(429);
+		Assertions.assertThat(recusada.getHeader("Retry-After")).isEqualTo("1");
+		Assertions.assertThat(executar("10.0.0.1", 2L).getStatus()).isEqualTo(200);
+		Assertions.assertThat(filter.getRecusadasPorUsuario()).isEqualTo(1);
+	}
+
+	@Test
+	public void deveRecusarQuandoOIpPassaDoLimiteMesmoSemUsuario() throws Exception {
+		for(int i = 0; i < 5; i++) {
+			Assertions.assertThat(executar("10.0.0.1", null).getStatus()).isEqualTo(200);
+		}
+
+		Assertions.assertThat(executar("10.0.0.1", null).getStatus()).isEqualTo(429);
+		Assertions.assertThat(executar("10.0.0.2", null).getStatus()).isEqualTo(200);
+		Assertions.assertThat(filter.getRecusadasPorIp()).isEqualTo(1);
+	}
+
+	@Test
+	public void naoDeveChegarAoResourceQuandoRecusada() throws Exception {
+		executar("10.0.0.1", 1L);
+		executar("10.0.0.1", 1L);
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(requisicao("10.0.0.1", 1L), new MockHttpServletResponse(), chain);
+
+		Assertions.assertThat(chain.getRequest()).isNull();
+	}
+
+	private MockHttpServletResponse executar(String ip, Long usuarioId) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(requisicao(ip, usuarioId), response, new MockFilterChain());
+		return response;
+	}
+
+	private MockHttpServletRequest requisicao(String ip, Long usuarioId) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/lancamentos");
+		request.setRemoteAddr(ip);
+		if(usuarioId != null) {
+			request.setAttribute(TokenFilter.ATRIBUTO_USUARIO, usuarioId);
+		}
+		return request;
+	}
+
+}
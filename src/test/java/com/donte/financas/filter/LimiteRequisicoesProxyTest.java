@@ -0,0 +1,32 @@
+package com.donte.financas.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * O limite por IP no Tomcat de verdade, com a requisicao chegando por um proxy de loopback.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = { "financas.token.habilitado=false",
+		"financas.limite.habilitado=true", "financas.limite.ip.por-segundo=0.01", "financas.limite.ip.rajada=1" })
+@ActiveProfiles("test")
+public class LimiteRequisicoesProxyTest {
+
+	@Autowired
+	WebTestClient client;
+
+	@Test
+	public void deveSepararOsClientesPeloXForwardedForDoProxy() {
+		client.get().uri("/api/usuarios/cache").header("X-Forwarded-For", "203.0.113.1").exchange()
+		.expectStatus().isOk();
+		client.get().uri("/api/usuarios/cache").header("X-Forwarded-For", "203.0.113.2").exchange()
+		.expectStatus().isOk();
+
+		client.get().uri("/api/usuarios/cache").header("X-Forwarded-For", "203.0.113.1").exchange()
+		.expectStatus().isEqualTo(429);
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.donte.financas.filter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.exception.ErroAutenticacaoException;
+import com.donte.financas.service.TokenService;
+
+public class TokenFilterTest {
+
+	TokenService tokenService = Mockito.mock(TokenService.class);
+	TokenFilter filter = new TokenFilter(tokenService);
+
+	@Test
+	public void deveAceitarTokenValidoDoProprioUsuario() throws Exception {
+		Mockito.when(tokenService.validar("valido")).thenReturn(1L);
+		MockHttpServletRequest request = requisicao("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer valido");
+		request.setParameter("usuario", "1");
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		Assertions.assertThat(chain.getRequest()).isNotNull();
+		Assertions.assertThat(request.getAttribute(TokenFilter.ATRIBUTO_USUARIO)).isEqualTo(1L);
+	}
+
+	@Test
+	public void deveRecusarRequisicaoSemToken() throws Exception {
+		Mockito.when(tokenService.validar(null)).thenThrow(new ErroAutenticacaoException("Token não informado"));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(requisicao("GET", "/api/lancamentos"), response, chain);
+
+		Assertions.assertThat(response.getStatus()).isEqualTo(401);
+		Assertions.assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	public void deveRecusarAcessoAosDadosDeOutroUsuario() throws Exception {
+		Mockito.when(tokenService.validar("valido")).thenReturn(1L);
+		MockHttpServletRequest request = requisicao("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer valido");
+		request.setParameter("usuario", "2");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain());
+
+		Assertions.assertThat(response.getStatus()).isEqualTo(403);
+	}
+
+	@Test
+	public void naoDeveExigirTokenParaAutenticarOuCadastrar() throws Exception {
+		MockFilterChain autenticar = new MockFilterChain();
+		filter.doFilter(requisicao("POST", "/api/usuarios/autenticar"), new MockHttpServletResponse(), autenticar);
+		MockFilterChain cadastrar = new MockFilterChain();
+		filter.doFilter(requisicao("POST", "/api/usuarios"), new MockHttpServletResponse(), cadastrar);
+
+		Assertions.assertThat(autenticar.getRequest()).isNotNull();
+		Assertions.assertThat(cadastrar.getRequest()).isNotNull();
+		Mockito.verifyNoInteractions(tokenService);
+	}
+
+	private MockHttpServletRequest requisicao(String metodo, String caminho) {
+		MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+		request.setServletPath(caminho);
+		return request;
+	}
+
+}
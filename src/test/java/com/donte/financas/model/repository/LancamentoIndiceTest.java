@@ -0,0 +1,134 @@
+package com.donte.financas.model.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Garante que as consultas quentes de lancamento continuam usando os indices da V03.
+ * No H2 as tabelas vem do Hibernate e os indices do proprio script da V03 (as demais migracoes usam
+ * sintaxe que o H2 nao aceita); no Postgres (opcional, via FINANCAS_POSTGRES_URL) tudo vem do Flyway.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ExtendWith(SpringExtension.class)
+public class LancamentoIndiceTest {
+
+	static final String BUSCA_POR_PERIODO = "select id, descricao, valor from financas.lancamento "
+			+ "where usuarioid = 1 and ano = 2021 and mes = 3 order by ano, mes, id";
+	static final String TOTAL_POR_TIPO = "select tipo, status, sum(valor), count(*) from financas.lancamento "
+			+ "where usuarioid = 1 group by tipo, status";
+	static final String BUSCA_POR_DESCRICAO = "select id from financas.lancamento "
+			+ "where usuarioid = 1 and lower(descricao) like '%aluguel%'";
+
+	static final String V03 = "db/migration/V03__criar_indices_lancamento.sql";
+	static final long USUARIO_CARGA = 1000000;
+
+	@Autowired
+	TestEntityManager manager;
+
+	@Autowired
+	DataSource dataSource;
+
+	// roda fora da transacao do teste: o H2 so conta na estimativa de custo as linhas confirmadas
+	@BeforeEach
+	public void prepararH2() throws Exception {
+		try(Connection conexao = dataSource.getConnection(); Statement stmt = conexao.createStatement()) {
+			try(ResultSet rs = stmt.executeQuery("select count(*) from information_schema.indexes "
+					+ "where table_schema = 'FINANCAS' and table_name = 'LANCAMENTO' and index_name like 'IDX_LANCAMENTO_USUARIO_%'")) {
+				rs.next();
+				if(rs.getInt(1) == 0) {
+					ScriptUtils.executeSqlScript(conexao, new ClassPathResource(V03));
+				}
+			}
+			// com a tabela vazia o H2 fica com o primeiro indice que cobre usuarioid (o da FK);
+			// com linhas ele pesa a seletividade, como o Postgres faria
+			stmt.execute("insert into financas.usuario (id, nome, email, senha) "
+					+ "values (" + USUARIO_CARGA + ", 'carga', 'carga@email.com', 'senha')");
+			stmt.execute("insert into financas.lancamento "
+					+ "(id, descricao, mes, ano, usuarioid, valor, criado, tipo, status, versao) "
+					+ "select " + USUARIO_CARGA + " + x, 'Qualquer descricao', 1 + mod(x, 12), 2000 + mod(x, 25), " + USUARIO_CARGA
+					+ ", 100, current_date, 'RECEITA', 'PENDENTE', 0 from system_range(1, 2000)");
+		}
+	}
+
+	@AfterEach
+	public void limparH2() throws Exception {
+		try(Connection conexao = dataSource.getConnection(); Statement stmt = conexao.createStatement()) {
+			stmt.execute("delete from financas.lancamento where usuarioid = " + USUARIO_CARGA);
+			stmt.execute("delete from financas.usuario where id = " + USUARIO_CARGA);
+		}
+	}
+
+	@Test
+	public void deveUsarIndiceDePeriodoNaBuscaDoUsuario() {
+		Assertions.assertThat(explainH2(BUSCA_POR_PERIODO)).containsIgnoringCase("idx_lancamento_usuario_ano_mes");
+	}
+
+	@Test
+	public void deveUsarIndiceDeTipoEStatusNoTotalDoUsuario() {
+		Assertions.assertThat(explainH2(TOTAL_POR_TIPO)).containsIgnoringCase("idx_lancamento_usuario_tipo_status");
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = "FINANCAS_POSTGRES_URL", matches = ".+")
+	public void deveUsarIndicesNoPostgres() throws Exception {
+		String url = System.getenv("FINANCAS_POSTGRES_URL");
+		String usuario = System.getenv().getOrDefault("FINANCAS_POSTGRES_USUARIO", "postgres");
+		String senha = System.getenv().getOrDefault("FINANCAS_POSTGRES_SENHA", "");
+
+		Flyway.configure()
+			.dataSource(url, usuario, senha)
+			.locations("classpath:db/migration", "classpath:db/especifico/postgresql")
+			.load()
+			.migrate();
+
+		try(Connection conexao = DriverManager.getConnection(url, usuario, senha); Statement stmt = conexao.createStatement()) {
+			// com a tabela pequena o planejador prefere seq scan; desligado, so sobra o indice se ele servir
+			stmt.execute("set enable_seqscan = off");
+			Assertions.assertThat(explain(stmt, BUSCA_POR_PERIODO)).contains("idx_lancamento_usuario_ano_mes");
+			Assertions.assertThat(explain(stmt, TOTAL_POR_TIPO)).contains("idx_lancamento_usuario_tipo_status");
+			Assertions.assertThat(explain(stmt, BUSCA_POR_DESCRICAO)).contains("idx_lancamento_descricao_trgm");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private String explainH2(String sql) {
+		List<Object> plano = manager.getEntityManager().createNativeQuery("explain " + sql).getResultList();
+		return plano.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+	}
+
+	private static String explain(Statement stmt, String sql) throws Exception {
+		StringBuilder plano = new StringBuilder();
+		try(ResultSet rs = stmt.executeQuery("explain " + sql)) {
+			while(rs.next()) {
+				plano.append(rs.getString(1)).append('\n');
+			}
+		}
+		return plano.toString();
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.donte.financas.model.repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Compara a leitura antiga (entidades completas serializadas) com a leitura por projecao
+ * em quantidade de comandos SQL e bytes por linha na resposta.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ExtendWith(SpringExtension.class)
+public class LancamentoProjecaoTest {
+
+	static final int QUANTIDADE = 50;
+
+	@Autowired
+	LancamentoRepository repository;
+
+	@Autowired
+	TestEntityManager manager;
+
+	ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	Statistics estatisticas;
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = manager.persist(Usuario.builder().nome("Usuario com um nome razoavel").email("usuario.qualquer@email.com").senha("senha").build());
+		for(int i = 0; i < QUANTIDADE; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			manager.persist(lancamento);
+		}
+		manager.flush();
+		manager.clear();
+		estatisticas = manager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estatisticas.setStatisticsEnabled(true);
+		estatisticas.clear();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		estatisticas.setStatisticsEnabled(false);
+	}
+
+	@Test
+	public void aProjecaoDeveUsarMenosComandosEMenosBytesPorLinhaQueAsEntidades() throws Exception {
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+
+		// leitura antiga: entidades completas, com o usuario carregado para serializar cada linha
+		List<Lancamento> entidades = repository.findAll(Example.of(filtro));
+		byte[] jsonEntidades = mapper.writeValueAsBytes(entidades);
+		long comandosEntidades = estatisticas.getPrepareStatementCount();
+		manager.clear();
+		estatisticas.clear();
+
+		List<LancamentoDTO> dtos = repository.buscarAposCursor(filtro, null, QUANTIDADE).stream()
+				.map(LancamentoDTO::de).collect(Collectors.toList());
+		byte[] jsonProjecao = mapper.writeValueAsBytes(dtos);
+		long comandosProjecao = estatisticas.getPrepareStatementCount();
+
+		Assertions.assertThat(entidades).hasSize(QUANTIDADE);
+		Assertions.assertThat(dtos).hasSize(QUANTIDADE);
+		Assertions.assertThat(comandosProjecao).isEqualTo(1);
+		Assertions.assertThat(comandosEntidades).isGreaterThan(comandosProjecao);
+		// sem nome, email e data de cadastro do usuario repetidos em cada linha
+		Assertions.assertThat(jsonProjecao.length / QUANTIDADE).isLessThan(jsonEntidades.length / QUANTIDADE * 2 / 3);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	public void deveObterOResumoDeUmLancamentoSemCarregarOUsuario() {
+		Lancamento lancamento = repository.findAll().get(0);
+		manager.clear();
+		estatisticas.clear();
+
+		ResumoLancamento resumo = repository.obterResumo(lancamento.getId()).get();
+
+		Assertions.assertThat(resumo.getId()).isEqualTo(lancamento.getId());
+		Assertions.assertThat(resumo.getUsuarioId()).isEqualTo(usuario.getId());
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+	}
+
+}
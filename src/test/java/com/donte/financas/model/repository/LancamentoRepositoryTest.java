@@ -2,9 +2,15 @@ package com.donte.financas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,17 +18,23 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.model.enums.StatusLancamento;
 import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.sql.ContadorSql;
+import com.donte.financas.sql.ContagemSql;
+import com.donte.financas.sql.ContagemSqlConfig;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @AutoConfigureTestDatabase(replace = Replace.NONE)
 @ExtendWith(SpringExtension.class)
+@Import(ContagemSqlConfig.class)
 public class LancamentoRepositoryTest {
 
 	@Autowired
@@ -73,6 +85,154 @@ public class LancamentoRepositoryTest {
 		Assertions.assertThat(optLanc.isPresent()).isTrue();
 	}
 	
+	@Test
+	public void devePaginarLancamentosPorCursorNaOrdemAnoMesId() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		Usuario outro = manager.persist(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		int[][] periodos = { {2021, 5}, {2020, 12}, {2021, 1}, {2020, 12}, {2021, 5} };
+		for(int[] periodo : periodos) {
+			Lancamento lancamento = criarLancamento();
+			lancamento.setAno(periodo[0]);
+			lancamento.setMes(periodo[1]);
+			lancamento.setUsuario(usuario);
+			manager.persist(lancamento);
+		}
+		Lancamento deOutroUsuario = criarLancamento();
+		deOutroUsuario.setUsuario(outro);
+		manager.persist(deOutroUsuario);
+
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+
+		List<ResumoLancamento> todos = new ArrayList<>();
+		List<ResumoLancamento> pagina = repository.buscarAposCursor(filtro, null, 2);
+		while(!pagina.isEmpty()) {
+			Assertions.assertThat(pagina.size()).isLessThanOrEqualTo(2);
+			todos.addAll(pagina);
+			pagina = repository.buscarAposCursor(filtro, CursorLancamento.de(pagina.get(pagina.size() - 1)), 2);
+		}
+
+		Assertions.assertThat(todos).hasSize(5).extracting(ResumoLancamento::getUsuarioId).containsOnly(usuario.getId());
+		Assertions.assertThat(todos).extracting(l -> l.getAno() * 100 + l.getMes()).containsExactly(202012, 202012, 202101, 202105, 202105);
+		Assertions.assertThat(todos.get(0).getId()).isLessThan(todos.get(1).getId());
+		Assertions.assertThat(todos.get(3).getId()).isLessThan(todos.get(4).getId());
+	}
+
+	@Test
+	public void deveFiltrarPorDescricaoIgnorandoCaixaNaPaginacao() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		Lancamento aluguel = criarLancamento();
+		aluguel.setDescricao("Aluguel de Março");
+		aluguel.setUsuario(usuario);
+		manager.persist(aluguel);
+		Lancamento mercado = criarLancamento();
+		mercado.setDescricao("Mercado 100%");
+		mercado.setUsuario(usuario);
+		manager.persist(mercado);
+
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setDescricao("ALUGUEL");
+		Assertions.assertThat(repository.buscarAposCursor(filtro, null, 10)).extracting(ResumoLancamento::getId).containsExactly(aluguel.getId());
+
+		filtro.setDescricao("0%");
+		Assertions.assertThat(repository.buscarAposCursor(filtro, null, 10)).extracting(ResumoLancamento::getId).containsExactly(mercado.getId());
+	}
+
+	@Test
+	public void deveTotalizarPorTipoEStatusComUmaUnicaConsulta() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		persistir(usuario, 2020, 11, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500);
+		persistir(usuario, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		persistir(usuario, 2021, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 30);
+
+		List<TotalLancamento> totais = repository.obterTotaisPorTipoEStatus(usuario.getId());
+
+		Assertions.assertThat(totais).hasSize(2);
+		Assertions.assertThat(totais.stream().map(TotalLancamento::contribuicao).reduce(BigDecimal.ZERO, BigDecimal::add))
+			.isEqualByComparingTo("570");
+	}
+
+	@Test
+	public void devePersistirEmLoteAgrupandoOsInserts() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for(int i = 0; i < 120; i++) {
+			Lancamento lancamento = criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		manager.flush();
+		Statistics estatisticas = manager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estatisticas.setStatisticsEnabled(true);
+		estatisticas.clear();
+
+		repository.persistirEmLote(lancamentos);
+
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getId).doesNotContainNull().doesNotHaveDuplicates();
+		Assertions.assertThat(repository.count()).isEqualTo(120);
+		// 3 chamadas a sequencia (blocos de 50) e 3 lotes de insert, em vez de 120 inserts individuais
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+		estatisticas.setStatisticsEnabled(false);
+	}
+
+	@Test
+	public void deveLerOsLancamentosDoUsuarioEmStreamOrdenadosPorAnoMesId() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		Usuario outro = manager.persist(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		persistir(usuario, 2021, 5, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		persistir(usuario, 2020, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		persistir(outro, 2019, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		persistir(usuario, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 40);
+		manager.flush();
+		manager.clear();
+
+		List<Integer> valores;
+		try(Stream<Lancamento> stream = repository.streamPorUsuario(usuario.getId())) {
+			valores = stream.map(l -> l.getValor().intValue()).collect(Collectors.toList());
+		}
+
+		Assertions.assertThat(valores).containsExactly(20, 40, 10);
+	}
+
+	@Test
+	public void deveLerAsPaginasEOStreamDeMilLancamentosComUmSelectCada() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		for(int i = 0; i < 1000; i++) {
+			persistir(usuario, 2020 + i % 2, 1 + i % 12, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		}
+		manager.flush();
+		manager.clear();
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+
+		ContadorSql.zerar();
+		List<ResumoLancamento> primeira = repository.buscarAposCursor(filtro, null, 500);
+		List<ResumoLancamento> segunda = repository.buscarAposCursor(filtro, CursorLancamento.de(primeira.get(499)), 500);
+		Assertions.assertThat(primeira.size() + segunda.size()).isEqualTo(1000);
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(2, 0, 0, 0, 0));
+
+		ContadorSql.zerar();
+		long lidos;
+		try(Stream<Lancamento> stream = repository.streamPorUsuario(usuario.getId())) {
+			// o id do usuario vem da propria linha, sem carregar o usuario
+			lidos = stream.filter(l -> l.getUsuario().getId() != null).count();
+		}
+		Assertions.assertThat(lidos).isEqualTo(1000);
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(1, 0, 0, 0, 0));
+	}
+
+	private void persistir(Usuario usuario, int ano, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		manager.persist(lancamento);
+	}
+
 	private Lancamento criarLancamentoAndPersistir() {
 		Lancamento lancamento = criarLancamento();
 		return manager.persist(lancamento);
@@ -88,4 +248,35 @@ public class LancamentoRepositoryTest {
 				.tipo(TipoLancamento.RECEITA)
 				.status(StatusLancamento.PENDENTE).build();
 	}
+
+	@Test
+	public void deveAtualizarOStatusApenasDosLancamentosDoUsuarioComUmUnicoUpdate() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		Usuario outro = manager.persist(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		persistir(usuario, 2021, 3, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		persistir(usuario, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20);
+		persistir(usuario, 2021, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		persistir(outro, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 40);
+		manager.flush();
+		manager.clear();
+
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+		filtro.setMes(3);
+		List<ResumoLancamento> bloqueados = repository.bloquearParaAlteracao(filtro, null);
+		List<Long> ids = bloqueados.stream().map(ResumoLancamento::getId).collect(Collectors.toList());
+
+		Statistics estatisticas = manager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		estatisticas.setStatisticsEnabled(true);
+		estatisticas.clear();
+		int atualizados = repository.atualizarStatus(ids, StatusLancamento.EFETIVADO);
+		long comandos = estatisticas.getPrepareStatementCount();
+		estatisticas.setStatisticsEnabled(false);
+
+		Assertions.assertThat(bloqueados).extracting(ResumoLancamento::getValor).extracting(BigDecimal::intValue).containsExactlyInAnyOrder(10, 20);
+		Assertions.assertThat(atualizados).isEqualTo(2);
+		Assertions.assertThat(comandos).isEqualTo(1);
+		Assertions.assertThat(repository.findAll()).filteredOn(l -> l.getStatus() == StatusLancamento.EFETIVADO)
+			.extracting(l -> l.getValor().intValue()).containsExactlyInAnyOrder(10, 20);
+	}
 }
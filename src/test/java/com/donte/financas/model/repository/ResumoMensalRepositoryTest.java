@@ -0,0 +1,125 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.ResumoMensalPendente;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ExtendWith(SpringExtension.class)
+public class ResumoMensalRepositoryTest {
+
+	@Autowired
+	ResumoMensalRepository repository;
+
+	@Autowired
+	ResumoMensalPendenteRepository pendenteRepository;
+
+	@Autowired
+	TestEntityManager manager;
+
+	@Test
+	public void deveTotalizarPorMesTipoEStatusDentroDoPeriodo() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		persistir(usuario, 2020, 11, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500);
+		persistir(usuario, 2020, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		persistir(usuario, 2020, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		persistir(usuario, 2020, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		persistir(usuario, 2021, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 20);
+		persistir(usuario, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 999);
+		manager.flush();
+		for(int[] mes : new int[][] { {2020, 11}, {2020, 12}, {2021, 2}, {2021, 3} }) {
+			repository.calcularMes(usuario.getId(), mes[0], mes[1], LocalDateTime.now());
+		}
+
+		List<TotalLancamento> totais = repository.obterTotaisMensais(usuario.getId(), 2020, 12, 2021, 2);
+
+		Assertions.assertThat(totais).hasSize(3);
+		Assertions.assertThat(totais.get(0).getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(totais.get(0).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(totais.get(1)).isEqualToIgnoringGivenFields(
+				new TotalLancamento(2020, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, null, 2L), "total");
+		Assertions.assertThat(totais.get(1).getTotal()).isEqualByComparingTo("150");
+		Assertions.assertThat(totais.get(2).getAno()).isEqualTo(2021);
+		Assertions.assertThat(totais.get(2).getMes()).isEqualTo(2);
+	}
+
+	@Test
+	public void deveRecalcularApenasOMesInformado() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		persistir(usuario, 2021, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		Lancamento alterado = persistir(usuario, 2021, 2, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 40);
+		manager.flush();
+		repository.calcularMes(usuario.getId(), 2021, 1, LocalDateTime.now());
+		repository.calcularMes(usuario.getId(), 2021, 2, LocalDateTime.now());
+
+		alterado.setStatus(StatusLancamento.CANCELADO);
+		manager.flush();
+		repository.removerMes(usuario.getId(), 2021, 2);
+		repository.calcularMes(usuario.getId(), 2021, 2, LocalDateTime.now());
+		manager.clear();
+
+		List<TotalLancamento> totais = repository.obterTotaisMensais(usuario.getId(), 2021, 1, 2021, 2);
+		Assertions.assertThat(totais).extracting(TotalLancamento::getMes, TotalLancamento::getStatus).containsExactly(
+				Assertions.tuple(1, StatusLancamento.EFETIVADO), Assertions.tuple(2, StatusLancamento.CANCELADO));
+	}
+
+	@Test
+	public void deveInformarAsAlteracoesPendentesDoPeriodo() {
+		LocalDateTime antiga = LocalDateTime.of(2021, 3, 1, 10, 0);
+		pendenteRepository.saveAll(Arrays.asList(
+				ResumoMensalPendente.builder().usuarioId(1L).ano(2020).mes(12).registradoEm(antiga).build(),
+				ResumoMensalPendente.builder().usuarioId(1L).ano(2021).mes(2).registradoEm(antiga.plusMinutes(5)).build(),
+				ResumoMensalPendente.builder().usuarioId(1L).ano(2021).mes(3).registradoEm(antiga.minusDays(1)).build(),
+				ResumoMensalPendente.builder().usuarioId(2L).ano(2021).mes(1).registradoEm(antiga.minusDays(1)).build()));
+
+		PendenciaResumoMensal pendencia = pendenteRepository.obterPendencia(1L, 2020, 12, 2021, 2);
+
+		Assertions.assertThat(pendencia.getQuantidade()).isEqualTo(2);
+		Assertions.assertThat(pendencia.getMaisAntiga()).isEqualTo(antiga);
+		Assertions.assertThat(pendenteRepository.obterPendencia(1L, 2019, 1, 2019, 12).getQuantidade()).isZero();
+	}
+
+	@Test
+	public void deveLerOsPendentesEmLotesPelaOrdemDeRegistro() {
+		for(int mes = 1; mes <= 5; mes++) {
+			pendenteRepository.save(ResumoMensalPendente.builder().usuarioId(1L).ano(2021).mes(mes).registradoEm(LocalDateTime.now()).build());
+		}
+
+		List<ResumoMensalPendente> lote = pendenteRepository.obterLote(PageRequest.of(0, 3));
+
+		Assertions.assertThat(lote).extracting(ResumoMensalPendente::getMes).containsExactly(1, 2, 3);
+	}
+
+	private Lancamento persistir(Usuario usuario, int ano, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return manager.persist(lancamento);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.donte.financas.model.repository;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.SaldoUsuario;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ExtendWith(SpringExtension.class)
+public class SaldoUsuarioRepositoryTest {
+
+	@Autowired
+	SaldoUsuarioRepository repository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	TestEntityManager manager;
+
+	@Test
+	public void deveSomarODeltaNoSaldoExistente() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		manager.persist(SaldoUsuario.builder().usuarioId(usuario.getId()).saldo(BigDecimal.valueOf(100)).build());
+		manager.flush();
+
+		int atualizados = repository.somarAoSaldo(usuario.getId(), BigDecimal.valueOf(-30));
+		manager.clear();
+
+		Assertions.assertThat(atualizados).isEqualTo(1);
+		Assertions.assertThat(manager.find(SaldoUsuario.class, usuario.getId()).getSaldo()).isEqualByComparingTo("70");
+	}
+
+	@Test
+	public void naoDeveAtualizarNadaQuandoOUsuarioNaoTemSaldo() {
+		Assertions.assertThat(repository.somarAoSaldo(999L, BigDecimal.TEN)).isZero();
+	}
+
+	@Test
+	public void deveLerASituacaoGravadaIgnorandoAlteracoesPendentesDaSessao() {
+		Usuario usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		manager.persistAndFlush(lancamento);
+
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+
+		ResumoLancamento situacao = lancamentoRepository.obterResumo(lancamento.getId()).get();
+		Assertions.assertThat(situacao.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(situacao.getUsuarioId()).isEqualTo(usuario.getId());
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.donte.financas.resource;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.config.ReativoConfig;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.TokenService;
+
+/**
+ * As rotas reativas com o TokenFilter ligado: o usuario do token chega ao handler pela requisicao do servlet.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class AcessoReativoTest {
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	TokenService tokenService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	Usuario dono;
+	Usuario outro;
+	Lancamento lancamento;
+
+	@BeforeEach
+	public void setUp() {
+		dono = usuarioRepository.save(Usuario.builder().nome("dono").email("dono@email.com").senha("senha").build());
+		outro = usuarioRepository.save(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+		lancamento = lancamentoService.salvar(Lancamento.builder().descricao("Aluguel").mes(3).ano(2021)
+				.valor(BigDecimal.TEN).tipo(TipoLancamento.DESPESA).usuario(dono).build());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(dono);
+		usuarioRepository.delete(outro);
+	}
+
+	@Test
+	public void deveRecusarOLancamentoEOSaldoDeOutroUsuario() {
+		client.get().uri(ReativoConfig.CAMINHO + "/lancamentos/{id}", lancamento.getId())
+			.header(HttpHeaders.AUTHORIZATION, token(outro)).exchange()
+			.expectStatus().isForbidden()
+			.expectBody(String.class).isEqualTo(TokenFilter.ACESSO_NEGADO);
+		client.get().uri(ReativoConfig.CAMINHO + "/usuarios/{id}/saldo", dono.getId())
+			.header(HttpHeaders.AUTHORIZATION, token(outro)).exchange()
+			.expectStatus().isForbidden();
+	}
+
+	@Test
+	public void deveEntregarOLancamentoEOSaldoAoDono() {
+		client.get().uri(ReativoConfig.CAMINHO + "/lancamentos/{id}", lancamento.getId())
+			.header(HttpHeaders.AUTHORIZATION, token(dono)).exchange()
+			.expectStatus().isOk()
+			.expectBody().jsonPath("id").isEqualTo(lancamento.getId().intValue());
+		client.get().uri(ReativoConfig.CAMINHO + "/usuarios/{id}/saldo", dono.getId())
+			.header(HttpHeaders.AUTHORIZATION, token(dono)).exchange()
+			.expectStatus().isOk();
+	}
+
+	private String token(Usuario usuario) {
+		return "Bearer " + tokenService.gerar(usuario).getToken();
+	}
+
+}
@@ -0,0 +1,186 @@
+package com.donte.financas.resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.SoftAssertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.LancamentoRepositoryTest;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.sql.ContadorSql;
+import com.donte.financas.sql.ContagemSql;
+import com.donte.financas.sql.ContagemSqlConfig;
+
+/**
+ * Mede os comandos SQL de cada endpoint, grava o relatorio em target/contagem-sql/endpoints.csv
+ * e confere o orcamento de cada um. O cache de usuarios ja esta carregado, como em producao.
+ */
+@SpringBootTest(properties = "financas.token.habilitado=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(ContagemSqlConfig.class)
+public class ContagemSqlEndpointTest {
+
+	static final Path RELATORIO = Paths.get("target", "contagem-sql", "endpoints.csv");
+	static final int LANCAMENTOS = 200;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	Usuario usuario;
+	List<Lancamento> lancamentos = new ArrayList<>();
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		usuario = usuarioRepository.save(Usuario.builder().nome("usuario").email("contagem@email.com").senha("senha").build());
+		for(int i = 0; i < LANCAMENTOS; i++) {
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamentos.add(lancamento);
+		}
+		lancamentoService.salvarLote(lancamentos);
+		// cria o registro de saldo e carrega o usuario no cache
+		lancamentoService.atualizarStatus(lancamentoService.obterPorId(lancamentos.get(0).getId()).get(), StatusLancamento.EFETIVADO);
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/" + usuario.getId() + "/saldo")).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveManterCadaEndpointDentroDoOrcamentoDeComandosSql() throws Exception {
+		Long id = usuario.getId();
+		String lancamento = "{\"descricao\":\"nova\",\"mes\":3,\"ano\":2021,\"valor\":10,\"usuario\":" + id + ",\"tipo\":\"RECEITA\"}";
+		Map<String, ContagemSql> orcamento = new LinkedHashMap<>();
+		Map<String, ContagemSql> medido = new LinkedHashMap<>();
+
+		medir(medido, orcamento, "GET /api/lancamentos", new ContagemSql(1, 0, 0, 0, 0),
+				MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", id.toString()).param("tamanho", "100"));
+		medir(medido, orcamento, "GET /api/lancamentos/{id}", new ContagemSql(1, 0, 0, 0, 0),
+				MockMvcRequestBuilders.get("/api/lancamentos/" + lancamentos.get(1).getId()));
+		medir(medido, orcamento, "POST /api/lancamentos", new ContagemSql(0, 2, 0, 0, 0),
+				MockMvcRequestBuilders.post("/api/lancamentos").contentType(MediaType.APPLICATION_JSON).content(lancamento));
+		medir(medido, orcamento, "PUT /api/lancamentos/{id}", new ContagemSql(3, 1, 1, 0, 0),
+				MockMvcRequestBuilders.put("/api/lancamentos/" + lancamentos.get(2).getId()).contentType(MediaType.APPLICATION_JSON).content(lancamento));
+		medir(medido, orcamento, "PUT /api/lancamentos/{id}/status", new ContagemSql(3, 1, 2, 0, 0),
+				MockMvcRequestBuilders.put("/api/lancamentos/" + lancamentos.get(3).getId() + "/status").contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"EFETIVADO\"}"));
+		// bloqueio do usuario e dos lancamentos e totais agrupados: o mesmo orcamento para qualquer quantidade de lancamentos
+		medir(medido, orcamento, "PUT /api/lancamentos/status", new ContagemSql(3, 1, 1, 0, 0),
+				MockMvcRequestBuilders.put("/api/lancamentos/status").param("usuario", id.toString()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"CANCELADO\",\"statusAtual\":\"PENDENTE\"}"));
+		medir(medido, orcamento, "DELETE /api/lancamentos/{id}", new ContagemSql(2, 1, 1, 1, 0),
+				MockMvcRequestBuilders.delete("/api/lancamentos/" + lancamentos.get(0).getId()));
+		medir(medido, orcamento, "GET /api/usuarios/{id}/saldo", new ContagemSql(1, 0, 0, 0, 0),
+				MockMvcRequestBuilders.get("/api/usuarios/" + id + "/saldo"));
+		medir(medido, orcamento, "GET /api/usuarios/{id}/fluxo-mensal", new ContagemSql(2, 0, 0, 0, 0),
+				MockMvcRequestBuilders.get("/api/usuarios/" + id + "/fluxo-mensal").param("inicio", "2021-01").param("fim", "2021-12"));
+
+		gravarRelatorio(medido);
+		SoftAssertions verificacao = new SoftAssertions();
+		orcamento.forEach((endpoint, limite) -> verificacao.assertThat(medido.get(endpoint)).as(endpoint).isEqualTo(limite));
+		verificacao.assertAll();
+	}
+
+	@Test
+	public void deveResponderNaoModificadoSemComandosSqlAteAProximaEscrita() throws Exception {
+		Long id = usuario.getId();
+		String[] consultas = { "/api/lancamentos?usuario=" + id, "/api/usuarios/" + id + "/saldo" };
+		String[] etags = new String[consultas.length];
+		for(int i = 0; i < consultas.length; i++) {
+			etags[i] = mvc.perform(MockMvcRequestBuilders.get(consultas[i])).andExpect(MockMvcResultMatchers.status().isOk())
+					.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+					.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+			Assertions.assertThat(etags[i]).as(consultas[i]).isNotNull();
+
+			ContadorSql.zerar();
+			mvc.perform(MockMvcRequestBuilders.get(consultas[i]).header(HttpHeaders.IF_NONE_MATCH, etags[i]))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etags[i]));
+			Assertions.assertThat(ContadorSql.contagem().total()).as(consultas[i]).isZero();
+		}
+
+		lancamentoService.atualizarStatus(lancamentoService.obterPorId(lancamentos.get(1).getId()).get(), StatusLancamento.EFETIVADO);
+
+		// a escrita pode cair no mesmo segundo das leituras: o ETag percebe a mudanca mesmo assim
+		for(int i = 0; i < consultas.length; i++) {
+			mvc.perform(MockMvcRequestBuilders.get(consultas[i]).header(HttpHeaders.IF_NONE_MATCH, etags[i])
+					.header(HttpHeaders.IF_MODIFIED_SINCE, System.currentTimeMillis()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etags[i])));
+		}
+	}
+
+	private void medir(Map<String, ContagemSql> medido, Map<String, ContagemSql> orcamento, String endpoint, ContagemSql limite,
+			RequestBuilder requisicao) throws Exception {
+		ContadorSql.zerar();
+		mvc.perform(requisicao).andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+		medido.put(endpoint, ContadorSql.contagem());
+		orcamento.put(endpoint, limite);
+	}
+
+	private static void gravarRelatorio(Map<String, ContagemSql> medido) throws IOException {
+		List<String> linhas = new ArrayList<>();
+		linhas.add("endpoint;selects;inserts;updates;deletes;outros;total");
+		medido.forEach((endpoint, contagem) -> linhas.add(String.join(";", endpoint,
+				String.valueOf(contagem.getSelects()), String.valueOf(contagem.getInserts()), String.valueOf(contagem.getUpdates()),
+				String.valueOf(contagem.getDeletes()), String.valueOf(contagem.getOutros()), String.valueOf(contagem.total()))));
+		Files.createDirectories(RELATORIO.getParent());
+		Files.write(RELATORIO, linhas, StandardCharsets.UTF_8);
+	}
+
+}
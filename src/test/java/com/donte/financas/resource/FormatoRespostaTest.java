@@ -0,0 +1,143 @@
+package com.donte.financas.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.resource.LancamentoResource;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.ExportacaoService;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDados;
+import com.donte.financas.service.VersaoDadosService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Negociacao de JSON, Smile e CBOR na busca de lancamentos. Grava o tamanho de cada formato,
+ * com e sem gzip, em target/formatos/lancamentos.csv; os tempos de codificacao e decodificacao
+ * ficam no FormatoRespostaBenchmark (modulo benchmarks).
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = LancamentoResource.class)
+public class FormatoRespostaTest {
+
+	static final Path RELATORIO = Paths.get("target", "formatos", "lancamentos.csv");
+	static final int LANCAMENTOS = 10000;
+	static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+	static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	LancamentoService service;
+
+	@MockBean
+	UsuarioService usuarioService;
+
+	@MockBean
+	ExportacaoService exportacaoService;
+
+	@MockBean
+	VersaoDadosService versaoDadosService;
+
+	@Test
+	public void deveNegociarFormatosBinariosMenoresQueOJson() throws Exception {
+		List<ResumoLancamento> resumos = new ArrayList<>();
+		for(int i = 0; i < LANCAMENTOS; i++) {
+			resumos.add(new ResumoLancamento((long) i + 1, "Lancamento " + (i % 50), i % 12 + 1, 2021, new BigDecimal(i % 1000 + ".50"), 1l,
+					TipoLancamento.values()[i % 2], StatusLancamento.values()[i % 3], 0l));
+		}
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(versaoDadosService.obterVersao(1l)).thenReturn(new VersaoDados("W/\"1-a-0\"", 1000l));
+		Mockito.when(service.buscar(Mockito.any(), Mockito.any(), Mockito.any()))
+			.thenReturn(PaginaDTO.<ResumoLancamento>builder().itens(resumos).build());
+
+		Map<String, ObjectMapper> formatos = new LinkedHashMap<>();
+		formatos.put(MediaType.APPLICATION_JSON_VALUE, Jackson2ObjectMapperBuilder.json().build());
+		formatos.put(SMILE.toString(), Jackson2ObjectMapperBuilder.smile().build());
+		formatos.put(CBOR.toString(), Jackson2ObjectMapperBuilder.cbor().build());
+
+		Map<String, byte[]> corpos = new LinkedHashMap<>();
+		List<LancamentoDTO> esperado = null;
+		for(Map.Entry<String, ObjectMapper> formato : formatos.entrySet()) {
+			MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", "1").accept(formato.getKey()))
+					.andExpect(MockMvcResultMatchers.status().isOk())
+					.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(formato.getKey()))
+					.andExpect(MockMvcResultMatchers.header().stringValues(HttpHeaders.VARY, Matchers.hasItem(HttpHeaders.ACCEPT)))
+					.andReturn();
+			byte[] corpo = resultado.getResponse().getContentAsByteArray();
+			List<LancamentoDTO> itens = formato.getValue().readValue(corpo, new TypeReference<PaginaDTO<LancamentoDTO>>() {}).getItens();
+			if(esperado == null) {
+				esperado = itens;
+			}
+			Assertions.assertThat(itens).as(formato.getKey()).hasSize(LANCAMENTOS)
+				.usingComparatorForElementFieldsWithType(BigDecimal::compareTo, BigDecimal.class)
+				.usingFieldByFieldElementComparator().isEqualTo(esperado);
+			corpos.put(formato.getKey(), corpo);
+		}
+
+		gravarRelatorio(corpos);
+		int json = corpos.get(MediaType.APPLICATION_JSON_VALUE).length;
+		Assertions.assertThat(corpos.get(SMILE.toString()).length).isLessThan(json / 2);
+		Assertions.assertThat(corpos.get(CBOR.toString()).length).isLessThan(json);
+	}
+
+	private static void gravarRelatorio(Map<String, byte[]> corpos) throws IOException {
+		List<String> linhas = new ArrayList<>();
+		linhas.add("formato;lancamentos;bytes;bytes_gzip");
+		for(Map.Entry<String, byte[]> corpo : corpos.entrySet()) {
+			linhas.add(String.join(";", corpo.getKey(), String.valueOf(LANCAMENTOS),
+					String.valueOf(corpo.getValue().length), String.valueOf(gzip(corpo.getValue()))));
+		}
+		Files.createDirectories(RELATORIO.getParent());
+		Files.write(RELATORIO, linhas, StandardCharsets.UTF_8);
+	}
+
+	private static int gzip(byte[] corpo) throws IOException {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		try (GZIPOutputStream compactado = new GZIPOutputStream(saida)) {
+			compactado.write(corpo);
+		}
+		return saida.size();
+	}
+
+}
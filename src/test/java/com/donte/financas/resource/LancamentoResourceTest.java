@@ -0,0 +1,254 @@
+package com.donte.financas.resource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.filter.TokenFilter;
+import com.donte.financas.api.resource.LancamentoResource;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.ExportacaoService;
+import com.donte.financas.service.FormatoExportacao;
+import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDados;
+import com.donte.financas.service.VersaoDadosService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = LancamentoResource.class)
+public class LancamentoResourceTest {
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	LancamentoService service;
+
+	@MockBean
+	UsuarioService usuarioService;
+
+	@MockBean
+	ExportacaoService exportacaoService;
+
+	@MockBean
+	VersaoDadosService versaoDadosService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveSalvarUmLoteInformandoOsErrosPorItem() throws Exception {
+		// cenário
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(usuarioService.obterPorIds(Mockito.anyCollection())).thenReturn(Arrays.asList(usuario));
+		Mockito.doThrow(new RegraNegocioException("Informe um valor válido"))
+			.when(service).validar(Mockito.argThat(l -> l.getValor() == null));
+		Mockito.when(service.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			List<Lancamento> lancamentos = invocacao.getArgument(0);
+			long id = 10;
+			for(Lancamento lancamento : lancamentos)
+				lancamento.setId(id++);
+			return lancamentos;
+		});
+
+		List<LancamentoDTO> lote = Arrays.asList(
+				criarDTO(1l),
+				criarDTO(99l),
+				LancamentoDTO.builder().descricao("sem valor").mes(1).ano(2021).usuario(1l).tipo("RECEITA").build(),
+				criarDTO(1l));
+		String json = new ObjectMapper().writeValueAsString(lote);
+
+		// execução e verificação
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/lote")).accept(JSON).contentType(JSON).content(json);
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isCreated())
+		.andExpect(MockMvcResultMatchers.jsonPath("recebidos").value(4))
+		.andExpect(MockMvcResultMatchers.jsonPath("salvos[0].indice").value(0))
+		.andExpect(MockMvcResultMatchers.jsonPath("salvos[0].id").value(10))
+		.andExpect(MockMvcResultMatchers.jsonPath("salvos[1].indice").value(3))
+		.andExpect(MockMvcResultMatchers.jsonPath("salvos[1].id").value(11))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[0].indice").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[0].mensagem").value("Usuario nao encontrado"))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[1].indice").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("erros[1].mensagem").value("Informe um valor válido"));
+
+		Mockito.verify(usuarioService, Mockito.times(1)).obterPorIds(Mockito.anyCollection());
+		Mockito.verify(usuarioService, Mockito.never()).obterPorId(Mockito.anyLong());
+	}
+
+	@Test
+	public void deveExportarOsLancamentosEmStreaming() throws Exception {
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(exportacaoService.exportar(Mockito.eq(1l), Mockito.eq(FormatoExportacao.NDJSON), Mockito.any(OutputStream.class)))
+			.thenAnswer(invocacao -> {
+				OutputStream saida = invocacao.getArgument(2);
+				saida.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+				return 1l;
+			});
+
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/exportacao")).param("usuario", "1").param("formato", "ndjson"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+		.andExpect(MockMvcResultMatchers.content().string("{\"id\":1}\n"));
+	}
+
+	@Test
+	public void deveRecusarExportacaoEmFormatoDesconhecido() throws Exception {
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/exportacao")).param("usuario", "1").param("formato", "xml"))
+		.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	public void deveRecusarUmLoteAcimaDoLimite() throws Exception {
+		List<LancamentoDTO> lote = Collections.nCopies(5001, criarDTO(1l));
+		String json = new ObjectMapper().writeValueAsString(lote);
+
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/lote")).accept(JSON).contentType(JSON).content(json);
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		Mockito.verifyNoInteractions(service);
+	}
+
+	@Test
+	public void deveResponderNaoModificadoSemConsultarOLancamento() throws Exception {
+		VersaoDados versao = new VersaoDados("W/\"1-a-3\"", 1000l);
+		Mockito.when(versaoDadosService.obterVersao(1l)).thenReturn(versao);
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l)
+				.header(HttpHeaders.IF_NONE_MATCH, versao.getEtag()))
+		.andExpect(MockMvcResultMatchers.status().isNotModified())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, versao.getEtag()));
+
+		Mockito.verifyNoInteractions(service);
+	}
+
+	@Test
+	public void deveIgnorarIfModifiedSinceQueNaoDistingueEscritasNoMesmoSegundo() throws Exception {
+		// a escrita aconteceu 1000ms depois do inicio do segundo informado pelo cliente
+		Mockito.when(versaoDadosService.obterVersao(1l)).thenReturn(new VersaoDados("W/\"1-a-4\"", 1500l));
+		Mockito.when(service.obterResumoPorId(10l)).thenReturn(Optional.of(
+				new ResumoLancamento(10l, "Salario", 1, 2021, BigDecimal.TEN, 1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 0l)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l)
+				.header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:01 GMT"))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+	}
+
+	@Test
+	public void deveRecusarALeituraDeUmLancamentoDeOutroUsuario() throws Exception {
+		Mockito.when(versaoDadosService.obterVersao(1l)).thenReturn(new VersaoDados("W/\"1-a-3\"", 1000l));
+		ResumoLancamento deOutro = new ResumoLancamento(10l, "Salario", 1, 2021, BigDecimal.TEN, 2l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 0l);
+		Mockito.when(service.obterResumoPorId(10l)).thenReturn(Optional.of(deOutro));
+		Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(10l, 2l)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l))
+		.andExpect(MockMvcResultMatchers.status().isForbidden())
+		.andExpect(MockMvcResultMatchers.content().string(TokenFilter.ACESSO_NEGADO));
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/10/temp")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+
+	@Test
+	public void deveRecusarAlterarOuExcluirUmLancamentoDeOutroUsuario() throws Exception {
+		ResumoLancamento deOutro = new ResumoLancamento(10l, "Salario", 1, 2021, BigDecimal.TEN, 2l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 0l);
+		Mockito.when(service.obterResumoPorId(10l)).thenReturn(Optional.of(deOutro));
+		Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(10l, 2l)));
+		String proprio = new ObjectMapper().writeValueAsString(criarDTO(1l));
+		String status = "{\"status\":\"EFETIVADO\"}";
+
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(proprio))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/temp/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(proprio))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/status")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(status))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/status1")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(status))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).atualizar(Mockito.any());
+		Mockito.verify(service, Mockito.never()).atualizarStatus(Mockito.anyLong(), Mockito.any());
+		Mockito.verify(service, Mockito.never()).deletar(Mockito.any());
+	}
+
+	@Test
+	public void deveRecusarGravarLancamentosParaOutroUsuario() throws Exception {
+		Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamentoDoUsuario(10l, 1l)));
+		ObjectMapper mapper = new ObjectMapper();
+		String deOutro = mapper.writeValueAsString(criarDTO(2l));
+
+		mvc.perform(MockMvcRequestBuilders.post(API).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(deOutro))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON)
+				.content(mapper.writeValueAsString(Arrays.asList(criarDTO(1l), criarDTO(2l)))))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+		// o lancamento e do usuario, mas o corpo o passaria para outro
+		mvc.perform(MockMvcRequestBuilders.put(API.concat("/10")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).contentType(JSON).content(deOutro))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verify(service, Mockito.never()).salvar(Mockito.any());
+		Mockito.verify(service, Mockito.never()).salvarLote(Mockito.anyList());
+		Mockito.verify(service, Mockito.never()).atualizar(Mockito.any());
+	}
+
+	@Test
+	public void deveBuscarPorTextoNaOrdemDeRelevancia() throws Exception {
+		Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(versaoDadosService.obterVersao(1l)).thenReturn(new VersaoDados("W/\"1-a-3\"", 1000l));
+		Mockito.when(service.buscarPorTexto(1l, "mercado", 5)).thenReturn(Arrays.asList(
+				new ResumoLancamento(7l, "Mercado", 1, 2021, BigDecimal.TEN, 1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 0l),
+				new ResumoLancamento(3l, "Mercado central", 1, 2021, BigDecimal.ONE, 1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 0l)));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/busca-texto")).param("usuario", "1").param("texto", "mercado").param("limite", "5"))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"1-a-3\""))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(7))
+		.andExpect(MockMvcResultMatchers.jsonPath("[1].id").value(3));
+	}
+
+	private static Lancamento lancamentoDoUsuario(Long id, Long usuario) {
+		return Lancamento.builder().id(id).descricao("Salario").mes(1).ano(2021).valor(BigDecimal.TEN)
+				.usuario(Usuario.builder().id(usuario).build()).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).versao(0l).build();
+	}
+
+	private static LancamentoDTO criarDTO(Long usuario) {
+		return LancamentoDTO.builder().descricao("Salario").mes(1).ano(2021).valor(BigDecimal.TEN).usuario(usuario).tipo("RECEITA").build();
+	}
+
+}
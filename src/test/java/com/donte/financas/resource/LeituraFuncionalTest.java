@@ -0,0 +1,169 @@
+package com.donte.financas.resource;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.LancamentoService;
+
+/**
+ * Cenarios de leitura (busca, busca por id e saldo) executados contra o servidor real. Cada pilha
+ * (MVC bloqueante e WebFlux reativa) estende esta classe e informa apenas o caminho e como ler a busca.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "financas.token.habilitado=false")
+@ActiveProfiles("test")
+public abstract class LeituraFuncionalTest {
+
+	@Autowired
+	WebTestClient client;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	Usuario usuario;
+	List<Lancamento> lancamentos;
+
+	/**
+	 * Prefixo das rotas da pilha testada, sem a barra final.
+	 */
+	abstract String caminho();
+
+	/**
+	 * Lancamentos de uma resposta de busca bem sucedida, na ordem recebida.
+	 */
+	abstract List<LancamentoDTO> lerBusca(WebTestClient.ResponseSpec resposta);
+
+	@BeforeEach
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("leitura").email("leitura@email.com").senha("senha").build());
+		lancamentos = Arrays.asList(
+				lancamento("Aluguel", 3, 2021, "30.00", TipoLancamento.DESPESA),
+				lancamento("Salario", 1, 2021, "100.00", TipoLancamento.RECEITA),
+				lancamento("salario extra", 1, 2021, "20.00", TipoLancamento.RECEITA),
+				lancamento("Salario", 12, 2020, "90.00", TipoLancamento.RECEITA));
+		lancamentos.forEach(lancamentoService::salvar);
+		lancamentoService.atualizarStatus(lancamentos.get(0), StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(lancamentos.get(1), StatusLancamento.EFETIVADO);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveBuscarOsLancamentosDoFiltroOrdenadosPorAnoMesEId() {
+		List<LancamentoDTO> encontrados = lerBusca(client.get()
+				.uri(caminho() + "/lancamentos?usuario={usuario}&ano=2021&descricao=SALARIO", usuario.getId()).exchange());
+
+		Assertions.assertThat(encontrados).extracting(LancamentoDTO::getId)
+				.containsExactly(lancamentos.get(1).getId(), lancamentos.get(2).getId());
+		// o WebTestClient le os numeros de um array em streaming como double: o valor e comparado sem a escala
+		Assertions.assertThat(encontrados.get(0)).usingComparatorForType(BigDecimal::compareTo, BigDecimal.class).isEqualToIgnoringGivenFields(
+				LancamentoDTO.builder().descricao("Salario").mes(1).ano(2021).valor(new BigDecimal("100.00"))
+				.usuario(usuario.getId()).tipo("RECEITA").status("EFETIVADO").build(), "id", "versao");
+	}
+
+	@Test
+	public void deveBuscarTodosOsLancamentosDoUsuarioSemFiltro() {
+		List<LancamentoDTO> encontrados = lerBusca(client.get()
+				.uri(caminho() + "/lancamentos?usuario={usuario}", usuario.getId()).exchange());
+
+		Assertions.assertThat(encontrados).extracting(LancamentoDTO::getId).containsExactly(
+				lancamentos.get(3).getId(), lancamentos.get(1).getId(), lancamentos.get(2).getId(), lancamentos.get(0).getId());
+	}
+
+	@Test
+	public void deveRecusarABuscaDeUmUsuarioInexistente() {
+		client.get().uri(caminho() + "/lancamentos?usuario=0").exchange()
+			.expectStatus().isBadRequest()
+			.expectBody(String.class).isEqualTo("Não foi possivel realizar a consulta. Usuário nao encontrado");
+	}
+
+	@Test
+	public void deveObterUmLancamentoPorId() {
+		Lancamento lancamento = lancamentos.get(0);
+
+		client.get().uri(caminho() + "/lancamentos/{id}", lancamento.getId()).exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("id").isEqualTo(lancamento.getId().intValue())
+			.jsonPath("descricao").isEqualTo("Aluguel")
+			.jsonPath("valor").isEqualTo(30.0)
+			.jsonPath("status").isEqualTo("EFETIVADO")
+			.jsonPath("usuario").isEqualTo(usuario.getId().intValue());
+	}
+
+	@Test
+	public void deveRetornarNotFoundParaUmLancamentoInexistente() {
+		client.get().uri(caminho() + "/lancamentos/0").exchange()
+			.expectStatus().isNotFound()
+			.expectBody(String.class).isEqualTo("Lancamento nao encontrado na base de dados");
+	}
+
+	@Test
+	public void deveRecusarUmIdNaoNumerico() {
+		client.get().uri(caminho() + "/lancamentos/abc").exchange()
+			.expectStatus().isBadRequest();
+		client.get().uri(caminho() + "/usuarios/abc/saldo").exchange()
+			.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void deveObterOSaldoDosLancamentosEfetivados() {
+		client.get().uri(caminho() + "/usuarios/{id}/saldo", usuario.getId()).exchange()
+			.expectStatus().isOk()
+			.expectBody(BigDecimal.class).value(saldo -> Assertions.assertThat(saldo).isEqualByComparingTo("70"));
+	}
+
+	@Test
+	public void deveRetornarNotFoundParaOSaldoDeUmUsuarioInexistente() {
+		client.get().uri(caminho() + "/usuarios/0/saldo").exchange()
+			.expectStatus().isNotFound();
+	}
+
+	private Lancamento lancamento(String descricao, int mes, int ano, String valor, TipoLancamento tipo) {
+		return Lancamento.builder().descricao(descricao).mes(mes).ano(ano).valor(new BigDecimal(valor))
+				.tipo(tipo).usuario(usuario).build();
+	}
+
+}
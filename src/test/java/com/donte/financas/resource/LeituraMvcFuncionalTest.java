@@ -0,0 +1,26 @@
+package com.donte.financas.resource;
+
+import java.util.List;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.web.reactive.server.WebTestClient.ResponseSpec;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+
+public class LeituraMvcFuncionalTest extends LeituraFuncionalTest {
+
+	@Override
+	String caminho() {
+		return "/api";
+	}
+
+	@Override
+	List<LancamentoDTO> lerBusca(ResponseSpec resposta) {
+		// os cenarios cabem numa unica pagina
+		return resposta.expectStatus().isOk()
+				.expectBody(new ParameterizedTypeReference<PaginaDTO<LancamentoDTO>>() {})
+				.returnResult().getResponseBody().getItens();
+	}
+
+}
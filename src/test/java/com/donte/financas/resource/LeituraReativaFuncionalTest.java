@@ -0,0 +1,60 @@
+package com.donte.financas.resource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient.ResponseSpec;
+
+import com.donte.financas.api.dto.LancamentoDTO;
+import com.donte.financas.config.ReativoConfig;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public class LeituraReativaFuncionalTest extends LeituraFuncionalTest {
+
+	@Override
+	String caminho() {
+		return ReativoConfig.CAMINHO;
+	}
+
+	@Override
+	List<LancamentoDTO> lerBusca(ResponseSpec resposta) {
+		return resposta.expectStatus().isOk()
+				.expectBodyList(LancamentoDTO.class)
+				.returnResult().getResponseBody();
+	}
+
+	@Test
+	public void deveEnviarUmaBuscaGrandeEmStreamingParaUmClienteLento() {
+		List<Lancamento> lote = new ArrayList<>();
+		for(int i = 0; i < 2000; i++) {
+			lote.add(Lancamento.builder().descricao("lote " + i).mes(6).ano(2022).valor(BigDecimal.ONE)
+					.tipo(TipoLancamento.DESPESA).usuario(usuario).build());
+		}
+		lancamentoService.salvarLote(lote);
+
+		Flux<LancamentoDTO> linhas = client.mutate().responseTimeout(Duration.ofMinutes(1)).build()
+				.get().uri(caminho() + "/lancamentos?usuario={usuario}&ano=2022", usuario.getId())
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(LancamentoDTO.class).getResponseBody();
+
+		// o cliente pede de 10 em 10 e demora a ler os primeiros
+		StepVerifier.create(linhas.limitRate(10), 10)
+			.expectNextCount(10)
+			.thenAwait(Duration.ofMillis(200))
+			.thenRequest(Long.MAX_VALUE)
+			.expectNextCount(1990)
+			.verifyComplete();
+	}
+
+}
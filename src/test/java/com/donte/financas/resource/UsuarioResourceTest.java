@@ -1,5 +1,10 @@
 package com.donte.financas.resource;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Optional;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -15,13 +20,21 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.api.dto.TokenDTO;
 import com.donte.financas.api.dto.UsuarioDTO;
+import com.donte.financas.api.filter.TokenFilter;
 import com.donte.financas.api.resource.UsuarioResource;
 import com.donte.financas.exception.ErroAutenticacaoException;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.TotalLancamento;
 import com.donte.financas.service.LancamentoService;
+import com.donte.financas.service.TokenService;
 import com.donte.financas.service.UsuarioService;
+import com.donte.financas.service.VersaoDadosService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @ActiveProfiles("test")
@@ -41,6 +54,12 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 
+	@MockBean
+	TokenService tokenService;
+
+	@MockBean
+	VersaoDadosService versaoDadosService;
+
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		// cenário
@@ -50,6 +69,7 @@ public class UsuarioResourceTest {
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(tokenService.gerar(usuario)).thenReturn(TokenDTO.builder().id(1l).email(email).token("abc.def.ghi").build());
 		String json = new ObjectMapper().writeValueAsString(dto);
 
 		// execução e verificação
@@ -58,6 +78,7 @@ public class UsuarioResourceTest {
 		.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
 		.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+		.andExpect(MockMvcResultMatchers.jsonPath("token").value("abc.def.ghi"))
 		;
 	}
 
@@ -121,4 +142,50 @@ public class UsuarioResourceTest {
 		mvc.perform(request).andExpect( MockMvcResultMatchers.status().isBadRequest() );
 	}
 
+	@Test
+	public void deveRetornarOFluxoMensalDoUsuario() throws Exception {
+		// cenário
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		TotalLancamento total = new TotalLancamento(2021, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN, 2L);
+		FluxoMensalDTO fluxo = FluxoMensalDTO.builder().totais(Arrays.asList(total)).atualizado(false).alteracoesPendentes(3).build();
+		Mockito.when(lancamentoService.obterFluxoMensal(1l, YearMonth.of(2020, 12), YearMonth.of(2021, 2))).thenReturn(fluxo);
+
+		// execução e verificação
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/fluxo-mensal"))
+				.param("inicio", "2020-12").param("fim", "2021-02").accept(JSON);
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("totais[0].ano").value(2021))
+		.andExpect(MockMvcResultMatchers.jsonPath("totais[0].tipo").value("RECEITA"))
+		.andExpect(MockMvcResultMatchers.jsonPath("totais[0].quantidade").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("atualizado").value(false))
+		.andExpect(MockMvcResultMatchers.jsonPath("alteracoesPendentes").value(3));
+	}
+
+	@Test
+	public void deveRecusarSaldoEFluxoMensalDeOutroUsuario() throws Exception {
+		Mockito.when(service.obterPorId(2l)).thenReturn(Optional.of(Usuario.builder().id(2l).build()));
+
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/2/saldo")).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l))
+		.andExpect(MockMvcResultMatchers.status().isForbidden())
+		.andExpect(MockMvcResultMatchers.content().string(TokenFilter.ACESSO_NEGADO));
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/2/fluxo-mensal")).param("inicio", "2020-12").param("fim", "2021-02")
+				.requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l))
+		.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Mockito.verifyNoInteractions(lancamentoService);
+	}
+
+	@Test
+	public void deveListarApenasOProprioUsuarioAutenticado() throws Exception {
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).nome("usuario").build()));
+
+		mvc.perform(MockMvcRequestBuilders.get(API).requestAttr(TokenFilter.ATRIBUTO_USUARIO, 1l).accept(JSON))
+		.andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("length()").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(1));
+
+		Mockito.verify(service, Mockito.never()).obterTodos();
+	}
+
 }
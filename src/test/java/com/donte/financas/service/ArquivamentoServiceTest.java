@@ -0,0 +1,174 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.LancamentoArquivadoRepository;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoAnualRepository;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.model.repository.UsuarioRepository;
+
+/**
+ * Arquivamento com transacoes reais no H2, em lotes menores que um ano.
+ */
+@SpringBootTest(properties = "financas.arquivamento.tamanho-lote=2")
+@ActiveProfiles("test")
+public class ArquivamentoServiceTest {
+
+	static final int ANO_ATUAL = Year.now().getValue();
+
+	@Autowired
+	ArquivamentoService arquivamentoService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	SaldoService saldoService;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	LancamentoArquivadoRepository arquivadoRepository;
+
+	@Autowired
+	ResumoAnualRepository resumoAnualRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("arquivo").email("arquivo@email.com").senha("senha").build());
+		// 2015 encerrado: tudo efetivado ou cancelado
+		lancamentoService.salvarLote(new ArrayList<>(Arrays.asList(
+				lancamento(2015, 1, TipoLancamento.RECEITA, 100), lancamento(2015, 1, TipoLancamento.RECEITA, 50),
+				lancamento(2015, 3, TipoLancamento.DESPESA, 30), lancamento(2015, 12, TipoLancamento.RECEITA, 20))));
+		efetivar(2015);
+		Lancamento cancelado = lancamentoService.salvar(lancamento(2015, 6, TipoLancamento.DESPESA, 999));
+		lancamentoService.atualizarStatus(cancelado, StatusLancamento.CANCELADO);
+		// 2016 ainda tem um pendente e o ano atual nunca e arquivado
+		lancamentoService.salvar(lancamento(2016, 2, TipoLancamento.RECEITA, 7));
+		efetivar(2016);
+		lancamentoService.salvar(lancamento(2016, 5, TipoLancamento.DESPESA, 3));
+		lancamentoService.salvar(lancamento(ANO_ATUAL, 1, TipoLancamento.RECEITA, 1));
+		efetivar(ANO_ATUAL);
+		resumoMensalService.processarPendentes();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		arquivadoRepository.deleteAll();
+		resumoAnualRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveArquivarApenasOsAnosEncerradosSemAlterarOSaldo() {
+		BigDecimal saldo = saldoService.obterSaldo(usuario.getId());
+
+		int arquivados = arquivamentoService.arquivarAnosEncerrados();
+
+		Assertions.assertThat(arquivados).isEqualTo(5);
+		Assertions.assertThat(arquivadoRepository.findAll()).extracting(a -> a.getAno()).containsOnly(2015);
+		Assertions.assertThat(lancamentoRepository.findAll()).extracting(Lancamento::getAno).containsExactlyInAnyOrder(2016, 2016, ANO_ATUAL);
+		Assertions.assertThat(resumoAnualRepository.obterTotaisPorTipoEStatus(usuario.getId())).containsExactlyInAnyOrder(
+				new TotalLancamento(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, new BigDecimal("170.00"), 3L),
+				new TotalLancamento(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, new BigDecimal("30.00"), 1L),
+				new TotalLancamento(TipoLancamento.DESPESA, StatusLancamento.CANCELADO, new BigDecimal("999.00"), 1L));
+		// a reconciliacao soma os totais anuais e nao encontra divergencia
+		Assertions.assertThat(saldoService.reconciliar(usuario.getId())).isEmpty();
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo(saldo).isEqualByComparingTo("148");
+		// uma segunda execucao nao encontra mais nada a mover
+		Assertions.assertThat(arquivamentoService.arquivarAnosEncerrados()).isZero();
+	}
+
+	@Test
+	public void deveLerOArquivoApenasQuandoOAnoBuscadoEAntigo() {
+		arquivamentoService.arquivarAnosEncerrados();
+		lancamentoService.salvar(lancamento(2015, 2, TipoLancamento.RECEITA, 5));
+
+		List<ResumoLancamento> anoAntigo = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaDTO<ResumoLancamento> pagina = lancamentoService.buscar(filtro(2015), cursor, 2);
+			anoAntigo.addAll(pagina.getItens());
+			cursor = pagina.getProximoCursor();
+		} while(cursor != null);
+
+		Assertions.assertThat(anoAntigo).extracting(ResumoLancamento::getMes).containsExactly(1, 1, 2, 3, 6, 12);
+		Assertions.assertThat(lancamentoService.buscar(filtro(null), null, 50).getItens())
+				.extracting(ResumoLancamento::getAno).containsExactly(2015, 2016, 2016, ANO_ATUAL);
+	}
+
+	@Test
+	public void deveManterOsTotaisArquivadosAoRecalcularUmMesArquivado() {
+		arquivamentoService.arquivarAnosEncerrados();
+		lancamentoService.salvar(lancamento(2015, 1, TipoLancamento.DESPESA, 10));
+		resumoMensalService.processarPendentes();
+
+		FluxoMensalDTO fluxo = lancamentoService.obterFluxoMensal(usuario.getId(), YearMonth.of(2015, 1), YearMonth.of(2015, 1));
+
+		Assertions.assertThat(fluxo.getTotais()).containsExactlyInAnyOrder(
+				new TotalLancamento(2015, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, new BigDecimal("10.00"), 1L),
+				new TotalLancamento(2015, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, new BigDecimal("150.00"), 2L));
+	}
+
+	private void efetivar(int ano) {
+		lancamentoService.atualizarStatusEmLote(usuario.getId(), AtualizarStatusLoteDTO.builder()
+				.status(StatusLancamento.EFETIVADO.name()).ano(ano).statusAtual(StatusLancamento.PENDENTE.name()).build());
+	}
+
+	private Lancamento filtro(Integer ano) {
+		return Lancamento.builder().usuario(usuario).ano(ano).build();
+	}
+
+	private Lancamento lancamento(int ano, int mes, TipoLancamento tipo, int valor) {
+		return Lancamento.builder().descricao("lancamento " + ano + "/" + mes).ano(ano).mes(mes).tipo(tipo)
+				.valor(BigDecimal.valueOf(valor)).usuario(usuario).build();
+	}
+
+}
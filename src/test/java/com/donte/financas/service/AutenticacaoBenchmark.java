@@ -0,0 +1,56 @@
+package com.donte.financas.service;
+
+import java.time.Clock;
+import java.util.Optional;
+
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.impl.TokenServiceImpl;
+import com.donte.financas.service.impl.UsuarioServiceImpl;
+
+/**
+ * Mede a vazao do login (BCrypt com o custo informado) e a latencia da validacao do token.
+ * Nao roda com os testes; execute pela IDE ou com
+ * mvn test-compile exec:java -Dexec.mainClass=com.donte.financas.service.AutenticacaoBenchmark -Dexec.classpathScope=test
+ * Argumentos opcionais: custo do BCrypt (padrao 10) e duracao de cada medicao em segundos (padrao 5).
+ */
+public class AutenticacaoBenchmark {
+
+	public static void main(String[] args) {
+		int custo = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		long duracaoNanos = (args.length > 1 ? Long.parseLong(args[1]) : 5) * 1_000_000_000L;
+
+		UsuarioRepository repository = Mockito.mock(UsuarioRepository.class);
+		Usuario usuario = Usuario.builder().id(1L).email("usuario@email.com").senha(new BCryptPasswordEncoder(custo).encode("senha")).build();
+		Mockito.when(repository.findByEmail("usuario@email.com")).thenReturn(Optional.of(usuario));
+		UsuarioServiceImpl usuarioService = new UsuarioServiceImpl(repository, 100, 10, custo);
+		TokenServiceImpl tokenService = new TokenServiceImpl("segredo-do-benchmark-com-pelo-menos-32-bytes", 60, Clock.systemUTC());
+
+		// aquecimento do JIT antes das medicoes
+		medir(() -> usuarioService.autenticar("usuario@email.com", "senha"), duracaoNanos / 5);
+		String token = tokenService.gerar(usuario).getToken();
+		medir(() -> tokenService.validar(token), duracaoNanos / 5);
+
+		long logins = medir(() -> tokenService.gerar(usuarioService.autenticar("usuario@email.com", "senha")), duracaoNanos);
+		System.out.printf("login (bcrypt custo %d): %.1f por segundo por thread, %.2f ms cada%n",
+				custo, logins * 1e9 / duracaoNanos, duracaoNanos / 1e6 / logins);
+
+		long validacoes = medir(() -> tokenService.validar(token), duracaoNanos);
+		System.out.printf("validacao do token: %.0f por segundo por thread, %.2f us cada%n",
+				validacoes * 1e9 / duracaoNanos, duracaoNanos / 1e3 / validacoes);
+	}
+
+	private static long medir(Runnable operacao, long duracaoNanos) {
+		long fim = System.nanoTime() + duracaoNanos;
+		long quantidade = 0;
+		while(System.nanoTime() < fim) {
+			operacao.run();
+			quantidade++;
+		}
+		return quantidade;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.donte.financas.service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.service.impl.ExportacaoServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ExportacaoServiceTest {
+
+	LancamentoRepository repository;
+	ExportacaoServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		repository = Mockito.mock(LancamentoRepository.class);
+		service = new ExportacaoServiceImpl(repository, new ObjectMapper());
+	}
+
+	@Test
+	public void deveExportarEmCsvEscapandoADescricao() throws Exception {
+		Mockito.when(repository.streamPorUsuario(1L)).thenReturn(Stream.of(
+				lancamento(1L, "Salario", "1000.00"),
+				lancamento(2L, "Mercado; feira \"central\"", "200.50")));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+		long quantidade = service.exportar(1L, FormatoExportacao.CSV, saida);
+
+		Assertions.assertThat(quantidade).isEqualTo(2);
+		Assertions.assertThat(saida.toString(StandardCharsets.UTF_8.name())).isEqualTo(
+				"id;descricao;mes;ano;valor;tipo;status\n"
+				+ "1;Salario;3;2021;1000.00;RECEITA;PENDENTE\n"
+				+ "2;\"Mercado; feira \"\"central\"\"\";3;2021;200.50;RECEITA;PENDENTE\n");
+	}
+
+	@Test
+	public void deveExportarEmCsvEntreAspasADescricaoComQuebraDeLinha() throws Exception {
+		Mockito.when(repository.streamPorUsuario(1L)).thenReturn(Stream.of(
+				lancamento(1L, "Conta\rde luz", "80.00"),
+				lancamento(2L, "Conta\r\nde agua", "40.00")));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+		service.exportar(1L, FormatoExportacao.CSV, saida);
+
+		// um \r sozinho tambem termina o registro para os leitores de CSV e para o Excel
+		Assertions.assertThat(saida.toString(StandardCharsets.UTF_8.name())).isEqualTo(
+				"id;descricao;mes;ano;valor;tipo;status\n"
+				+ "1;\"Conta\rde luz\";3;2021;80.00;RECEITA;PENDENTE\n"
+				+ "2;\"Conta\r\nde agua\";3;2021;40.00;RECEITA;PENDENTE\n");
+	}
+
+	@Test
+	public void deveExportarUmObjetoJsonPorLinhaELimparASessaoACadaLote() throws Exception {
+		int total = 2 * LancamentoRepository.FETCH_SIZE_EXPORTACAO + 1;
+		Mockito.when(repository.streamPorUsuario(1L)).thenReturn(
+				IntStream.rangeClosed(1, total).mapToObj(i -> lancamento((long) i, "Item " + i, "1")));
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+		long quantidade = service.exportar(1L, FormatoExportacao.NDJSON, saida);
+
+		String[] linhas = saida.toString(StandardCharsets.UTF_8.name()).split("\n");
+		Assertions.assertThat(quantidade).isEqualTo(total);
+		Assertions.assertThat(linhas).hasSize(total);
+		Assertions.assertThat(new ObjectMapper().readTree(linhas[0]).get("descricao").asText()).isEqualTo("Item 1");
+		Mockito.verify(repository, Mockito.times(2)).limparSessao();
+	}
+
+	private Lancamento lancamento(Long id, String descricao, String valor) {
+		return Lancamento.builder().id(id).descricao(descricao).mes(3).ano(2021)
+				.valor(new BigDecimal(valor)).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE)
+				.usuario(Usuario.builder().id(1L).build()).build();
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.donte.financas.service;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+
+import com.donte.financas.api.dto.ImportacaoDTO;
+import com.donte.financas.exception.RegraNegocioException;
+import com.donte.financas.exception.ServicoSobrecarregadoException;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.service.impl.ImportacaoServiceImpl;
+
+public class ImportacaoServiceTest {
+
+	LancamentoService lancamentoService;
+	UsuarioService usuarioService;
+	ImportacaoServiceImpl service;
+	List<List<Lancamento>> blocos;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		lancamentoService = Mockito.mock(LancamentoService.class);
+		usuarioService = Mockito.mock(UsuarioService.class);
+		Mockito.when(usuarioService.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		blocos = new ArrayList<>();
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocacao -> {
+			List<Lancamento> bloco = new ArrayList<>((List<Lancamento>) invocacao.getArgument(0));
+			blocos.add(bloco);
+			return bloco;
+		});
+		// executor sincrono: a importacao termina antes de iniciar() retornar
+		service = new ImportacaoServiceImpl(lancamentoService, usuarioService, Runnable::run, 2);
+	}
+
+	@Test
+	public void deveImportarEmBlocosERegistrarAsLinhasRejeitadas() throws Exception {
+		Mockito.doThrow(new RegraNegocioException("Informe um valor válido"))
+			.when(lancamentoService).validar(Mockito.argThat(l -> l.getValor().signum() == 0));
+		String csv = "data;descricao;valor\n"
+				+ "01/03/2021;Salario;1000,00\n"
+				+ "02/03/2021;Mercado;-200,00\n"
+				+ "03/03/2021;Zerado;0,00\n"
+				+ "xx/03/2021;Quebrado;1,00\n"
+				+ "04/03/2021;Farmacia;-30,00\n";
+
+		ImportacaoDTO importacao = service.iniciar(1L, "CSV", null, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+		ImportacaoDTO resultado = service.obter(importacao.getId()).get();
+
+		Assertions.assertThat(resultado.getSituacao()).isEqualTo("CONCLUIDA");
+		Assertions.assertThat(resultado.getLidas()).isEqualTo(5);
+		Assertions.assertThat(resultado.getImportadas()).isEqualTo(3);
+		Assertions.assertThat(resultado.getRejeitadas()).isEqualTo(2);
+
+		Assertions.assertThat(blocos).hasSize(2);
+		Assertions.assertThat(blocos.get(0)).extracting(Lancamento::getTipo).containsExactly(TipoLancamento.RECEITA, TipoLancamento.DESPESA);
+		Assertions.assertThat(blocos.get(0).get(1).getValor()).isEqualByComparingTo("200");
+		Assertions.assertThat(blocos.get(1)).extracting(Lancamento::getDescricao).containsExactly("Farmacia");
+
+		Path rejeitadas = service.obterRejeitadas(importacao.getId()).get();
+		List<String> linhas = Files.readAllLines(rejeitadas, StandardCharsets.UTF_8);
+		Assertions.assertThat(linhas).hasSize(3);
+		Assertions.assertThat(linhas.get(1)).startsWith("4;\"Informe um valor válido\"");
+		Assertions.assertThat(linhas.get(2)).startsWith("5;\"Data inválida");
+	}
+
+	@Test
+	public void deveRejeitarOBlocoInteiroQuandoAGravacaoFalhar() throws Exception {
+		Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenThrow(new IllegalStateException("banco fora"));
+		String csv = "01/03/2021;Salario;1000,00\n02/03/2021;Mercado;-200,00\n";
+
+		ImportacaoDTO importacao = service.iniciar(1L, "csv", null, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+		ImportacaoDTO resultado = service.obter(importacao.getId()).get();
+
+		Assertions.assertThat(resultado.getSituacao()).isEqualTo("CONCLUIDA");
+		Assertions.assertThat(resultado.getImportadas()).isZero();
+		Assertions.assertThat(resultado.getRejeitadas()).isEqualTo(2);
+	}
+
+	@Test
+	public void deveLerOfxNoCharsetDoCabecalho() {
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\nENCODING:USASCII\nCHARSET:1252\n\n"
+				+ "<OFX><STMTTRN>\n<DTPOSTED>20210305\n<TRNAMT>-12.50\n<MEMO>Padaria São João\n</STMTTRN></OFX>";
+
+		ImportacaoDTO importacao = service.iniciar(1L, "ofx", null, new ByteArrayInputStream(ofx.getBytes(Charset.forName("windows-1252"))));
+
+		Assertions.assertThat(service.obter(importacao.getId()).get().getSituacao()).isEqualTo("CONCLUIDA");
+		Assertions.assertThat(blocos.get(0)).extracting(Lancamento::getDescricao).containsExactly("Padaria São João");
+	}
+
+	@Test
+	public void deveLerCsvNoCharsetInformado() {
+		String csv = "01/03/2021;Farmácia Popular;-30,00\n";
+		byte[] latin1 = csv.getBytes(Charset.forName("windows-1252"));
+
+		ImportacaoDTO utf8 = service.iniciar(1L, "csv", null, new ByteArrayInputStream(latin1));
+		Assertions.assertThat(service.obter(utf8.getId()).get().getSituacao()).isEqualTo("FALHOU");
+
+		ImportacaoDTO windows1252 = service.iniciar(1L, "csv", "windows-1252", new ByteArrayInputStream(latin1));
+		Assertions.assertThat(service.obter(windows1252.getId()).get().getSituacao()).isEqualTo("CONCLUIDA");
+		Assertions.assertThat(blocos.get(0)).extracting(Lancamento::getDescricao).containsExactly("Farmácia Popular");
+
+		Throwable throwable = Assertions.catchThrowable(() -> service.iniciar(1L, "csv", "nao-existe", new ByteArrayInputStream(latin1)));
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class);
+	}
+
+	@Test
+	public void deveDescartarAImportacaoQuandoAFilaEstiverCheia() throws Exception {
+		long temporarios = contarTemporarios();
+		service = new ImportacaoServiceImpl(lancamentoService, usuarioService, tarefa -> {
+			throw new TaskRejectedException("fila cheia");
+		}, 2);
+
+		Throwable throwable = Assertions.catchThrowable(() -> service.iniciar(1L, "csv", null,
+				new ByteArrayInputStream("01/03/2021;Salario;1000,00\n".getBytes(StandardCharsets.UTF_8))));
+
+		Assertions.assertThat(throwable).isInstanceOf(ServicoSobrecarregadoException.class);
+		Assertions.assertThat(contarTemporarios()).isEqualTo(temporarios);
+	}
+
+	private static long contarTemporarios() throws Exception {
+		try(Stream<Path> arquivos = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+			return arquivos.filter(arquivo -> arquivo.getFileName().toString().startsWith("importacao-")).count();
+		}
+	}
+
+	@Test
+	public void deveRecusarFormatoDesconhecido() {
+		Throwable throwable = Assertions.catchThrowable(() -> service.iniciar(1L, "xls", null, new ByteArrayInputStream(new byte[0])));
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class);
+	}
+
+}
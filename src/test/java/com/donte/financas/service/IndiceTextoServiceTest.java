@@ -0,0 +1,139 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.UsuarioRepository;
+
+/**
+ * Indice de texto mantido pelas escritas do {@link LancamentoService}, com transacoes reais no H2.
+ * O pool tem uma unica conexao: uma busca que carrega o indice sem soltar a conexao da propria
+ * transacao esperaria por ela ate o timeout.
+ */
+@SpringBootTest(properties = { "spring.datasource.hikari.maximum-pool-size=1", "spring.datasource.hikari.connection-timeout=2000" })
+@ActiveProfiles("test")
+public class IndiceTextoServiceTest {
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	IndiceTextoService indiceTextoService;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("texto").email("texto@email.com").senha("senha").build());
+		lancamentoService.salvar(lancamento("Supermercado Extra"));
+		lancamentoService.salvar(lancamento("Conta de luz"));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveRefletirAsEscritasConfirmadasNoIndiceCarregado() {
+		// a primeira busca carrega o indice a partir da tabela
+		Assertions.assertThat(buscar("supermercado")).containsExactly("Supermercado Extra");
+
+		Lancamento novo = lancamentoService.salvar(lancamento("Mercado Livre"));
+		Assertions.assertThat(buscar("mercado")).containsExactly("Mercado Livre");
+
+		Lancamento alterado = lancamentoService.obterPorId(novo.getId()).get();
+		alterado.setDescricao("Padaria");
+		lancamentoService.atualizar(alterado);
+		Assertions.assertThat(buscar("mercado")).isEmpty();
+		Assertions.assertThat(buscar("padaria")).containsExactly("Padaria");
+
+		lancamentoService.deletar(lancamentoService.obterPorId(novo.getId()).get());
+		Assertions.assertThat(buscar("padaria")).isEmpty();
+	}
+
+	@Test
+	public void deveCarregarOIndiceComUmaUnicaConexaoNoPool() {
+		// indice ainda nao carregado: a busca carrega e depois completa os resumos, uma conexao de cada vez
+		Assertions.assertThat(buscar("luz")).containsExactly("Conta de luz");
+	}
+
+	@Test
+	public void naoDeveIndexarUmaEscritaDesfeita() {
+		buscar("luz");
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			lancamentoService.salvar(lancamento("Conta de agua"));
+			status.setRollbackOnly();
+		});
+
+		Assertions.assertThat(buscar("conta")).containsExactly("Conta de luz");
+	}
+
+	@Test
+	public void deveReconstruirOIndiceAPartirDaTabela() {
+		buscar("luz");
+		// alteracao que nao passa pelo LancamentoService
+		Lancamento luz = lancamentoRepository.findAll().stream().filter(l -> l.getDescricao().equals("Conta de luz")).findFirst().get();
+		luz.setDescricao("Conta de gas");
+		lancamentoRepository.save(luz);
+		Assertions.assertThat(buscar("gas")).isEmpty();
+
+		indiceTextoService.reconstruir(usuario.getId());
+
+		Assertions.assertThat(buscar("gas")).containsExactly("Conta de gas");
+		Assertions.assertThat(buscar("luz")).isEmpty();
+	}
+
+	private List<String> buscar(String texto) {
+		return lancamentoService.buscarPorTexto(usuario.getId(), texto, 10).stream()
+				.map(ResumoLancamento::getDescricao).collect(Collectors.toList());
+	}
+
+	private Lancamento lancamento(String descricao) {
+		return Lancamento.builder().descricao(descricao).ano(2021).mes(1).tipo(TipoLancamento.DESPESA)
+				.valor(BigDecimal.TEN).usuario(usuario).build();
+	}
+
+}
@@ -0,0 +1,183 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.donte.financas.api.dto.AtualizarStatusDTO;
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.LancamentoRepositoryTest;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.model.repository.UsuarioRepository;
+
+/**
+ * Varias threads alterando os mesmos lancamentos ao mesmo tempo, com transacoes reais no H2.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class LancamentoConcorrenciaTest {
+
+	static final int THREADS = 4;
+	static final int OPERACOES_POR_THREAD = 20;
+
+	@Autowired
+	LancamentoService service;
+
+	@Autowired
+	SaldoService saldoService;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	LancamentoRepository repository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	ResumoMensalRepository resumoMensalRepository;
+
+	@Autowired
+	ResumoMensalPendenteRepository resumoMensalPendenteRepository;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("concorrencia").email("concorrencia@email.com").senha("senha").build());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repository.deleteAll();
+		saldoRepository.deleteAll();
+		resumoMensalRepository.deleteAll();
+		resumoMensalPendenteRepository.deleteAll();
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void naoDevePerderAtualizacoesConcorrentesDoMesmoLancamento() throws Exception {
+		Lancamento lancamento = criar(BigDecimal.ONE);
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		AtomicInteger conflitos = new AtomicInteger();
+
+		// cada operacao le, soma 1 ao valor e grava; em conflito o cliente le de novo e repete
+		executarEmParalelo(() -> {
+			while(true) {
+				try {
+					transacao.execute(status -> {
+						Lancamento atual = service.obterPorId(lancamento.getId()).get();
+						atual.setValor(atual.getValor().add(BigDecimal.ONE));
+						return service.atualizar(atual);
+					});
+					return null;
+				}catch (ConcurrencyFailureException e) {
+					conflitos.incrementAndGet();
+				}
+			}
+		});
+
+		Lancamento atualizado = repository.findById(lancamento.getId()).get();
+		Assertions.assertThat(atualizado.getValor()).isEqualByComparingTo(BigDecimal.valueOf(1 + THREADS * OPERACOES_POR_THREAD));
+		Assertions.assertThat(atualizado.getVersao()).isEqualTo(THREADS * OPERACOES_POR_THREAD);
+	}
+
+	@Test
+	public void deveManterOSaldoConsistenteComMudancasDeStatusConcorrentes() throws Exception {
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for(int i = 0; i < 3; i++) {
+			lancamentos.add(criar(BigDecimal.valueOf(10 * (i + 1))));
+		}
+		StatusLancamento[] status = { StatusLancamento.EFETIVADO, StatusLancamento.CANCELADO, StatusLancamento.PENDENTE };
+		AtomicInteger sequencia = new AtomicInteger();
+		AtomicInteger desistencias = new AtomicInteger();
+
+		executarEmParalelo(() -> {
+			int n = sequencia.getAndIncrement();
+			Lancamento alvo = lancamentos.get(n % lancamentos.size());
+			try {
+				service.atualizarStatus(alvo.getId(), new AtualizarStatusDTO(status[(n / lancamentos.size()) % status.length].name()));
+			}catch (ConcurrencyFailureException e) {
+				// esgotou as tentativas: nada foi gravado, o saldo continua valendo
+				desistencias.incrementAndGet();
+			}
+			return null;
+		});
+
+		Assertions.assertThat(saldoService.reconciliar(usuario.getId())).isEmpty();
+		Assertions.assertThat(desistencias.get()).isLessThan(THREADS * OPERACOES_POR_THREAD / 10);
+
+		// processada a fila, o resumo mensal tambem reflete todas as alteracoes gravadas
+		resumoMensalService.processarPendentes();
+		YearMonth mes = YearMonth.of(lancamentos.get(0).getAno(), lancamentos.get(0).getMes());
+		FluxoMensalDTO fluxo = resumoMensalService.obterFluxoMensal(usuario.getId(), mes, mes);
+		Assertions.assertThat(fluxo.isAtualizado()).isTrue();
+		Assertions.assertThat(fluxo.getTotais().stream().map(TotalLancamento::contribuicao).reduce(BigDecimal.ZERO, BigDecimal::add))
+			.isEqualByComparingTo(saldoService.obterSaldo(usuario.getId()));
+	}
+
+	private Lancamento criar(BigDecimal valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setValor(valor);
+		return service.salvar(lancamento);
+	}
+
+	private void executarEmParalelo(Callable<Void> operacao) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Void>> resultados = new ArrayList<>();
+		for(int t = 0; t < THREADS; t++) {
+			resultados.add(executor.submit(() -> {
+				largada.await();
+				for(int i = 0; i < OPERACOES_POR_THREAD; i++) {
+					operacao.call();
+				}
+				return null;
+			}));
+		}
+		largada.countDown();
+		try {
+			for(Future<Void> resultado : resultados) {
+				resultado.get(2, TimeUnit.MINUTES);
+			}
+		}finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
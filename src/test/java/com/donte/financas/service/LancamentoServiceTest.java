@@ -13,15 +13,27 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.data.domain.Example;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.donte.financas.api.dto.AtualizarStatusDTO;
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.ItemLoteDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.dto.ResultadoStatusLoteDTO;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Lancamento;
 import com.donte.financas.model.entity.Usuario;
 import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.CursorLancamento;
 import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.MesLancamento;
 import com.donte.financas.model.repository.LancamentoRepositoryTest;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.model.repository.SituacaoLancamento;
 import com.donte.financas.service.impl.LancamentoServiceImpl;
 
 @ExtendWith(SpringExtension.class)
@@ -34,6 +46,21 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 
+	@MockBean
+	SaldoService saldoService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
+	@MockBean
+	VersaoDadosService versaoDadosService;
+
+	@MockBean
+	IndiceTextoService indiceTextoService;
+
+	@MockBean
+	PlatformTransactionManager transactionManager;
+
 	@Test
 	public void deveSalvarUmLancamento() {
 		//cenário
@@ -53,6 +80,24 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(lancamento.getStatus()).isEqualTo(lancamentoSalvo.getStatus());
 	}
 
+	@Test
+	public void deveSalvarUmLoteComoPendente() {
+		//cenário
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setStatus(StatusLancamento.EFETIVADO);
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		List<Lancamento> lote = Arrays.asList(primeiro, segundo);
+		Mockito.doNothing().when(service).validar(Mockito.any(Lancamento.class));
+
+		//execucao
+		List<Lancamento> salvos = service.salvarLote(lote);
+
+		//verificacao
+		Assertions.assertThat(salvos).extracting(Lancamento::getStatus).containsOnly(StatusLancamento.PENDENTE);
+		Mockito.verify(repository).persistirEmLote(lote);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+	}
+
 	@Test
 	public void naoDeveSalvarUmLancamentoQuandoHouverErroDeValidacao() {
 		//cenário
@@ -80,6 +125,76 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
 	}
 	
+	@Test
+	public void deveRegistrarNoSaldoASituacaoAnteriorEANovaAoAtualizar() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		ResumoLancamento gravado = criarResumo(1L);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(gravado));
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+		//execucao
+		service.atualizar(lancamento);
+
+		//verificacao
+		Mockito.verify(saldoService).registrarAlteracao(SituacaoLancamento.de(gravado), SituacaoLancamento.de(lancamento));
+	}
+
+	@Test
+	public void deveMarcarParaRecalculoOMesAnteriorEONovoAoAtualizar() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setAno(2021);
+		lancamento.setMes(4);
+		ResumoLancamento gravado = criarResumo(1L);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(gravado));
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+		//execucao
+		service.atualizar(lancamento);
+
+		//verificacao
+		Mockito.verify(resumoMensalService).marcarPendentes(Arrays.asList(new MesLancamento(1L, 2021, 3), new MesLancamento(1L, 2021, 4)));
+	}
+
+	@Test
+	public void deveLancarConflitoAoAtualizarQuandoAVersaoGravadaForOutra() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setVersao(0L);
+		ResumoLancamento gravado = criarResumo(1L);
+		gravado.setVersao(1L);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(gravado));
+
+		//execução e verificação
+		Assertions.assertThatThrownBy(() -> service.atualizar(lancamento)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		Mockito.verify(repository, Mockito.never()).save(lancamento);
+		Mockito.verifyNoInteractions(saldoService);
+	}
+
+	@Test
+	public void deveRetirarDoSaldoOLancamentoDeletado() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		ResumoLancamento gravado = criarResumo(1L);
+		gravado.setStatus(StatusLancamento.EFETIVADO);
+		Mockito.when(repository.obterResumo(1L)).thenReturn(Optional.of(gravado));
+
+		//execucao
+		service.deletar(lancamento);
+
+		//verificacao
+		Mockito.verify(saldoService).registrarAlteracao(SituacaoLancamento.de(gravado), null);
+	}
+
 	@Test
 	public void deveLancarErroAoAtualizarUmLancamentoNaoSalvo() {
 		//cenário
@@ -128,6 +243,45 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
 	}
 	
+	@Test
+	public void deveRetornarCursorQuandoHouverProximaPagina() {
+		//cenário
+		Lancamento filtro = new Lancamento();
+		ResumoLancamento primeiro = criarResumo(1L);
+		ResumoLancamento segundo = criarResumo(2L);
+		ResumoLancamento terceiro = criarResumo(3L);
+		Mockito.when(repository.buscarAposCursor(filtro, null, 3)).thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+
+		//execução
+		PaginaDTO<ResumoLancamento> pagina = service.buscar(filtro, null, 2);
+
+		//verificação
+		Assertions.assertThat(pagina.getItens()).containsExactly(primeiro, segundo);
+		Assertions.assertThat(CursorLancamento.decodificar(pagina.getProximoCursor())).isEqualTo(CursorLancamento.de(segundo));
+	}
+
+	@Test
+	public void naoDeveRetornarCursorNaUltimaPaginaELimitarOTamanho() {
+		//cenário
+		Lancamento filtro = new Lancamento();
+		CursorLancamento cursor = new CursorLancamento(2021, 3, 10L);
+		Mockito.when(repository.buscarAposCursor(filtro, cursor, LancamentoServiceImpl.TAMANHO_PAGINA_MAXIMO + 1))
+			.thenReturn(Arrays.asList(criarResumo(1L)));
+
+		//execução
+		PaginaDTO<ResumoLancamento> pagina = service.buscar(filtro, cursor.codificar(), 100000);
+
+		//verificação
+		Assertions.assertThat(pagina.getItens()).hasSize(1);
+		Assertions.assertThat(pagina.getProximoCursor()).isNull();
+	}
+
+	@Test
+	public void deveLancarErroQuandoOCursorForInvalido() {
+		Throwable throwable = Assertions.catchThrowable(() -> service.buscar(new Lancamento(), "invalido", 10));
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido");
+	}
+
 	@Test
 	public void deveAtualizarStatusDeUmLancamento() {
 		//cenário
@@ -229,4 +383,104 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um ano válido");*/
 	}
 
+	private ResumoLancamento criarResumo(Long id) {
+		return new ResumoLancamento(id, "Qualquer descricao", 3, 2021, BigDecimal.valueOf(100), 1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 0L);
+	}
+
+	@Test
+	public void deveAtualizarOStatusEmLoteInformandoOsIdsNaoEncontrados() {
+		//cenário
+		ResumoLancamento pendente = criarResumo(1L);
+		ResumoLancamento jaEfetivado = criarResumo(2L);
+		jaEfetivado.setStatus(StatusLancamento.EFETIVADO);
+		Mockito.when(repository.bloquearParaAlteracao(Mockito.any(Lancamento.class), Mockito.eq(Arrays.asList(1L, 2L, 3L))))
+			.thenReturn(Arrays.asList(pendente, jaEfetivado));
+		Mockito.when(repository.atualizarStatus(Arrays.asList(1L), StatusLancamento.EFETIVADO)).thenReturn(1);
+		AtualizarStatusLoteDTO dto = AtualizarStatusLoteDTO.builder().status("EFETIVADO").ids(Arrays.asList(1L, 2L, 3L)).build();
+
+		//execução
+		ResultadoStatusLoteDTO resultado = service.atualizarStatusEmLote(1L, dto);
+
+		//verificação
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getInalterados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getFalhas()).extracting(ItemLoteDTO::getId).containsExactly(3L);
+		Mockito.verify(saldoService).registrarAlteracoes(
+				Arrays.asList(SituacaoLancamento.de(pendente)),
+				Arrays.asList(new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(100))));
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+	}
+
+	@Test
+	public void deveExigirIdsOuFiltroParaAtualizarOStatusEmLote() {
+		AtualizarStatusLoteDTO dto = AtualizarStatusLoteDTO.builder().status("EFETIVADO").build();
+
+		Throwable throwable = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(1L, dto));
+
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class).hasMessage("Informe os lançamentos ou um filtro");
+		Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.anyCollection(), Mockito.any());
+	}
+
+	@Test
+	public void deveRecusarStatusInvalidoNaAtualizacaoEmLote() {
+		AtualizarStatusLoteDTO dto = AtualizarStatusLoteDTO.builder().status("PAGO").mes(3).build();
+
+		Throwable throwable = Assertions.catchThrowable(() -> service.atualizarStatusEmLote(1L, dto));
+
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class).hasMessage("Status inválido");
+	}
+
+	@Test
+	public void deveRepetirAAtualizacaoDeStatusQuandoHouverConflitoDeVersao() {
+		//cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(lancamento));
+		Mockito.doThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 1L))
+			.doThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 1L))
+			.doReturn(lancamento)
+			.when(service).atualizar(lancamento);
+
+		//execução
+		Lancamento atualizado = service.atualizarStatus(1L, new AtualizarStatusDTO("EFETIVADO"));
+
+		//verificação
+		Assertions.assertThat(atualizado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Mockito.verify(service, Mockito.times(3)).atualizar(lancamento);
+		Mockito.verify(transactionManager, Mockito.times(2)).rollback(Mockito.any());
+	}
+
+	@Test
+	public void deveDesistirDaAtualizacaoDeStatusAposOLimiteDeTentativas() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(lancamento));
+		Mockito.doThrow(new ObjectOptimisticLockingFailureException(Lancamento.class, 1L)).when(service).atualizar(lancamento);
+
+		Throwable throwable = Assertions.catchThrowable(() -> service.atualizarStatus(1L, new AtualizarStatusDTO("EFETIVADO")));
+
+		Assertions.assertThat(throwable).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+		Mockito.verify(service, Mockito.times(LancamentoServiceImpl.TENTATIVAS_EM_CONFLITO)).atualizar(lancamento);
+	}
+
+	@Test
+	public void deveBuscarPorTextoNaOrdemDoIndice() {
+		ResumoLancamento mercado = new ResumoLancamento(3L, "Mercado", 1, 2021, BigDecimal.TEN, 1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 0L);
+		ResumoLancamento supermercado = new ResumoLancamento(7L, "Mercado central", 1, 2021, BigDecimal.ONE, 1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 0L);
+		Mockito.when(indiceTextoService.buscar(1L, "mercado", LancamentoServiceImpl.TAMANHO_PAGINA_PADRAO)).thenReturn(Arrays.asList(3L, 9L, 7L));
+		// o id 9 saiu da tabela depois de indexado
+		Mockito.when(repository.obterResumos(Arrays.asList(3L, 9L, 7L))).thenReturn(Arrays.asList(supermercado, mercado));
+
+		List<ResumoLancamento> resultado = service.buscarPorTexto(1L, "mercado", null);
+
+		Assertions.assertThat(resultado).containsExactly(mercado, supermercado);
+	}
+
+	@Test
+	public void deveExigirTextoNaBuscaPorTexto() {
+		Throwable throwable = Assertions.catchThrowable(() -> service.buscarPorTexto(1L, "  ", 10));
+
+		Assertions.assertThat(throwable).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um texto para a busca");
+		Mockito.verifyNoInteractions(indiceTextoService);
+	}
 }
@@ -0,0 +1,197 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.donte.financas.api.dto.AtualizarStatusLoteDTO;
+import com.donte.financas.api.dto.PaginaDTO;
+import com.donte.financas.api.dto.ResultadoStatusLoteDTO;
+import com.donte.financas.model.entity.Lancamento;
+import com.donte.financas.model.entity.SaldoUsuario;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.repository.LancamentoRepositoryTest;
+import com.donte.financas.model.repository.ResumoLancamento;
+import com.donte.financas.service.impl.IndiceTextoServiceImpl;
+import com.donte.financas.service.impl.LancamentoServiceImpl;
+import com.donte.financas.service.impl.ResumoMensalServiceImpl;
+import com.donte.financas.service.impl.SaldoServiceImpl;
+import com.donte.financas.service.impl.VersaoDadosServiceImpl;
+import com.donte.financas.sql.ContadorSql;
+import com.donte.financas.sql.ContagemSql;
+import com.donte.financas.sql.ContagemSqlConfig;
+
+/**
+ * Orcamento de comandos SQL das operacoes do {@link LancamentoService}, com os repositorios reais.
+ * Um aumento aqui costuma ser uma consulta por linha (N+1) ou uma leitura antes de cada escrita.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ExtendWith(SpringExtension.class)
+@Import({ ContagemSqlConfig.class, LancamentoServiceImpl.class, SaldoServiceImpl.class, ResumoMensalServiceImpl.class,
+		VersaoDadosServiceImpl.class, IndiceTextoServiceImpl.class })
+public class LancamentoSqlTest {
+
+	@Autowired
+	LancamentoService service;
+
+	@Autowired
+	TestEntityManager manager;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void setUp() {
+		usuario = manager.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+		// reserva o primeiro bloco da sequence fora das medicoes
+		service.salvar(novoLancamento());
+		manager.flush();
+	}
+
+	@Test
+	public void deveSalvarComUmInsertDoLancamentoEUmDaMarcacaoDoResumoSemSelects() {
+		ContadorSql.zerar();
+		service.salvar(novoLancamento());
+		manager.flush();
+
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(0, 2, 0, 0, 0));
+	}
+
+	@Test
+	public void deveSalvarUmLoteComInsertsAgrupados() {
+		List<Lancamento> lote = new ArrayList<>();
+		for(int i = 0; i < 40; i++) {
+			lote.add(novoLancamento());
+		}
+
+		ContadorSql.zerar();
+		service.salvarLote(lote);
+		manager.flush();
+
+		// um batch de lancamentos e uma marcacao para o unico mes do lote
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(0, 2, 0, 0, 0));
+	}
+
+	@Test
+	public void deveBuscarMilLancamentosComUmUnicoSelect() {
+		persistir(1000);
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+
+		ContadorSql.zerar();
+		List<Lancamento> encontrados = service.buscar(filtro);
+		encontrados.forEach(lancamento -> lancamento.getUsuario().getId());
+
+		Assertions.assertThat(encontrados).hasSize(1001);
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(1, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void deveBuscarUmaPaginaComUmUnicoSelect() {
+		persistir(1000);
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(usuario);
+
+		ContadorSql.zerar();
+		PaginaDTO<ResumoLancamento> pagina = service.buscar(filtro, null, LancamentoServiceImpl.TAMANHO_PAGINA_MAXIMO);
+
+		Assertions.assertThat(pagina.getItens()).hasSize(LancamentoServiceImpl.TAMANHO_PAGINA_MAXIMO);
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(1, 0, 0, 0, 0));
+	}
+
+	@Test
+	public void deveEfetivarComLeituraDoEstadoGravadoUmUpdateDoLancamentoEUmDoSaldo() {
+		Lancamento primeiro = service.salvar(novoLancamento());
+		Lancamento segundo = service.salvar(novoLancamento());
+		// o primeiro efetivado cria o registro de saldo; a medicao e sobre o saldo ja existente
+		service.atualizarStatus(primeiro, StatusLancamento.EFETIVADO);
+		manager.flush();
+		manager.clear();
+		Lancamento carregado = service.obterPorId(segundo.getId()).get();
+
+		ContadorSql.zerar();
+		service.atualizarStatus(carregado, StatusLancamento.EFETIVADO);
+		manager.flush();
+
+		// select do estado gravado, update do saldo, insert da marcacao e update do lancamento
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(1, 1, 2, 0, 0));
+	}
+
+	@Test
+	public void deveEfetivarPorFiltroMaisLancamentosQueOLoteComUmUnicoUpdate() {
+		int quantidade = LancamentoServiceImpl.TAMANHO_MAXIMO_LOTE + 1000;
+		inserirPendentes(quantidade);
+		// o registro de saldo ja existe, como na medicao por id
+		manager.persist(SaldoUsuario.builder().usuarioId(usuario.getId()).saldo(BigDecimal.ZERO).build());
+		manager.flush();
+		manager.clear();
+
+		ContadorSql.zerar();
+		ResultadoStatusLoteDTO resultado = service.atualizarStatusEmLote(usuario.getId(), AtualizarStatusLoteDTO.builder()
+				.status(StatusLancamento.EFETIVADO.name()).ano(2021).build());
+		manager.flush();
+
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(quantidade + 1);
+		Assertions.assertThat(resultado.getInalterados()).isZero();
+		// bloqueio do usuario e dos lancamentos, totais agrupados, update dos lancamentos e do saldo
+		// e a marcacao do mes, sem nenhum comando por lancamento nem a lista de ids como parametros
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(3, 1, 2, 0, 0));
+		Assertions.assertThat(service.obterSaldoPorUsuario(usuario.getId()))
+				.isEqualByComparingTo(BigDecimal.valueOf(100L * (quantidade + 1)));
+	}
+
+	@Test
+	public void deveObterOResumoPorIdComUmSelect() {
+		Lancamento lancamento = service.salvar(novoLancamento());
+		manager.flush();
+		manager.clear();
+
+		ContadorSql.zerar();
+		Optional<ResumoLancamento> resumo = service.obterResumoPorId(lancamento.getId());
+
+		Assertions.assertThat(resumo).isPresent();
+		Assertions.assertThat(ContadorSql.contagem()).isEqualTo(new ContagemSql(1, 0, 0, 0, 0));
+	}
+
+	private void persistir(int quantidade) {
+		for(int i = 0; i < quantidade; i++) {
+			manager.persist(novoLancamento());
+		}
+		manager.flush();
+		manager.clear();
+	}
+
+	// com ids fora da sequence, para nao mudar o bloco reservado pelos demais testes
+	private void inserirPendentes(int quantidade) {
+		manager.getEntityManager().createNativeQuery("insert into financas.lancamento "
+				+ "(id, descricao, mes, ano, usuarioid, valor, criado, tipo, status, versao) "
+				+ "select 1000000 + x, 'Qualquer descricao', 3, 2021, :usuario, 100, current_date, 'RECEITA', 'PENDENTE', 0 "
+				+ "from system_range(1, :quantidade)")
+				.setParameter("usuario", usuario.getId())
+				.setParameter("quantidade", quantidade)
+				.executeUpdate();
+	}
+
+	private Lancamento novoLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.donte.financas.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.donte.financas.api.dto.FluxoMensalDTO;
+import com.donte.financas.model.entity.ResumoMensalPendente;
+import com.donte.financas.model.repository.LancamentoArquivadoRepository;
+import com.donte.financas.model.repository.MesLancamento;
+import com.donte.financas.model.repository.PendenciaResumoMensal;
+import com.donte.financas.model.repository.ResumoMensalPendenteRepository;
+import com.donte.financas.model.repository.ResumoMensalRepository;
+import com.donte.financas.service.impl.ResumoMensalServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+	static final int TAMANHO_LOTE = 3;
+
+	ResumoMensalService service;
+
+	@MockBean
+	ResumoMensalRepository repository;
+
+	@MockBean
+	ResumoMensalPendenteRepository pendenteRepository;
+
+	@MockBean
+	LancamentoArquivadoRepository arquivadoRepository;
+
+	@MockBean
+	PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	public void setUp() {
+		service = new ResumoMensalServiceImpl(repository, pendenteRepository, arquivadoRepository, transactionManager, TAMANHO_LOTE);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveMarcarCadaMesAlteradoUmaUnicaVez() {
+		service.marcarPendentes(Arrays.asList(new MesLancamento(1L, 2021, 1), new MesLancamento(1L, 2021, 1),
+				new MesLancamento(1L, 2021, 2), new MesLancamento(null, 2021, 3)));
+
+		ArgumentCaptor<List<ResumoMensalPendente>> captor = ArgumentCaptor.forClass(List.class);
+		Mockito.verify(pendenteRepository).saveAll(captor.capture());
+		Assertions.assertThat(captor.getValue()).extracting(ResumoMensalPendente::getMes).containsExactly(1, 2);
+	}
+
+	@Test
+	public void naoDeveGravarNadaSemMesesAlterados() {
+		service.marcarPendentes(Collections.emptyList());
+
+		Mockito.verifyNoInteractions(pendenteRepository);
+	}
+
+	@Test
+	public void deveRecalcularUmaVezCadaMesDoLoteERemoverApenasOsPendentesLidos() {
+		Mockito.when(pendenteRepository.obterLote(Mockito.any(Pageable.class))).thenReturn(Arrays.asList(
+				pendente(10L, 1L, 2021, 1), pendente(11L, 1L, 2021, 1), pendente(12L, 2L, 2020, 12)), new ArrayList<>());
+
+		int processados = service.processarPendentes();
+
+		Assertions.assertThat(processados).isEqualTo(3);
+		Mockito.verify(repository, Mockito.times(1)).removerMes(1L, 2021, 1);
+		Mockito.verify(repository, Mockito.times(1)).calcularMes(Mockito.eq(1L), Mockito.eq(2021), Mockito.eq(1), Mockito.any(LocalDateTime.class));
+		Mockito.verify(repository, Mockito.times(1)).calcularMes(Mockito.eq(2L), Mockito.eq(2020), Mockito.eq(12), Mockito.any(LocalDateTime.class));
+		Mockito.verify(pendenteRepository).remover(Arrays.asList(10L, 11L, 12L));
+		// o lote veio cheio, entao a fila foi consultada novamente
+		Mockito.verify(pendenteRepository, Mockito.times(2)).obterLote(Mockito.any(Pageable.class));
+	}
+
+	@Test
+	public void devePararAoEncontrarUmLoteIncompleto() {
+		Mockito.when(pendenteRepository.obterLote(Mockito.any(Pageable.class))).thenReturn(Arrays.asList(pendente(10L, 1L, 2021, 1)));
+
+		int processados = service.processarPendentes();
+
+		Assertions.assertThat(processados).isEqualTo(1);
+		Mockito.verify(pendenteRepository, Mockito.times(1)).obterLote(Mockito.any(Pageable.class));
+	}
+
+	@Test
+	public void deveInformarQueOFluxoEstaDesatualizadoQuandoHaPendencias() {
+		LocalDateTime desde = LocalDateTime.of(2021, 3, 1, 10, 0);
+		Mockito.when(repository.obterTotaisMensais(1L, 2021, 1, 2021, 3)).thenReturn(new ArrayList<>());
+		Mockito.when(pendenteRepository.obterPendencia(1L, 2021, 1, 2021, 3)).thenReturn(new PendenciaResumoMensal(2L, desde));
+
+		FluxoMensalDTO fluxo = service.obterFluxoMensal(1L, YearMonth.of(2021, 1), YearMonth.of(2021, 3));
+
+		Assertions.assertThat(fluxo.isAtualizado()).isFalse();
+		Assertions.assertThat(fluxo.getAlteracoesPendentes()).isEqualTo(2);
+		Assertions.assertThat(fluxo.getPendenteDesde()).isEqualTo(desde);
+	}
+
+	private ResumoMensalPendente pendente(Long id, Long usuarioId, int ano, int mes) {
+		return ResumoMensalPendente.builder().id(id).usuarioId(usuarioId).ano(ano).mes(mes).registradoEm(LocalDateTime.now()).build();
+	}
+
+}
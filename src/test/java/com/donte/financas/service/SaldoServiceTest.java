@@ -0,0 +1,143 @@
+package com.donte.financas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.donte.financas.model.entity.SaldoUsuario;
+import com.donte.financas.model.enums.StatusLancamento;
+import com.donte.financas.model.enums.TipoLancamento;
+import com.donte.financas.model.repository.DivergenciaSaldo;
+import com.donte.financas.model.repository.LancamentoRepository;
+import com.donte.financas.model.repository.ResumoAnualRepository;
+import com.donte.financas.model.repository.SaldoUsuarioRepository;
+import com.donte.financas.model.repository.SituacaoLancamento;
+import com.donte.financas.model.repository.TotalLancamento;
+import com.donte.financas.model.repository.UsuarioRepository;
+import com.donte.financas.service.impl.SaldoServiceImpl;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+
+	@SpyBean
+	SaldoServiceImpl service;
+
+	@MockBean
+	SaldoUsuarioRepository repository;
+
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+
+	@MockBean
+	ResumoAnualRepository resumoAnualRepository;
+
+	@MockBean
+	UsuarioRepository usuarioRepository;
+
+	@MockBean
+	VersaoDadosService versaoDadosService;
+
+	@MockBean
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	public void naoDeveAlterarOSaldoQuandoOLancamentoNaoEstaEfetivado() {
+		SituacaoLancamento pendente = new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN);
+
+		service.registrarAlteracao(null, pendente);
+
+		Mockito.verifyNoInteractions(repository);
+	}
+
+	@Test
+	public void deveSomarAReceitaEfetivadaAoSaldo() {
+		SituacaoLancamento pendente = new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN);
+		SituacaoLancamento efetivado = new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN);
+		Mockito.when(repository.somarAoSaldo(1L, BigDecimal.TEN)).thenReturn(1);
+
+		service.registrarAlteracao(pendente, efetivado);
+
+		Mockito.verify(repository).somarAoSaldo(1L, BigDecimal.TEN);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+
+	@Test
+	public void deveAplicarApenasADiferencaDeValorDeUmaDespesaEfetivada() {
+		SituacaoLancamento antes = new SituacaoLancamento(1L, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(100));
+		SituacaoLancamento depois = new SituacaoLancamento(1L, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(80));
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+		service.registrarAlteracao(antes, depois);
+
+		Mockito.verify(repository).somarAoSaldo(1L, BigDecimal.valueOf(20));
+	}
+
+	@Test
+	public void deveMoverOValorEntreUsuariosQuandoOLancamentoMudaDeDono() {
+		SituacaoLancamento antes = new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN);
+		SituacaoLancamento depois = new SituacaoLancamento(2L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN);
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+		service.registrarAlteracao(antes, depois);
+
+		Mockito.verify(repository).somarAoSaldo(1L, BigDecimal.TEN.negate());
+		Mockito.verify(repository).somarAoSaldo(2L, BigDecimal.TEN);
+	}
+
+	@Test
+	public void deveCriarOSaldoQuandoOUsuarioAindaNaoTemRegistro() {
+		SituacaoLancamento excluido = new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN);
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(0);
+
+		service.registrarAlteracao(excluido, null);
+
+		Mockito.verify(usuarioRepository).bloquear(1L);
+		Mockito.verify(repository).saveAndFlush(SaldoUsuario.builder().usuarioId(1L).saldo(BigDecimal.TEN.negate()).build());
+	}
+
+	@Test
+	public void deveCorrigirEReportarSaldoDivergente() {
+		SaldoUsuario registro = SaldoUsuario.builder().usuarioId(1L).saldo(BigDecimal.valueOf(50)).build();
+		Mockito.when(usuarioRepository.listarIds()).thenReturn(Arrays.asList(1L, 2L));
+		Mockito.when(repository.obterParaAtualizacao(1L)).thenReturn(Optional.of(registro));
+		Mockito.when(repository.obterParaAtualizacao(2L)).thenReturn(Optional.empty());
+		Mockito.when(lancamentoRepository.obterTotaisPorTipoEStatus(1L)).thenReturn(Arrays.asList(
+				new TotalLancamento(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(100), 2L),
+				new TotalLancamento(TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(500), 1L),
+				new TotalLancamento(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(30), 1L)));
+
+		List<DivergenciaSaldo> divergencias = service.reconciliarTodos();
+
+		Assertions.assertThat(divergencias).containsExactly(new DivergenciaSaldo(1L, BigDecimal.valueOf(50), BigDecimal.valueOf(70)));
+		Assertions.assertThat(registro.getSaldo()).isEqualTo(BigDecimal.valueOf(70));
+		Mockito.verify(repository).save(registro);
+	}
+
+	@Test
+	public void deveAplicarVariasAlteracoesComUmaAtualizacaoPorUsuario() {
+		List<SituacaoLancamento> antes = Arrays.asList(
+				new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN),
+				new SituacaoLancamento(1L, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.ONE));
+		List<SituacaoLancamento> depois = Arrays.asList(
+				new SituacaoLancamento(1L, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.TEN),
+				new SituacaoLancamento(1L, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.ONE));
+		Mockito.when(repository.somarAoSaldo(Mockito.anyLong(), Mockito.any())).thenReturn(1);
+
+		service.registrarAlteracoes(antes, depois);
+
+		Mockito.verify(repository, Mockito.times(1)).somarAoSaldo(Mockito.anyLong(), Mockito.any());
+		Mockito.verify(repository).somarAoSaldo(1L, BigDecimal.valueOf(9));
+	}
+}
@@ -0,0 +1,74 @@
+package com.donte.financas.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.donte.financas.api.dto.TokenDTO;
+import com.donte.financas.exception.ErroAutenticacaoException;
+import com.donte.financas.model.entity.Usuario;
+import com.donte.financas.service.impl.TokenServiceImpl;
+
+public class TokenServiceTest {
+
+	static final String SEGREDO = "segredo-de-teste-com-pelo-menos-32-bytes";
+	static final Instant AGORA = Instant.parse("2021-03-01T12:00:00Z");
+
+	TokenServiceImpl service = new TokenServiceImpl(SEGREDO, 60, Clock.fixed(AGORA, ZoneOffset.UTC));
+	Usuario usuario = Usuario.builder().id(7L).nome("usuario").email("usuario@email.com").build();
+
+	@Test
+	public void deveGerarUmTokenValidoParaOUsuario() {
+		TokenDTO token = service.gerar(usuario);
+
+		Assertions.assertThat(token.getToken().split("\\.")).hasSize(3);
+		Assertions.assertThat(token.getExpiracao()).isEqualTo(AGORA.plus(Duration.ofHours(1)));
+		Assertions.assertThat(service.validar(token.getToken())).isEqualTo(7L);
+	}
+
+	@Test
+	public void deveRecusarTokenAlterado() {
+		String token = service.gerar(usuario).getToken();
+		String[] partes = token.split("\\.");
+		String outroUsuario = new TokenServiceImpl(SEGREDO, 60, Clock.fixed(AGORA, ZoneOffset.UTC))
+				.gerar(Usuario.builder().id(8L).build()).getToken().split("\\.")[1];
+
+		Throwable erro = Assertions.catchThrowable(() -> service.validar(partes[0] + "." + outroUsuario + "." + partes[2]));
+
+		Assertions.assertThat(erro).isInstanceOf(ErroAutenticacaoException.class).hasMessage("Token inválido");
+	}
+
+	@Test
+	public void deveRecusarTokenAssinadoComOutroSegredo() {
+		String token = new TokenServiceImpl("outro-segredo-de-teste-com-32-bytes-ou-mais", 60, Clock.fixed(AGORA, ZoneOffset.UTC))
+				.gerar(usuario).getToken();
+
+		Assertions.assertThatThrownBy(() -> service.validar(token)).isInstanceOf(ErroAutenticacaoException.class);
+	}
+
+	@Test
+	public void deveRecusarTokenExpirado() {
+		String token = service.gerar(usuario).getToken();
+		TokenServiceImpl depois = new TokenServiceImpl(SEGREDO, 60, Clock.fixed(AGORA.plus(Duration.ofMinutes(61)), ZoneOffset.UTC));
+
+		Assertions.assertThatThrownBy(() -> depois.validar(token)).isInstanceOf(ErroAutenticacaoException.class).hasMessage("Token expirado");
+	}
+
+	@Test
+	public void deveRecusarTokenMalFormado() {
+		Assertions.assertThatThrownBy(() -> service.validar("abc")).isInstanceOf(ErroAutenticacaoException.class);
+		Assertions.assertThatThrownBy(() -> service.validar(null)).isInstanceOf(ErroAutenticacaoException.class);
+	}
+
+	@Test
+	public void deveExigirUmSegredoDePeloMenos32Bytes() {
+		Assertions.assertThatThrownBy(() -> new TokenServiceImpl("", 60, Clock.systemUTC())).isInstanceOf(IllegalStateException.class);
+		Assertions.assertThatThrownBy(() -> new TokenServiceImpl(null, 60, Clock.systemUTC())).isInstanceOf(IllegalStateException.class);
+		Assertions.assertThatThrownBy(() -> new TokenServiceImpl("segredo-curto", 60, Clock.systemUTC())).isInstanceOf(IllegalStateException.class);
+	}
+
+}
@@ -1,5 +1,8 @@
 package com.donte.financas.service;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
@@ -8,9 +11,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.donte.financas.api.dto.EstatisticasCacheDTO;
 import com.donte.financas.exception.ErroAutenticacaoException;
 import com.donte.financas.exception.RegraNegocioException;
 import com.donte.financas.model.entity.Usuario;
@@ -60,7 +65,7 @@ public class UsuarioServiceTest {
 		String email = "email@email.com";
 		String senha = "senha";
 		
-		Usuario usuario = Usuario.builder().email(email).senha(senha).id(1L).build();
+		Usuario usuario = Usuario.builder().email(email).senha(new BCryptPasswordEncoder(4).encode(senha)).id(1L).build();
 		Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));		
 		//Mockito.when(repository.findByEmail(email)).thenAnswer(o -> Optional.of(usuario));
 		
@@ -116,4 +121,89 @@ public class UsuarioServiceTest {
 			service.validarEmail("email@email.com");
 		});
 	}
+
+	@Test
+	public void deveConsultarOBancoApenasUmaVezParaOMesmoUsuario() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 100, 10, 4);
+		Usuario usuario = Usuario.builder().id(1L).nome("nome").build();
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+
+		servico.obterPorId(1L);
+		servico.obterPorId(1L);
+		Optional<Usuario> resultado = servico.obterPorId(1L);
+
+		Assertions.assertEquals(usuario, resultado.get());
+		Mockito.verify(repository, Mockito.times(1)).findById(1L);
+		EstatisticasCacheDTO estatisticas = servico.obterEstatisticasCache();
+		Assertions.assertEquals(2, estatisticas.getAcertos());
+		Assertions.assertEquals(1, estatisticas.getFaltas());
+		Assertions.assertEquals(1, estatisticas.getTamanho());
+	}
+
+	@Test
+	public void naoDeveGuardarUsuarioInexistenteNoCache() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 100, 10, 4);
+		Mockito.when(repository.findById(2L)).thenReturn(Optional.empty());
+
+		Assertions.assertFalse(servico.obterPorId(2L).isPresent());
+		Assertions.assertFalse(servico.obterPorId(2L).isPresent());
+
+		Mockito.verify(repository, Mockito.times(2)).findById(2L);
+	}
+
+	@Test
+	public void deveInvalidarOCacheAoSalvarUmUsuario() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 100, 10, 4);
+		Usuario usuario = Usuario.builder().id(1L).nome("nome").email("email@email.com").build();
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(repository.save(usuario)).thenReturn(usuario);
+
+		servico.obterPorId(1L);
+		servico.salvarUsuario(usuario);
+		servico.obterPorId(1L);
+
+		Mockito.verify(repository, Mockito.times(2)).findById(1L);
+	}
+
+	@Test
+	public void deveBuscarNoBancoApenasOsUsuariosForaDoCache() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 100, 10, 4);
+		Usuario primeiro = Usuario.builder().id(1L).build();
+		Usuario segundo = Usuario.builder().id(2L).build();
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(primeiro));
+		Mockito.when(repository.findAllById(Mockito.anyIterable())).thenReturn(Arrays.asList(segundo));
+
+		servico.obterPorId(1L);
+		List<Usuario> usuarios = servico.obterPorIds(Arrays.asList(1L, 2L));
+
+		Assertions.assertEquals(2, usuarios.size());
+		Mockito.verify(repository).findAllById(Collections.singleton(2L));
+	}
+
+	@Test
+	public void deveRemoverUsuariosAlemDoTamanhoMaximo() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 2, 10, 4);
+		for(long id = 1; id <= 10; id++) {
+			Mockito.when(repository.findById(id)).thenReturn(Optional.of(Usuario.builder().id(id).build()));
+			servico.obterPorId(id);
+		}
+
+		Assertions.assertTrue(servico.obterEstatisticasCache().getTamanho() <= 2);
+		Assertions.assertTrue(servico.obterEstatisticasCache().getRemocoes() >= 8);
+	}
+
+	@Test
+	public void deveGravarASenhaComoHash() {
+		UsuarioServiceImpl servico = new UsuarioServiceImpl(repository, 100, 10, 4);
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(o -> {
+			Usuario usuario = o.getArgument(0);
+			usuario.setId(1L);
+			return usuario;
+		});
+
+		Usuario salvo = servico.salvarUsuario(Usuario.builder().email("email@email.com").senha("senha").build());
+
+		Assertions.assertNotEquals("senha", salvo.getSenha());
+		Assertions.assertTrue(new BCryptPasswordEncoder().matches("senha", salvo.getSenha()));
+	}
 }
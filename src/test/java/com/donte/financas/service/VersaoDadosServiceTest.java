@@ -0,0 +1,59 @@
+package com.donte.financas.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.donte.financas.service.impl.VersaoDadosServiceImpl;
+
+public class VersaoDadosServiceTest {
+
+	VersaoDadosService service = new VersaoDadosServiceImpl();
+
+	@Test
+	public void deveMudarAVersaoApenasDosUsuariosAlterados() {
+		VersaoDados antes = service.obterVersao(1L);
+		VersaoDados outroAntes = service.obterVersao(2L);
+
+		service.registrarAlteracao(Arrays.asList(1L, null, 1L));
+
+		VersaoDados depois = service.obterVersao(1L);
+		Assertions.assertThat(depois.getEtag()).isNotEqualTo(antes.getEtag()).startsWith("W/\"");
+		Assertions.assertThat(depois.getUltimaAlteracao()).isGreaterThanOrEqualTo(antes.getUltimaAlteracao());
+		Assertions.assertThat(service.obterVersao(2L).getEtag()).isEqualTo(outroAntes.getEtag());
+	}
+
+	@Test
+	public void deveMudarAVersaoSomenteDepoisDoCommit() {
+		String antes = service.obterVersao(1L).getEtag();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.registrarAlteracao(Collections.singletonList(1L));
+			Assertions.assertThat(service.obterVersao(1L).getEtag()).isEqualTo(antes);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+			Assertions.assertThat(service.obterVersao(1L).getEtag()).isNotEqualTo(antes);
+		}finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void naoDeveMudarAVersaoQuandoATransacaoEDesfeita() {
+		String antes = service.obterVersao(1L).getEtag();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.registrarAlteracao(Collections.singletonList(1L));
+			TransactionSynchronizationManager.getSynchronizations()
+				.forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		}finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		Assertions.assertThat(service.obterVersao(1L).getEtag()).isEqualTo(antes);
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.donte.financas.service.busca;
+
+import java.util.Random;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IndiceTextoUsuarioTest {
+
+	@Test
+	public void deveSepararPalavrasEmMinusculasESemAcentos() {
+		Assertions.assertThat(IndiceTextoUsuario.termos("Pão de Açúcar - Almoço/JANTAR 2021"))
+				.containsExactly("pao", "de", "acucar", "almoco", "jantar", "2021");
+		Assertions.assertThat(IndiceTextoUsuario.termos("  ...  ")).isEmpty();
+		Assertions.assertThat(IndiceTextoUsuario.termos(null)).isEmpty();
+	}
+
+	@Test
+	public void deveExigirTodosOsTermosCasandoPeloInicioDaPalavra() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		indice.indexar(1L, 0L, "Supermercado Extra");
+		indice.indexar(2L, 0L, "Mercado Livre");
+		indice.indexar(3L, 0L, "Conta de luz");
+		indice.indexar(4L, 0L, "Mercadinho do bairro");
+
+		Assertions.assertThat(indice.buscar("merc", 10)).containsExactlyInAnyOrder(2L, 4L);
+		Assertions.assertThat(indice.buscar("mercado livre", 10)).containsExactly(2L);
+		Assertions.assertThat(indice.buscar("MERCADO luz", 10)).isEmpty();
+		Assertions.assertThat(indice.buscar("super", 10)).containsExactly(1L);
+	}
+
+	@Test
+	public void deveOrdenarPelaRelevancia() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		indice.indexar(1L, 0L, "Mercadorias");
+		indice.indexar(2L, 0L, "Compra no mercado da esquina perto de casa");
+		indice.indexar(3L, 0L, "Mercado");
+		indice.indexar(4L, 0L, "Aluguel aluguel");
+		indice.indexar(5L, 0L, "Aluguel sala");
+
+		// a palavra inteira vence a que so comeca igual e a descricao curta vence a longa
+		Assertions.assertThat(indice.buscar("mercado", 10)).containsExactly(3L, 1L, 2L);
+		Assertions.assertThat(indice.buscar("mercado", 2)).containsExactly(3L, 1L);
+		// com o mesmo tamanho, o termo que se repete na descricao pesa mais
+		Assertions.assertThat(indice.buscar("aluguel", 10)).containsExactly(4L, 5L);
+	}
+
+	@Test
+	public void deveDesempatarPeloLancamentoMaisNovo() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		indice.indexar(5L, 0L, "Academia");
+		indice.indexar(9L, 0L, "Academia");
+		indice.indexar(7L, 0L, "Academia");
+
+		Assertions.assertThat(indice.buscar("academia", 10)).containsExactly(9L, 7L, 5L);
+	}
+
+	@Test
+	public void deveSubstituirADescricaoERecusarVersaoAntiga() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		indice.indexar(1L, 0L, "Padaria");
+		indice.indexar(1L, 2L, "Farmacia");
+		indice.indexar(1L, 1L, "Padaria antiga");
+
+		Assertions.assertThat(indice.buscar("padaria", 10)).isEmpty();
+		Assertions.assertThat(indice.buscar("farmacia", 10)).containsExactly(1L);
+		Assertions.assertThat(indice.getTamanho()).isEqualTo(1);
+
+		indice.remover(1L);
+
+		Assertions.assertThat(indice.buscar("farmacia", 10)).isEmpty();
+		Assertions.assertThat(indice.getTamanho()).isZero();
+	}
+
+	@Test
+	public void deveCombinarTermoRaroComTermoComum() {
+		IndiceTextoUsuario indice = new IndiceTextoUsuario();
+		Random random = new Random(42);
+		for(long id = 1; id <= 5000; id++) {
+			indice.indexar(id, 0L, "Pagamento " + (random.nextBoolean() ? "cartao" : "boleto"));
+		}
+		indice.indexar(5001L, 0L, "Pagamento IPVA");
+
+		// o termo comum e conferido apenas no lancamento que restou do termo raro
+		Assertions.assertThat(indice.buscar("pagamento ipva", 10)).containsExactly(5001L);
+		Assertions.assertThat(indice.buscar("ipva pag", 10)).containsExactly(5001L);
+		Assertions.assertThat(indice.buscar("pagamento", 3)).hasSize(3);
+	}
+
+}
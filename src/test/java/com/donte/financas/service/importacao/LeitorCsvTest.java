@@ -0,0 +1,59 @@
+package com.donte.financas.service.importacao;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LeitorCsvTest {
+
+	@Test
+	public void deveLerLinhasIgnorandoCabecalhoELinhasVazias() throws Exception {
+		String csv = "data;descricao;valor\n"
+				+ "05/03/2021;Salario;3.500,00\n"
+				+ "\n"
+				+ "2021-03-06;\"Mercado; feira\";-120,35\n";
+
+		try(LeitorCsv leitor = new LeitorCsv(new StringReader(csv))) {
+			LinhaExtrato primeira = leitor.proxima();
+			Assertions.assertThat(primeira.getNumero()).isEqualTo(2);
+			Assertions.assertThat(primeira.getData()).isEqualTo(LocalDate.of(2021, 3, 5));
+			Assertions.assertThat(primeira.getDescricao()).isEqualTo("Salario");
+			Assertions.assertThat(primeira.getValor()).isEqualByComparingTo("3500.00");
+
+			LinhaExtrato segunda = leitor.proxima();
+			Assertions.assertThat(segunda.getNumero()).isEqualTo(4);
+			Assertions.assertThat(segunda.getDescricao()).isEqualTo("Mercado; feira");
+			Assertions.assertThat(segunda.getValor()).isEqualByComparingTo("-120.35");
+
+			Assertions.assertThat(leitor.proxima()).isNull();
+		}
+	}
+
+	@Test
+	public void deveAceitarVirgulaComoSeparadorEPontoDecimal() throws Exception {
+		try(LeitorCsv leitor = new LeitorCsv(new StringReader("2021-01-10,Aluguel,-1500.50"))) {
+			LinhaExtrato linha = leitor.proxima();
+			Assertions.assertThat(linha.getErro()).isNull();
+			Assertions.assertThat(linha.getValor()).isEqualTo(new BigDecimal("-1500.50"));
+		}
+	}
+
+	@Test
+	public void deveInformarOErroSemInterromperALeitura() throws Exception {
+		String csv = "31/02/2021;Data invalida;10,00\n"
+				+ "01/02/2021;Valor invalido;dez\n"
+				+ "01/02/2021;Faltando valor\n"
+				+ "01/02/2021;Ok;10,00\n";
+
+		try(LeitorCsv leitor = new LeitorCsv(new StringReader(csv))) {
+			Assertions.assertThat(leitor.proxima().getErro()).startsWith("Data inválida");
+			Assertions.assertThat(leitor.proxima().getErro()).startsWith("Valor inválido");
+			Assertions.assertThat(leitor.proxima().getErro()).isEqualTo("Linha deve ter data, descrição e valor");
+			Assertions.assertThat(leitor.proxima().getErro()).isNull();
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.donte.financas.service.importacao;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LeitorOfxTest {
+
+	@Test
+	public void deveLerTransacoesDeUmOfxSgml() throws Exception {
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\nVERSION:102\n\n"
+				+ "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+				+ "<DTSTART>20210301\n"
+				+ "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20210305120000[-3:BRT]\n<TRNAMT>-50.25\n<FITID>1\n<MEMO>Padaria\n</STMTTRN>\n"
+				+ "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20210310\n<TRNAMT>1000,00\n<NAME>Salario\n</STMTTRN>\n"
+				+ "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+
+		try(LeitorOfx leitor = new LeitorOfx(new StringReader(ofx))) {
+			LinhaExtrato padaria = leitor.proxima();
+			Assertions.assertThat(padaria.getErro()).isNull();
+			Assertions.assertThat(padaria.getData()).isEqualTo(LocalDate.of(2021, 3, 5));
+			Assertions.assertThat(padaria.getDescricao()).isEqualTo("Padaria");
+			Assertions.assertThat(padaria.getValor()).isEqualByComparingTo("-50.25");
+
+			LinhaExtrato salario = leitor.proxima();
+			Assertions.assertThat(salario.getNumero()).isEqualTo(2);
+			Assertions.assertThat(salario.getDescricao()).isEqualTo("Salario");
+			Assertions.assertThat(salario.getValor()).isEqualByComparingTo("1000");
+
+			Assertions.assertThat(leitor.proxima()).isNull();
+		}
+	}
+
+	@Test
+	public void deveLerTransacoesDeUmOfxXmlNaMesmaLinha() throws Exception {
+		String ofx = "<?xml version=\"1.0\"?><OFX><STMTTRN><DTPOSTED>20210102</DTPOSTED><TRNAMT>abc</TRNAMT><MEMO>Erro</MEMO></STMTTRN>"
+				+ "<STMTTRN><DTPOSTED>20210103</DTPOSTED><TRNAMT>-10</TRNAMT><MEMO>Cafe</MEMO></STMTTRN></OFX>";
+
+		try(LeitorOfx leitor = new LeitorOfx(new StringReader(ofx))) {
+			Assertions.assertThat(leitor.proxima().getErro()).isEqualTo("Valor inválido: abc");
+			LinhaExtrato cafe = leitor.proxima();
+			Assertions.assertThat(cafe.getDescricao()).isEqualTo("Cafe");
+			Assertions.assertThat(cafe.getData()).isEqualTo(LocalDate.of(2021, 1, 3));
+			Assertions.assertThat(leitor.proxima()).isNull();
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.donte.financas.sql;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+/**
+ * Conta os comandos SQL enviados pelo DataSource dos testes que importam {@link ContagemSqlConfig}.
+ * A contagem e global (nao por thread) para incluir o que roda em outras threads, como as
+ * respostas em streaming; os testes rodam um de cada vez. Um lote (batch) conta como um comando.
+ */
+public class ContadorSql implements QueryExecutionListener {
+
+	private static final Map<QueryType, AtomicInteger> CONTAGEM = new EnumMap<>(QueryType.class);
+
+	static {
+		for(QueryType tipo : QueryType.values()) {
+			CONTAGEM.put(tipo, new AtomicInteger());
+		}
+	}
+
+	public static void zerar() {
+		CONTAGEM.values().forEach(contador -> contador.set(0));
+	}
+
+	public static ContagemSql contagem() {
+		return new ContagemSql(
+				CONTAGEM.get(QueryType.SELECT).get(),
+				CONTAGEM.get(QueryType.INSERT).get(),
+				CONTAGEM.get(QueryType.UPDATE).get(),
+				CONTAGEM.get(QueryType.DELETE).get(),
+				CONTAGEM.get(QueryType.OTHER).get());
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+		for(QueryInfo consulta : consultas) {
+			CONTAGEM.get(QueryUtils.getQueryType(consulta.getQuery())).incrementAndGet();
+		}
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.donte.financas.sql;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantidade de comandos SQL por tipo. Em "outros" entram, por exemplo, as chamadas de sequence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContagemSql {
+
+	private int selects;
+	private int inserts;
+	private int updates;
+	private int deletes;
+	private int outros;
+
+	public int total() {
+		return selects + inserts + updates + deletes + outros;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.donte.financas.sql;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envolve o DataSource do contexto de teste para que {@link ContadorSql} veja cada comando enviado.
+ * Use com {@code @Import(ContagemSqlConfig.class)}.
+ */
+@TestConfiguration
+public class ContagemSqlConfig {
+
+	@Bean
+	public static BeanPostProcessor contagemSqlDataSource() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(bean instanceof DataSource) {
+					return ProxyDataSourceBuilder.create((DataSource) bean).name(nome).listener(new ContadorSql()).build();
+				}
+				return bean;
+			}
+		};
+	}
+
+}